@@ -0,0 +1,38 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Process-wide dictionary for low-cardinality vehicle attributes (brand, model, color, wheel drive).
+// Vehicles store the int code; each distinct string exists once no matter how many vehicles use it.
+// Codes only grow, so a decoded value never changes. NULL_CODE stands for a null string.
+// Codes are never saved: vehicles write the strings, and a reload encodes them again in this process.
+final class AttributeDictionary {
+    static final int NULL_CODE = -1;
+
+    private static final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private static volatile String[] values = new String[64];
+    private static int size;
+
+    private AttributeDictionary() {}
+
+    static int encode(String value) {
+        if (value == null) return NULL_CODE;
+        Integer code = codes.get(value);
+        return code != null ? code : register(value);
+    }
+
+    private static synchronized int register(String value) {
+        Integer code = codes.get(value);
+        if (code != null) return code;
+        if (size == values.length) values = Arrays.copyOf(values, size * 2);
+        values[size] = value;
+        codes.put(value, size); // publish after the value is in the table
+        return size++;
+    }
+
+    static String decode(int code) {
+        return code == NULL_CODE ? null : values[code];
+    }
+
+    static synchronized int size() { return size; }
+}
@@ -0,0 +1,154 @@
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Bitmap indexes over the slots of one QuoteEngine: one BitSet per value of each categorical
+// attribute and a sorted (value, slot) array per numeric attribute. A criteria query is answered
+// by intersecting bitmaps, without touching any vehicle object.
+// Stays valid until the engine is replaced or any searchable attribute changes.
+final class AttributeIndex {
+    final QuoteEngine engine;
+    final long attributeEpoch;
+    private final int size;
+
+    private final Map<String, BitSet> byType = new HashMap<>(); // lower-cased class name, plus "car" and "truck"
+    private final Map<String, BitSet> byColor = new HashMap<>();
+    private final Map<String, BitSet> byWheelDrive = new HashMap<>();
+    private final Map<Integer, BitSet> byDoors = new HashMap<>();
+    private final BitSet canGoAbroad = new BitSet();   // vehicles that have the goesAbroad attribute
+    private final BitSet goesAbroad = new BitSet();
+    private final BitSet remoteDeliverable = new BitSet();
+    private final BitSet remoteDroppable = new BitSet();
+    private final RangeIndex seatingCapacity;
+    private final RangeIndex horsePower;
+    private final RangeIndex loadingCapacity;
+
+    // Numeric attribute values sorted ascending, with the slot each value belongs to.
+    private static final class RangeIndex {
+        private final double[] values;
+        private final int[] slots;
+
+        RangeIndex(List<double[]> valueSlotPairs) {
+            valueSlotPairs.sort(Comparator.comparingDouble(p -> p[0]));
+            values = new double[valueSlotPairs.size()];
+            slots = new int[valueSlotPairs.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = valueSlotPairs.get(i)[0];
+                slots[i] = (int) valueSlotPairs.get(i)[1];
+            }
+        }
+
+        // Slots whose value lies in [min, max]; a null bound is open.
+        BitSet range(Double min, Double max) {
+            int from = min == null ? 0 : lowerBound(min);
+            int to = max == null ? values.length : upperBound(max);
+            BitSet result = new BitSet();
+            for (int i = from; i < to; i++) result.set(slots[i]);
+            return result;
+        }
+
+        private int lowerBound(double key) { // first index with values[i] >= key
+            int lo = 0, hi = values.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] < key) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        private int upperBound(double key) { // first index with values[i] > key
+            int lo = 0, hi = values.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] <= key) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+    }
+
+    AttributeIndex(QuoteEngine engine, long attributeEpoch) {
+        this.engine = engine;
+        this.attributeEpoch = attributeEpoch;
+        this.size = engine.size();
+        List<double[]> seats = new ArrayList<>();
+        List<double[]> power = new ArrayList<>();
+        List<double[]> capacity = new ArrayList<>();
+        for (int slot = 0; slot < size; slot++) {
+            Vehicle v = engine.vehicleAt(slot);
+            add(byType, v.getClass().getSimpleName().toLowerCase(Locale.ROOT), slot);
+            if (v instanceof Car) {
+                Car car = (Car) v;
+                add(byType, "car", slot);
+                if (car.getColor() != null) add(byColor, car.getColor().trim().toLowerCase(Locale.ROOT), slot);
+                byDoors.computeIfAbsent(car.getNumOfDoors(), k -> new BitSet()).set(slot);
+                seats.add(new double[] {car.getSeatingCapacity(), slot});
+            }
+            if (v instanceof Truck) add(byType, "truck", slot);
+            if (v instanceof SUV && ((SUV) v).getWheelDriveType() != null) {
+                add(byWheelDrive, ((SUV) v).getWheelDriveType().toLowerCase(Locale.ROOT), slot);
+            }
+            if (v instanceof SportsCar) power.add(new double[] {((SportsCar) v).getHorsePower(), slot});
+            if (v instanceof StationWagon || v instanceof Truck) capacity.add(new double[] {v.getLoadingCapacity(), slot});
+            if (v instanceof TransportTruck) {
+                canGoAbroad.set(slot);
+                if (((TransportTruck) v).isGoesAbroad()) goesAbroad.set(slot);
+            }
+            if (v.isRemoteDeliverable()) remoteDeliverable.set(slot);
+            if (v.isRemoteDroppable()) remoteDroppable.set(slot);
+        }
+        this.seatingCapacity = new RangeIndex(seats);
+        this.horsePower = new RangeIndex(power);
+        this.loadingCapacity = new RangeIndex(capacity);
+    }
+
+    private static void add(Map<String, BitSet> index, String key, int slot) {
+        index.computeIfAbsent(key, k -> new BitSet()).set(slot);
+    }
+
+    boolean isCurrent(QuoteEngine engine, long attributeEpoch) {
+        return this.engine == engine && this.attributeEpoch == attributeEpoch;
+    }
+
+    // Slots matching every filter set in the criteria.
+    BitSet match(VehicleCriteria c) {
+        BitSet result = new BitSet();
+        result.set(0, size);
+        if (c.getType() != null && !c.getType().trim().isEmpty()) and(result, byType.get(c.getType().trim().toLowerCase(Locale.ROOT)));
+        if (c.getColor() != null && !c.getColor().trim().isEmpty()) and(result, byColor.get(c.getColor().trim().toLowerCase(Locale.ROOT)));
+        if (c.getWheelDriveType() != null && !c.getWheelDriveType().trim().isEmpty()) and(result, byWheelDrive.get(c.getWheelDriveType().trim().toLowerCase(Locale.ROOT)));
+        if (c.getNumOfDoors() != null) and(result, byDoors.get(c.getNumOfDoors()));
+        if (c.getGoesAbroad() != null) {
+            BitSet flag = (BitSet) canGoAbroad.clone();
+            if (c.getGoesAbroad()) flag.and(goesAbroad); else flag.andNot(goesAbroad);
+            result.and(flag);
+        }
+        if (c.getRemoteDeliverable() != null) applyFlag(result, remoteDeliverable, c.getRemoteDeliverable());
+        if (c.getRemoteDroppable() != null) applyFlag(result, remoteDroppable, c.getRemoteDroppable());
+        if (c.getMinSeatingCapacity() != null || c.getMaxSeatingCapacity() != null) {
+            result.and(seatingCapacity.range(toDouble(c.getMinSeatingCapacity()), toDouble(c.getMaxSeatingCapacity())));
+        }
+        if (c.getMinHorsePower() != null || c.getMaxHorsePower() != null) {
+            result.and(horsePower.range(toDouble(c.getMinHorsePower()), toDouble(c.getMaxHorsePower())));
+        }
+        if (c.getMinLoadingCapacity() != null || c.getMaxLoadingCapacity() != null) {
+            result.and(loadingCapacity.range(c.getMinLoadingCapacity(), c.getMaxLoadingCapacity()));
+        }
+        return result;
+    }
+
+    private static void and(BitSet result, BitSet filter) {
+        if (filter == null) result.clear(); else result.and(filter);
+    }
+
+    private static void applyFlag(BitSet result, BitSet flag, boolean wanted) {
+        if (wanted) result.and(flag); else result.andNot(flag);
+    }
+
+    private static Double toDouble(Integer value) {
+        return value == null ? null : value.doubleValue();
+    }
+}
@@ -0,0 +1,222 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+// Bounded LRU cache of availability search results (vehicle IDs), keyed by type and by the date range
+// widened to whole UTC days, so searches that differ only in the time of day share an entry. An entry
+// splits the matching vehicles into those free for the whole widened range, which are free for any
+// period with that key, and those busy only on its first or last day, which are checked against the
+// exact period on each lookup. Entries remember the snapshot version they were computed at. On a hit,
+// only the vehicles that changed since then (taken from the park's change log) are re-checked and
+// patched into the entry, so a booking on one vehicle does not throw away every cached search.
+final class AvailabilityCache {
+    private static final int DEFAULT_CAPACITY = 256;
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    private enum Fit { FREE, BOUNDARY, BUSY }
+
+    // Ring buffer of (snapshot version, vehicle ID) for every published vehicle change.
+    static final class ChangeLog {
+        private final long[] versions;
+        private final String[] vehicleIds;
+        private int head; // next write position
+        private int size;
+        private long floorVersion; // every change after this version is still in the buffer
+
+        ChangeLog(int capacity) {
+            this.versions = new long[capacity];
+            this.vehicleIds = new String[capacity];
+        }
+
+        synchronized void record(long version, String vehicleId) {
+            if (size == versions.length) {
+                floorVersion = versions[head]; // overwriting the oldest entry
+            } else {
+                size++;
+            }
+            versions[head] = version;
+            vehicleIds[head] = vehicleId;
+            head = (head + 1) % versions.length;
+        }
+
+        synchronized void reset(long version) {
+            head = 0;
+            size = 0;
+            floorVersion = version;
+        }
+
+        // Vehicles changed in (fromVersion, toVersion], or null if the log no longer reaches back that far.
+        synchronized List<String> changedBetween(long fromVersion, long toVersion) {
+            if (fromVersion < floorVersion) return null;
+            List<String> changed = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                int pos = (head - size + i + versions.length) % versions.length;
+                if (versions[pos] > fromVersion && versions[pos] <= toVersion) changed.add(vehicleIds[pos]);
+            }
+            return changed;
+        }
+    }
+
+    private static final class Key {
+        private final long startDay; // start rounded down to midnight UTC
+        private final long endDay;   // end rounded up to midnight UTC
+        private final String type;   // lower-cased, "" for any type
+
+        Key(Date start, Date end, String type) {
+            this.startDay = Math.floorDiv(start.getTime(), DAY) * DAY;
+            this.endDay = -Math.floorDiv(-end.getTime(), DAY) * DAY;
+            this.type = type == null ? "" : type.trim().toLowerCase(Locale.ROOT);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return startDay == k.startDay && endDay == k.endDay && type.equals(k.type);
+        }
+
+        @Override
+        public int hashCode() { return Objects.hash(startDay, endDay, type); }
+    }
+
+    private static final class Entry {
+        private long version;
+        private final TreeSet<String> vehicleIds = new TreeSet<>(Vehicle.ID_ORDER); // free for the whole key range
+        private final TreeSet<String> boundary = new TreeSet<>(Vehicle.ID_ORDER);   // busy only on its first or last day
+        private List<String> published; // immutable copy of vehicleIds handed to callers, dropped when the set changes
+
+        Entry(long version) { this.version = version; }
+
+        void update(String vehicleId, Fit fit) {
+            boolean changed = fit == Fit.FREE ? vehicleIds.add(vehicleId) : vehicleIds.remove(vehicleId);
+            if (changed) published = null;
+            if (fit == Fit.BOUNDARY) boundary.add(vehicleId); else boundary.remove(vehicleId);
+        }
+
+        List<String> published() {
+            if (published == null) published = Collections.unmodifiableList(new ArrayList<>(vehicleIds));
+            return published;
+        }
+    }
+
+    private final int capacity;
+    private final Map<Key, Entry> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long patchedVehicles;
+
+    AvailabilityCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    AvailabilityCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > AvailabilityCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // IDs of the vehicles available in [start, end) for the type, consistent with the given snapshot.
+    // Unless a boundary-day vehicle qualifies, the returned list is immutable and shared between callers
+    // until the entry changes.
+    List<String> availableVehicleIds(FleetSnapshot current, ChangeLog log, Date start, Date end, String type) {
+        Key key = new Key(start, end, type);
+        List<String> free = null;
+        List<String> boundary = null;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.version <= current.getVersion()) {
+                List<String> changed = log.changedBetween(entry.version, current.getVersion());
+                if (changed != null) {
+                    for (String id : changed) entry.update(id, fit(current, id, key));
+                    patchedVehicles += changed.size();
+                    entry.version = current.getVersion();
+                    hits++;
+                    free = entry.published();
+                    boundary = new ArrayList<>(entry.boundary);
+                }
+            }
+            if (free == null) misses++;
+        }
+        if (free == null) {
+            Entry computed = new Entry(current.getVersion()); // full scan outside the lock
+            for (VehicleView v : current.vehicles()) computed.update(v.getId(), fit(v, key));
+            synchronized (this) {
+                Entry existing = entries.get(key);
+                if (existing == null || existing.version < computed.version) entries.put(key, computed);
+            }
+            free = computed.published();
+            boundary = new ArrayList<>(computed.boundary);
+        }
+        List<String> result = null;
+        for (String id : boundary) {
+            if (!isAvailable(current, id, start, end)) continue;
+            if (result == null) result = new ArrayList<>(free);
+            result.add(id);
+        }
+        if (result == null) return free;
+        result.sort(Vehicle.ID_ORDER);
+        return Collections.unmodifiableList(result);
+    }
+
+    private static Fit fit(FleetSnapshot current, String vehicleId, Key key) {
+        return current.findVehicle(vehicleId).map(v -> fit(v, key)).orElse(Fit.BUSY);
+    }
+
+    // Where the vehicle stands for every period with this key. Any such period covers the whole days
+    // strictly inside the key range, so a vehicle busy on one of those is busy for all of them.
+    private static Fit fit(VehicleView v, Key key) {
+        if (!key.type.isEmpty() && !VehiclePark.matchesType(v.getVehicle(), key.type)) return Fit.BUSY;
+        if (isAvailable(v, key.startDay, key.endDay)) return Fit.FREE;
+        long innerStart = key.startDay + DAY, innerEnd = key.endDay - DAY;
+        if (innerStart >= innerEnd || isAvailable(v, innerStart, innerEnd)) return Fit.BOUNDARY;
+        return Fit.BUSY;
+    }
+
+    private static boolean isAvailable(FleetSnapshot current, String vehicleId, Date start, Date end) {
+        return current.findVehicle(vehicleId).map(v -> isAvailable(v, start.getTime(), end.getTime())).orElse(false);
+    }
+
+    private static boolean isAvailable(VehicleView v, long start, long end) {
+        try {
+            return v.isAvailable(new Date(start), new Date(end));
+        } catch (InvalidDateException e) {
+            System.err.println("Error checking availability for vehicle " + v.getPlateNumber() + " (ID: " + v.getId() + "): " + e.getMessage());
+            return false;
+        }
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    synchronized int size() { return entries.size(); }
+    synchronized long getHits() { return hits; }
+    synchronized long getMisses() { return misses; }
+    synchronized long getEvictions() { return evictions; }
+
+    @Override
+    public synchronized String toString() {
+        long lookups = hits + misses;
+        return "Availability cache: " + entries.size() + "/" + capacity + " entries, " +
+               hits + " hits, " + misses + " misses" +
+               (lookups > 0 ? " (" + String.format("%.1f", 100.0 * hits / lookups) + "% hit rate)" : "") +
+               ", " + evictions + " evictions, " + patchedVehicles + " vehicle re-checks";
+    }
+}
@@ -0,0 +1,176 @@
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Ad-hoc measurements for the fleet data structures. Run with enough heap, e.g.
+//   java -Xmx3g Benchmarks heap 1000000
+public class Benchmarks {
+    private static final String[] COLORS = {"Red", "Blue", "Black", "White", "Silver", "Grey", "Green", "Yellow"};
+    private static final String[] WHEEL_DRIVES = {"RWD", "FWD", "4WD", "AWD"};
+
+    public static void main(String[] args) throws Exception {
+        String benchmark = args.length > 0 ? args[0] : "heap";
+        int n = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        switch (benchmark) {
+            case "heap": heapPerVehicle(n); break;
+            case "alloc": allocationPerCall(n); break;
+            case "rebalance": rebalancing(n, args.length > 2 ? Integer.parseInt(args[2]) : 300); break;
+            case "import": bulkImport(n); break;
+            default: System.err.println("Unknown benchmark '" + benchmark + "'. Available: heap, alloc, rebalance, import");
+        }
+    }
+
+    // Retained heap per vehicle for n SUVs. Attribute strings are built fresh for every vehicle, the
+    // way they arrive from user input, imports or deserialization, and drawn from ~350 distinct values.
+    private static void heapPerVehicle(int n) {
+        System.setOut(new PrintStream(new ByteArrayOutputStream())); // silence constructor warnings
+        long before = usedHeap();
+        List<Vehicle> fleet = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            fleet.add(new SUV("PL" + i, "Brand" + (i % 40), "Model" + (i % 300), 4, 100,
+                              new String(COLORS[i % COLORS.length].toCharArray()), 5, 4,
+                              new String(WHEEL_DRIVES[i % WHEEL_DRIVES.length].toCharArray())));
+        }
+        long after = usedHeap();
+        System.setOut(new PrintStream(new FileOutputStream(FileDescriptor.out)));
+        System.out.println(n + " vehicles: " + (after - before) / (1024 * 1024) + " MB retained, " +
+                           (after - before) / n + " bytes per vehicle (" + fleet.size() + ")");
+    }
+
+    // Bytes allocated by the calling thread per call of the reporting and search paths,
+    // on a park of n vehicles with a few bookings each.
+    private static void allocationPerCall(int n) throws Exception {
+        PrintStream console = new PrintStream(new FileOutputStream(FileDescriptor.out));
+        System.setOut(new PrintStream(new OutputStream() { @Override public void write(int b) {} @Override public void write(byte[] b, int off, int len) {} }));
+        VehiclePark park = new VehiclePark();
+        Customer customer = new Customer("Bench", "bench@example.com");
+        park.addCustomer(customer);
+        long day = TimeUnit.DAYS.toMillis(1);
+        long base = System.currentTimeMillis() / day * day + 30 * day;
+        for (int i = 0; i < n; i++) {
+            Vehicle v = new SUV("PL" + i, "Brand" + (i % 40), "Model" + (i % 300), 4, 100, COLORS[i % COLORS.length], 5, 4, "AWD");
+            park.addVehicle(v);
+            for (int b = 0; b < 3; b++) park.bookVehicle(v.getId(), customer.getCustomerId(), new Date(base + (i % 7 + b * 10) * day), new Date(base + (i % 7 + b * 10 + 2) * day));
+        }
+        File report = File.createTempFile("vpark-bench", ".txt");
+        report.deleteOnExit();
+        Date from = new Date(base + 3 * day), to = new Date(base + 5 * day);
+
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+        String[] names = {"dailyReport", "displayAllVehicles", "displayAvailableVehicles", "findAvailableVehicles"};
+        Runnable[] calls = {
+            () -> park.dailyReport(report.getPath()),
+            park::displayAllVehicles,
+            () -> park.displayAvailableVehicles(from, to),
+            () -> park.findAvailableVehicles(from, to, "SUV")
+        };
+        for (int c = 0; c < calls.length; c++) {
+            for (int i = 0; i < 5; i++) calls[c].run(); // warm up
+            int runs = 20;
+            long before = mx.getThreadAllocatedBytes(tid);
+            for (int i = 0; i < runs; i++) calls[c].run();
+            long perCall = (mx.getThreadAllocatedBytes(tid) - before) / runs;
+            console.println(names[c] + ": " + perCall / 1024 + " KB allocated per call (" + n + " vehicles)");
+        }
+        System.setOut(console);
+    }
+
+    // Time to plan rebalancing moves for n vehicles spread over the given number of depots.
+    // Bookings are made at evenly spread depots, then the vehicles pile up at a few depots (as after many
+    // one-way rentals), leaving those bookings to be covered by relocated vehicles.
+    private static void rebalancing(int n, int depotCount) {
+        PrintStream console = new PrintStream(new FileOutputStream(FileDescriptor.out));
+        System.setOut(new PrintStream(new OutputStream() { @Override public void write(int b) {} @Override public void write(byte[] b, int off, int len) {} }));
+        Random random = new Random(42);
+        VehiclePark park = new VehiclePark();
+        Customer customer = new Customer("Bench", "bench@example.com");
+        park.addCustomer(customer);
+        for (int d = 0; d < depotCount; d++) {
+            park.addDepot("Depot" + d, new GeoPoint(36 + random.nextDouble() * 6, 26 + random.nextDouble() * 19));
+        }
+        long day = TimeUnit.DAYS.toMillis(1);
+        long base = System.currentTimeMillis() / day * day + 10 * day;
+        for (int i = 0; i < n; i++) {
+            Vehicle v = i % 3 == 0 ? new SUV("PL" + i, "Brand", "Model", 4, 100, "Red", 5, 4, "AWD")
+                      : i % 3 == 1 ? new StationWagon("PL" + i, "Brand", "Model", 4, 90, "Blue", 5, 4, 400)
+                      : new SportsCar("PL" + i, "Brand", "Model", 4, 200, "Black", 2, 2, 400);
+            park.addVehicle(v);
+            if (random.nextInt(3) == 0) {
+                park.setVehicleLocation(v.getId(), "Depot" + random.nextInt(depotCount));
+                long start = base + random.nextInt(20) * day;
+                park.bookVehicle(v.getId(), customer.getCustomerId(), new Date(start), new Date(start + 2 * day));
+            }
+            int depot = (int) (depotCount * Math.pow(random.nextDouble(), 3)); // skewed towards the first depots
+            park.setVehicleLocation(v.getId(), "Depot" + depot);
+        }
+        Date from = new Date(base), to = new Date(base + 20 * day);
+        RebalancePlan plan = null;
+        for (int i = 0; i < 3; i++) plan = park.planRebalancing(from, to).get(); // warm up
+        int runs = 10;
+        long[] times = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            plan = park.planRebalancing(from, to).get();
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        System.setOut(console);
+        System.out.println(n + " vehicles, " + depotCount + " depots: " + plan.getMoves().size() + " moves, " +
+                           String.format("%.0f", plan.getTotalKm()) + " km; median " + TimeUnit.NANOSECONDS.toMillis(times[runs / 2]) +
+                           " ms, max " + TimeUnit.NANOSECONDS.toMillis(times[runs - 1]) + " ms per plan");
+    }
+
+    // A CSV of n vehicles (1% repeated plates) imported in bulk into an empty park, against the same
+    // vehicles added one by one with addVehicle.
+    private static void bulkImport(int n) throws Exception {
+        PrintStream console = new PrintStream(new FileOutputStream(FileDescriptor.out));
+        File csv = File.createTempFile("vpark-import", ".csv");
+        csv.deleteOnExit();
+        try (PrintStream out = new PrintStream(new FileOutputStream(csv))) {
+            out.println("type,plate,brand,model,tires,dailyFee,color,seats,doors,horsePower,wheelDrive,capacity");
+            for (int i = 0; i < n; i++) {
+                int plate = i % 100 == 99 ? i - 1 : i;
+                if (i % 2 == 0) out.println("SUV,PL" + plate + ",Brand" + (i % 40) + ",Model" + (i % 300) + ",4,100," + COLORS[i % COLORS.length] + ",5,4,,AWD,");
+                else out.println("StationWagon,PL" + plate + ",Brand" + (i % 40) + ",Model" + (i % 300) + ",4,90," + COLORS[i % COLORS.length] + ",5,4,,,400");
+            }
+        }
+        System.setOut(new PrintStream(new OutputStream() { @Override public void write(int b) {} @Override public void write(byte[] b, int off, int len) {} }));
+        System.setErr(System.out);
+        for (int i = 0; i < 2; i++) new VehiclePark().importVehicles(csv); // warm up
+        long start = System.nanoTime();
+        ImportReport report = new VehiclePark().importVehicles(csv).get();
+        long bulkNanos = System.nanoTime() - start;
+        VehiclePark park = new VehiclePark();
+        start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            int plate = i % 100 == 99 ? i - 1 : i;
+            park.addVehicle(i % 2 == 0 ? new SUV("PL" + plate, "Brand" + (i % 40), "Model" + (i % 300), 4, 100, COLORS[i % COLORS.length], 5, 4, "AWD")
+                                       : new StationWagon("PL" + plate, "Brand" + (i % 40), "Model" + (i % 300), 4, 90, COLORS[i % COLORS.length], 5, 4, 400));
+        }
+        long singleNanos = System.nanoTime() - start;
+        System.setOut(console);
+        System.setErr(new PrintStream(new FileOutputStream(FileDescriptor.err)));
+        console.println(n + " rows: bulk import " + TimeUnit.NANOSECONDS.toMillis(bulkNanos) + " ms (" + report.getImportedCount() + " imported, " +
+                        report.getErrors().size() + " rejected), addVehicle one by one " + TimeUnit.NANOSECONDS.toMillis(singleNanos) + " ms");
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try { Thread.sleep(100); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -5,11 +5,22 @@ import java.util.Objects;
 
 public class Booking implements Serializable { // 'public' olduğundan ve adının doğru yazıldığından emin olun
     private static final long serialVersionUID = 1L; // Serializable için
+    private static long nextIdSuffix = 1;
+    protected static final String ID_PREFIX = "BOOK-";
+
+    private String bookingId; // assigned on load for bookings saved before IDs existed
     private Date startDate;
     private Date endDate;
-    // private String customerId; // Gerekirse eklenebilir
+    private String vehicleId;  // null for bookings created before ownership was tracked
+    private String customerId;
+    private double cargoLoad; // tons reserved by a cargo allocation; put on board when the booking is rented
+    private GeoPoint pickupLocation; // where the vehicle was due to be when it was booked; null if unknown
 
     public Booking(Date startDate, Date endDate) {
+        this(startDate, endDate, null, null);
+    }
+
+    public Booking(Date startDate, Date endDate, String vehicleId, String customerId) {
         if (startDate == null || endDate == null || startDate.after(endDate)) {
             // throw new IllegalArgumentException("Start date cannot be null, after end date, or equal to end date.");
             // Veya projenizdeki InvalidDateException'ı kullanabilirsiniz
@@ -17,8 +28,30 @@ public class Booking implements Serializable { // 'public' olduğundan ve adın
             // metotlarda daha detaylı kontrol edilebilir.
             // Şimdilik temel atama:
         }
+        this.bookingId = ID_PREFIX + nextSuffix();
         this.startDate = startDate;
         this.endDate = endDate;
+        this.vehicleId = vehicleId;
+        this.customerId = customerId;
+    }
+
+    // Parks in the same JVM (e.g. in-process shards) may create bookings concurrently.
+    private static synchronized long nextSuffix() {
+        return nextIdSuffix++;
+    }
+
+    public static synchronized void updateNextIdSuffix(long highestKnownIdSuffix) {
+        nextIdSuffix = Math.max(nextIdSuffix, highestKnownIdSuffix + 1);
+    }
+
+    // Fills in the identity of bookings loaded from data saved before IDs and owners were recorded.
+    void restoreIdentity(String owningVehicleId) {
+        if (bookingId == null) bookingId = ID_PREFIX + nextSuffix();
+        if (vehicleId == null) vehicleId = owningVehicleId;
+    }
+
+    public String getBookingId() {
+        return bookingId;
     }
 
     public Date getStartDate() {
@@ -29,6 +62,35 @@ public class Booking implements Serializable { // 'public' olduğundan ve adın
         return endDate;
     }
 
+    public String getVehicleId() {
+        return vehicleId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public double getCargoLoad() {
+        return cargoLoad;
+    }
+
+    void setCargoLoad(double cargoLoad) {
+        this.cargoLoad = cargoLoad;
+    }
+
+    public GeoPoint getPickupLocation() {
+        return pickupLocation;
+    }
+
+    void setPickupLocation(GeoPoint pickupLocation) {
+        this.pickupLocation = pickupLocation;
+    }
+
+    // A booking without an owner (old data) may be handled by any customer.
+    public boolean isOwnedBy(String customerId) {
+        return this.customerId == null || this.customerId.equals(customerId);
+    }
+
     public void setStartDate(Date startDate) {
         this.startDate = startDate;
     }
@@ -48,8 +110,10 @@ public class Booking implements Serializable { // 'public' olduğundan ve adın
 
     @Override
     public String toString() {
-        return "Booking [startDate=" + (startDate != null ? startDate.toGMTString() : "null") +
-               ", endDate=" + (endDate != null ? endDate.toGMTString() : "null") + "]";
+        return "Booking [bookingId=" + bookingId + ", vehicleId=" + vehicleId + ", customerId=" + customerId +
+               ", startDate=" + (startDate != null ? startDate.toGMTString() : "null") +
+               ", endDate=" + (endDate != null ? endDate.toGMTString() : "null") +
+               (cargoLoad > 0 ? ", cargoLoad=" + cargoLoad : "") + "]";
     }
 
     @Override
@@ -57,13 +121,11 @@ public class Booking implements Serializable { // 'public' olduğundan ve adın
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Booking booking = (Booking) o;
-        return Objects.equals(startDate, booking.startDate) &&
-               Objects.equals(endDate, booking.endDate);
-        // && Objects.equals(customerId, booking.customerId); // Eğer customerId eklenirse
+        return Objects.equals(bookingId, booking.bookingId);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(startDate, endDate); // , customerId); // Eğer customerId eklenirse
+        return Objects.hash(bookingId);
     }
 }
\ No newline at end of file
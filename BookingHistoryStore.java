@@ -0,0 +1,91 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+
+// Append-only archive of old calendar entries, one file per calendar month ("history-yyyy-MM.log").
+// A record spanning several months is written to each of them so a range scan only opens the
+// partitions that overlap the requested period.
+public class BookingHistoryStore {
+    private final File directory;
+
+    public BookingHistoryStore(File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create history directory " + directory.getAbsolutePath());
+        }
+        this.directory = directory;
+    }
+
+    public File getDirectory() { return directory; }
+
+    // Groups the records by partition first so each file is opened once per batch.
+    public synchronized void append(List<HistoryRecord> records) throws IOException {
+        Map<String, List<String>> linesByPartition = new LinkedHashMap<>();
+        for (HistoryRecord record : records) {
+            String line = record.toLine();
+            for (String partition : partitionsBetween(record.getStartDate(), record.getEndDate())) {
+                linesByPartition.computeIfAbsent(partition, k -> new ArrayList<>()).add(line);
+            }
+        }
+        for (Map.Entry<String, List<String>> partition : linesByPartition.entrySet()) {
+            try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(partitionFile(partition.getKey()), true)))) {
+                for (String line : partition.getValue()) writer.println(line);
+                if (writer.checkError()) throw new IOException("Could not write " + partitionFile(partition.getKey()).getAbsolutePath());
+            }
+        }
+    }
+
+    // All records for vehicleId (or every vehicle when null) overlapping [from, to).
+    public synchronized List<HistoryRecord> scan(String vehicleId, Date from, Date to) throws IOException {
+        Set<HistoryRecord> found = new LinkedHashSet<>(); // multi-month records appear in several partitions
+        for (String partition : partitionsBetween(from, to)) {
+            File file = partitionFile(partition);
+            if (!file.isFile()) continue;
+            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty()) continue;
+                    if (vehicleId != null && !line.startsWith(vehicleId + "\t", line.indexOf('\t') + 1)) continue;
+                    HistoryRecord record = HistoryRecord.fromLine(line);
+                    if (record.overlaps(from, to)) found.add(record);
+                }
+            }
+        }
+        return new ArrayList<>(found);
+    }
+
+    private File partitionFile(String partition) {
+        return new File(directory, "history-" + partition + ".log");
+    }
+
+    private static List<String> partitionsBetween(Date from, Date to) {
+        SimpleDateFormat monthFormat = new SimpleDateFormat("yyyy-MM");
+        monthFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        Calendar cursor = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        cursor.setTime(from);
+        cursor.set(Calendar.DAY_OF_MONTH, 1);
+        cursor.set(Calendar.HOUR_OF_DAY, 0);
+        cursor.set(Calendar.MINUTE, 0);
+        cursor.set(Calendar.SECOND, 0);
+        cursor.set(Calendar.MILLISECOND, 0);
+        List<String> partitions = new ArrayList<>();
+        while (!cursor.getTime().after(to)) {
+            partitions.add(monthFormat.format(cursor.getTime()));
+            cursor.add(Calendar.MONTH, 1);
+        }
+        return partitions;
+    }
+}
@@ -0,0 +1,241 @@
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+// Booking rules per vehicle type, compiled from "<Type>.<rule>=<value>" properties into flat arrays.
+// Each row belongs to one class in TYPES; a type inherits every rule it does not set from its nearest
+// listed superclass (SUV -> Car -> Vehicle), so a check at booking time is a handful of array reads.
+// The built-in defaults reproduce the rules that used to be hard-coded in Truck, SUV, SportsCar and
+// TransportTruck; a policy file only needs the keys it changes.
+public final class BookingPolicy {
+    static final String MIN_LEAD_DAYS = "minLeadDays";
+    static final String MAX_RENTAL_DAYS = "maxRentalDays"; // 0 means no limit
+    static final String REMOTE_DELIVERY = "remoteDelivery";
+    static final String REMOTE_DROP_OFF = "remoteDropOff";
+    static final String PER_DAY_SURCHARGE = "perDaySurcharge";
+    static final String FIXED_SURCHARGE = "fixedSurcharge";
+    static final String PER_HORSE_POWER_RATE = "perHorsePowerRate"; // SportsCar
+    static final String ABROAD_SURCHARGE = "abroadSurcharge"; // TransportTruck with goesAbroad
+    private static final List<String> RULES = Arrays.asList(MIN_LEAD_DAYS, MAX_RENTAL_DAYS, REMOTE_DELIVERY, REMOTE_DROP_OFF,
+            PER_DAY_SURCHARGE, FIXED_SURCHARGE, PER_HORSE_POWER_RATE, ABROAD_SURCHARGE);
+
+    // Superclasses before subclasses, so a row's parent is always compiled first.
+    private static final Class<?>[] TYPES = {
+        Vehicle.class, Car.class, Truck.class,
+        SportsCar.class, SUV.class, StationWagon.class, SmallTruck.class, TransportTruck.class
+    };
+
+    // Most specific listed class for any vehicle class; unlisted subclasses share their parent's row.
+    private static final ClassValue<Integer> ROWS = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                for (int row = 0; row < TYPES.length; row++) {
+                    if (TYPES[row] == c) return row;
+                }
+            }
+            return 0;
+        }
+    };
+
+    private static final Properties BUILT_IN_RULES = builtInRules(); // never modified after class initialization
+    private static volatile BookingPolicy current = compile(BUILT_IN_RULES, "built-in defaults");
+
+    private final String source;
+    private final long[] minLeadMillis;
+    private final int[] maxRentalDays;
+    private final boolean[] remoteDelivery;
+    private final boolean[] remoteDropOff;
+    private final double[] perDaySurcharge;
+    private final double[] fixedSurcharge;
+    private final double[] perHorsePowerRate;
+    private final double[] abroadSurcharge;
+
+    private BookingPolicy(String source) {
+        int rows = TYPES.length;
+        this.source = source;
+        this.minLeadMillis = new long[rows];
+        this.maxRentalDays = new int[rows];
+        this.remoteDelivery = new boolean[rows];
+        this.remoteDropOff = new boolean[rows];
+        this.perDaySurcharge = new double[rows];
+        this.fixedSurcharge = new double[rows];
+        this.perHorsePowerRate = new double[rows];
+        this.abroadSurcharge = new double[rows];
+    }
+
+    public static BookingPolicy current() { return current; }
+
+    // Callers go through VehiclePark.applyBookingPolicy, which also invalidates fee and attribute caches.
+    static void install(BookingPolicy policy) {
+        if (policy != null) current = policy;
+    }
+
+    public static BookingPolicy defaults() {
+        return compile(BUILT_IN_RULES, "built-in defaults");
+    }
+
+    // Reads a properties file on top of the built-in defaults. Malformed or unknown entries are reported
+    // and skipped; the rule they meant to set keeps its inherited value.
+    public static BookingPolicy load(File file) throws IOException {
+        Properties rules = new Properties(BUILT_IN_RULES);
+        try (InputStream in = new FileInputStream(file)) {
+            rules.load(in);
+        }
+        return compile(rules, file.getPath());
+    }
+
+    private static Properties builtInRules() {
+        Properties rules = new Properties();
+        rules.setProperty("Truck." + MIN_LEAD_DAYS, "7");
+        rules.setProperty("Truck." + REMOTE_DELIVERY, "false");
+        rules.setProperty("Truck." + REMOTE_DROP_OFF, "false");
+        rules.setProperty("SUV." + REMOTE_DELIVERY, "false");
+        rules.setProperty("SUV." + REMOTE_DROP_OFF, "false");
+        rules.setProperty("SportsCar." + PER_HORSE_POWER_RATE, "0.1");
+        rules.setProperty("TransportTruck." + ABROAD_SURCHARGE, "500");
+        return rules;
+    }
+
+    private static BookingPolicy compile(Properties rules, String source) {
+        for (String key : rules.stringPropertyNames()) {
+            int dot = key.lastIndexOf('.');
+            if (dot <= 0 || typeRow(key.substring(0, dot)) < 0 || !RULES.contains(key.substring(dot + 1))) {
+                System.err.println("Warning: Unknown booking policy key '" + key + "' in " + source + " ignored.");
+            }
+        }
+        BookingPolicy policy = new BookingPolicy(source);
+        for (int row = 0; row < TYPES.length; row++) {
+            String type = TYPES[row].getSimpleName();
+            int parent = row == 0 ? -1 : ROWS.get(TYPES[row].getSuperclass());
+            long leadDays = parent < 0 ? 0 : TimeUnit.MILLISECONDS.toDays(policy.minLeadMillis[parent]);
+            policy.minLeadMillis[row] = TimeUnit.DAYS.toMillis(
+                    (long) readNumber(rules, source, type, MIN_LEAD_DAYS, leadDays));
+            policy.maxRentalDays[row] = (int) readNumber(rules, source, type, MAX_RENTAL_DAYS,
+                    parent < 0 ? 0 : policy.maxRentalDays[parent]);
+            policy.remoteDelivery[row] = readFlag(rules, source, type, REMOTE_DELIVERY,
+                    parent < 0 || policy.remoteDelivery[parent]);
+            policy.remoteDropOff[row] = readFlag(rules, source, type, REMOTE_DROP_OFF,
+                    parent < 0 || policy.remoteDropOff[parent]);
+            policy.perDaySurcharge[row] = readNumber(rules, source, type, PER_DAY_SURCHARGE,
+                    parent < 0 ? 0 : policy.perDaySurcharge[parent]);
+            policy.fixedSurcharge[row] = readNumber(rules, source, type, FIXED_SURCHARGE,
+                    parent < 0 ? 0 : policy.fixedSurcharge[parent]);
+            policy.perHorsePowerRate[row] = readNumber(rules, source, type, PER_HORSE_POWER_RATE,
+                    parent < 0 ? 0 : policy.perHorsePowerRate[parent]);
+            policy.abroadSurcharge[row] = readNumber(rules, source, type, ABROAD_SURCHARGE,
+                    parent < 0 ? 0 : policy.abroadSurcharge[parent]);
+        }
+        return policy;
+    }
+
+    private static int typeRow(String typeName) {
+        for (int row = 0; row < TYPES.length; row++) {
+            if (TYPES[row].getSimpleName().equals(typeName)) return row;
+        }
+        return -1;
+    }
+
+    // Day counts and money amounts alike must be non-negative; day counts must also be whole.
+    // A bad value falls back to the built-in rule for that key, or to the inherited value if there is none.
+    private static double readNumber(Properties rules, String source, String type, String rule, double inherited) {
+        String key = type + "." + rule;
+        String raw = rules.getProperty(key);
+        if (raw == null) return inherited;
+        boolean wholeDays = rule.equals(MIN_LEAD_DAYS) || rule.equals(MAX_RENTAL_DAYS);
+        double value = parseNumber(raw, wholeDays);
+        if (!Double.isNaN(value)) return value;
+        String builtIn = BUILT_IN_RULES.getProperty(key);
+        double fallback = builtIn != null ? parseNumber(builtIn, wholeDays) : inherited;
+        System.err.println("Warning: Invalid value '" + raw + "' for " + key + " in " + source + "; expected a non-negative " +
+                           (wholeDays ? "whole number of days" : "number") + ". Using " + (wholeDays ? String.valueOf((long) fallback) : String.valueOf(fallback)) + ".");
+        return fallback;
+    }
+
+    private static double parseNumber(String raw, boolean wholeDays) {
+        try {
+            double value = wholeDays ? Integer.parseInt(raw.trim()) : Double.parseDouble(raw.trim());
+            return value >= 0 && !Double.isInfinite(value) ? value : Double.NaN;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static boolean readFlag(Properties rules, String source, String type, String rule, boolean inherited) {
+        String key = type + "." + rule;
+        String raw = rules.getProperty(key);
+        if (raw == null) return inherited;
+        if (raw.trim().equalsIgnoreCase("true")) return true;
+        if (raw.trim().equalsIgnoreCase("false")) return false;
+        String builtIn = BUILT_IN_RULES.getProperty(key);
+        boolean fallback = builtIn != null ? Boolean.parseBoolean(builtIn) : inherited;
+        System.err.println("Warning: Invalid value '" + raw + "' for " + key + " in " + source +
+                           "; expected true or false. Using " + fallback + ".");
+        return fallback;
+    }
+
+    // --- Lookups ---
+
+    static int rowOf(Vehicle vehicle) {
+        return ROWS.get(vehicle.getClass());
+    }
+
+    public long getMinimumLeadTimeMillis(int row) { return minLeadMillis[row]; }
+    public int getMaxRentalDays(int row) { return maxRentalDays[row]; }
+    public boolean isRemoteDeliverable(int row) { return remoteDelivery[row]; }
+    public boolean isRemoteDroppable(int row) { return remoteDropOff[row]; }
+    public double getPerDaySurcharge(int row) { return perDaySurcharge[row]; }
+    public double getFixedSurcharge(int row) { return fixedSurcharge[row]; }
+    public double getPerHorsePowerRate(int row) { return perHorsePowerRate[row]; }
+    public double getAbroadSurcharge(int row) { return abroadSurcharge[row]; }
+    public String getSource() { return source; }
+
+    // --- Eligibility ---
+
+    // Why a booking for [startMillis, endMillis) made at nowMillis breaks the row's rules, or null if it doesn't.
+    public String checkBooking(int row, long startMillis, long endMillis, long nowMillis) {
+        long lead = minLeadMillis[row];
+        if (lead > 0 && startMillis - nowMillis < lead) {
+            long leadDays = TimeUnit.MILLISECONDS.toDays(lead);
+            return TYPES[row].getSimpleName() + "s must be booked at least " + leadDays + " days in advance. Requested: " +
+                   (startMillis < nowMillis ? "in the past." : TimeUnit.MILLISECONDS.toDays(startMillis - nowMillis) + " day(s) in advance.");
+        }
+        return checkDuration(row, startMillis, endMillis);
+    }
+
+    // Same for starting a rental; delivery and dropOff say whether a remote location was requested.
+    public String checkRental(int row, long startMillis, long endMillis, boolean delivery, boolean dropOff) {
+        if (delivery && !remoteDelivery[row]) return "cannot be remotely delivered.";
+        if (dropOff && !remoteDropOff[row]) return "cannot be remotely dropped off.";
+        return checkDuration(row, startMillis, endMillis);
+    }
+
+    private String checkDuration(int row, long startMillis, long endMillis) {
+        int maxDays = maxRentalDays[row];
+        if (maxDays > 0 && endMillis - startMillis > TimeUnit.DAYS.toMillis(maxDays)) {
+            return TYPES[row].getSimpleName() + "s can be booked for at most " + maxDays + " days at a time.";
+        }
+        return null;
+    }
+
+    // One line per concrete type, for the admin menu.
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Booking policy (" + source + "):");
+        for (int row = 0; row < TYPES.length; row++) {
+            if (Modifier.isAbstract(TYPES[row].getModifiers())) continue;
+            sb.append(String.format("%n  %-15s lead %3d d | max %s | remote delivery %-5s | remote drop-off %-5s | +$%.2f/day | +$%.2f fixed | $%.2f/HP | +$%.2f abroad",
+                    TYPES[row].getSimpleName(), TimeUnit.MILLISECONDS.toDays(minLeadMillis[row]),
+                    maxRentalDays[row] > 0 ? String.format("%4d d", maxRentalDays[row]) : "  none",
+                    remoteDelivery[row], remoteDropOff[row], perDaySurcharge[row], fixedSurcharge[row],
+                    perHorsePowerRate[row], abroadSurcharge[row]));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,26 @@
+import java.util.Collections;
+import java.util.List;
+
+// Outcome of a booking attempt: the booking if it went through, otherwise any available
+// look-alike vehicles for the same period, closest first.
+public class BookingResult {
+    private final Booking booking;
+    private final List<VehicleQuote> alternatives;
+
+    private BookingResult(Booking booking, List<VehicleQuote> alternatives) {
+        this.booking = booking;
+        this.alternatives = Collections.unmodifiableList(alternatives);
+    }
+
+    static BookingResult booked(Booking booking) {
+        return new BookingResult(booking, Collections.emptyList());
+    }
+
+    static BookingResult failed(List<VehicleQuote> alternatives) {
+        return new BookingResult(null, alternatives);
+    }
+
+    public boolean isBooked() { return booking != null; }
+    public Booking getBooking() { return booking; }
+    public List<VehicleQuote> getAlternatives() { return alternatives; }
+}
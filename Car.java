@@ -1,29 +1,55 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+
 public abstract class Car extends Vehicle {
-    private String color;
+    private static final long serialVersionUID = 4275526434334444314L; // the implicit UID of the original class; saves from it stay readable
+    private static final ObjectStreamField[] serialPersistentFields = { // the original layout: color as a string
+        new ObjectStreamField("color", String.class),
+        new ObjectStreamField("seatingCapacity", int.class),
+        new ObjectStreamField("numOfDoors", int.class),
+    };
+    private transient int colorCode; // AttributeDictionary code
     private int seatingCapacity;
     private int numOfDoors;
 
     public Car(String plateNo, String brand, String model, int numberOfTires, double dailyFee,
                String color, int seatingCapacity, int numOfDoors) {
         super(plateNo, brand, model, numberOfTires, dailyFee); // No ID passed to super
-        this.color = color;
+        this.colorCode = AttributeDictionary.encode(color);
         this.seatingCapacity = seatingCapacity;
         this.numOfDoors = numOfDoors;
     }
 
-    public String getColor() { return color; }
+    public String getColor() { return AttributeDictionary.decode(colorCode); }
     public int getSeatingCapacity() { return seatingCapacity; }
     public int getNumOfDoors() { return numOfDoors; }
 
-    public void setColor(String color) { this.color = color; }
-    public void setSeatingCapacity(int seatingCapacity) { this.seatingCapacity = seatingCapacity; }
-    public void setNumOfDoors(int numOfDoors) { this.numOfDoors = numOfDoors; }
+    public void setColor(String color) { this.colorCode = AttributeDictionary.encode(color); attributesChanged(); }
+    public void setSeatingCapacity(int seatingCapacity) { this.seatingCapacity = seatingCapacity; attributesChanged(); }
+    public void setNumOfDoors(int numOfDoors) { this.numOfDoors = numOfDoors; attributesChanged(); }
 
     @Override
     public String toString() {
         return super.toString() +
-               "\n  Color: " + color +
+               "\n  Color: " + getColor() +
                "\n  Seating Capacity: " + seatingCapacity +
                "\n  Number of Doors: " + numOfDoors;
     }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("color", getColor());
+        fields.put("seatingCapacity", seatingCapacity);
+        fields.put("numOfDoors", numOfDoors);
+        out.writeFields();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        this.colorCode = AttributeDictionary.encode((String) fields.get("color", null));
+        this.seatingCapacity = fields.get("seatingCapacity", 0);
+        this.numOfDoors = fields.get("numOfDoors", 0);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+// Best-fit-decreasing bin packing over the capacity of Trucks and StationWagons.
+// Vehicles sit in trees ordered by remaining capacity, so each shipment finds the tightest vehicle
+// it fits in with one ceiling lookup: O(n log n + n log m) for n shipments over m vehicles.
+final class CargoAllocator {
+    private static final class Bin {
+        final Vehicle vehicle;
+        final String id;
+        final boolean abroad;
+        double remaining;
+
+        Bin(Vehicle vehicle, String id, boolean abroad, double remaining) {
+            this.vehicle = vehicle;
+            this.id = id;
+            this.abroad = abroad;
+            this.remaining = remaining;
+        }
+    }
+
+    // Ties on capacity go to the lowest ID so plans are reproducible.
+    private static final Comparator<Bin> BY_REMAINING =
+            Comparator.comparingDouble((Bin b) -> b.remaining).thenComparing(b -> b.id, Vehicle.ID_ORDER);
+
+    private final TreeSet<Bin> allBins = new TreeSet<>(BY_REMAINING);
+    private final TreeSet<Bin> abroadBins = new TreeSet<>(BY_REMAINING); // TransportTrucks that go abroad
+
+    static boolean carriesCargo(Vehicle v) {
+        return v instanceof Truck || v instanceof StationWagon;
+    }
+
+    // Vehicles free for the period start it empty: cargo reserved for other periods rides on those bookings.
+    void addVehicle(Vehicle v) {
+        if (!carriesCargo(v) || v.getLoadingCapacity() <= 0) return;
+        boolean abroad = v instanceof TransportTruck && ((TransportTruck) v).isGoesAbroad();
+        Bin bin = new Bin(v, v.getId(), abroad, v.getLoadingCapacity());
+        allBins.add(bin);
+        if (abroad) abroadBins.add(bin);
+    }
+
+    CargoPlan allocate(List<Shipment> shipments) {
+        CargoPlan plan = new CargoPlan();
+        List<Shipment> ordered = new ArrayList<>(shipments);
+        ordered.sort(Comparator.comparingDouble(Shipment::getWeight).reversed());
+        for (Shipment s : ordered) {
+            double weight = s.getWeight();
+            if (!(weight > 0)) {
+                plan.reject(s);
+                continue;
+            }
+            // "" sorts before every real ID, so this finds the smallest bin with at least weight left.
+            Bin bin = (s.crossesBorder() ? abroadBins : allBins).ceiling(new Bin(null, "", false, weight));
+            if (bin == null) {
+                plan.reject(s);
+                continue;
+            }
+            allBins.remove(bin);
+            if (bin.abroad) abroadBins.remove(bin);
+            bin.remaining -= weight;
+            if (bin.remaining > 0) {
+                allBins.add(bin);
+                if (bin.abroad) abroadBins.add(bin);
+            }
+            plan.assign(s, bin.vehicle);
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,53 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Result of a cargo allocation: which vehicle carries each shipment, and which shipments did not fit anywhere.
+public class CargoPlan {
+    private final Map<Shipment, Vehicle> assignments = new LinkedHashMap<>();
+    private final List<Shipment> unassigned = new ArrayList<>();
+
+    void assign(Shipment shipment, Vehicle vehicle) { assignments.put(shipment, vehicle); }
+    void reject(Shipment shipment) { unassigned.add(shipment); }
+
+    // Moves every shipment planned on the vehicle back to the unplaced list.
+    void release(Vehicle vehicle) {
+        for (Iterator<Map.Entry<Shipment, Vehicle>> it = assignments.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Shipment, Vehicle> e = it.next();
+            if (e.getValue() == vehicle) {
+                unassigned.add(e.getKey());
+                it.remove();
+            }
+        }
+    }
+
+    public Map<Shipment, Vehicle> getAssignments() { return Collections.unmodifiableMap(assignments); }
+    public List<Shipment> getUnassigned() { return Collections.unmodifiableList(unassigned); }
+    public boolean isComplete() { return unassigned.isEmpty(); }
+
+    // Total weight planned per vehicle, in the order vehicles were first used.
+    public Map<Vehicle, Double> getLoadByVehicle() {
+        Map<Vehicle, Double> loads = new LinkedHashMap<>();
+        for (Map.Entry<Shipment, Vehicle> e : assignments.entrySet()) {
+            loads.merge(e.getValue(), e.getKey().getWeight(), Double::sum);
+        }
+        return loads;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Shipment, Vehicle> e : assignments.entrySet()) {
+            Vehicle v = e.getValue();
+            sb.append(e.getKey()).append(" -> ").append(v.getId()).append(" (").append(v.getPlateNumber())
+              .append(", ").append(v.getClass().getSimpleName()).append(")\n");
+        }
+        for (Shipment s : unassigned) sb.append(s).append(" -> no vehicle with enough capacity\n");
+        sb.append(assignments.size()).append(" shipment(s) placed on ").append(getLoadByVehicle().size())
+          .append(" vehicle(s), ").append(unassigned.size()).append(" unplaced.");
+        return sb.toString();
+    }
+}
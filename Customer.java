@@ -1,5 +1,8 @@
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
 
 public class Customer implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -11,15 +14,32 @@ public class Customer implements Serializable {
     private String contactInfo;
 
     public Customer(String name, String contactInfo) {
-        this.customerId = ID_PREFIX + nextIdSuffix++;
+        this.customerId = ID_PREFIX + nextSuffix();
         this.name = name;
         this.contactInfo = contactInfo;
     }
 
-    public static void updateNextIdSuffix(long highestKnownIdSuffix) {
+    // Parks in the same JVM (e.g. in-process shards) may register customers concurrently.
+    private static synchronized long nextSuffix() {
+        return nextIdSuffix++;
+    }
+
+    // Builds one customer per spec while holding the ID counter, so they get one consecutive block of IDs.
+    static synchronized <S> List<Customer> buildBlock(List<S> specs, Function<S, Customer> build) {
+        List<Customer> customers = new ArrayList<>(specs.size());
+        for (S spec : specs) customers.add(build.apply(spec));
+        return customers;
+    }
+
+    public static synchronized void updateNextIdSuffix(long highestKnownIdSuffix) {
         nextIdSuffix = Math.max(1L, highestKnownIdSuffix + 1);
     }
 
+    // Never moves the counter backwards; used when a park is loaded next to existing customers.
+    static synchronized void raiseNextIdSuffix(long highestKnownIdSuffix) {
+        nextIdSuffix = Math.max(nextIdSuffix, highestKnownIdSuffix + 1);
+    }
+
     public String getCustomerId() { return customerId; }
     public String getName() { return name; }
     public String getContactInfo() { return contactInfo; }
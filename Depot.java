@@ -0,0 +1,22 @@
+import java.io.Serializable;
+
+// A named place vehicles are parked at. Drop-off locations that name a depot put the vehicle there.
+public final class Depot implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String name;
+    private final GeoPoint location;
+
+    public Depot(String name, GeoPoint location) {
+        this.name = name;
+        this.location = location;
+    }
+
+    public String getName() { return name; }
+    public GeoPoint getLocation() { return location; }
+
+    @Override
+    public String toString() {
+        return name + " (" + location + ")";
+    }
+}
@@ -0,0 +1,76 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+// Growable array of entities indexed by the numeric suffix of their ID ("BOOK-12" -> slot 12).
+// IDs are handed out sequentially, so the array stays dense; removed entities leave a null
+// tombstone. A lookup is a bounds check and an array load. Not thread-safe.
+final class EntityTable<T> {
+    // How far past the end a slot may land before the array stops growing to reach it. Sequential IDs
+    // never jump that far; an ID from hand-edited or foreign data can, and goes to a side map instead.
+    static final int MAX_SLOT_GAP = 1 << 20;
+
+    private Object[] slots = new Object[16];
+    private final Map<Integer, Object> farSlots = new HashMap<>(); // slots past slots.length + MAX_SLOT_GAP
+    private int count;
+
+    // Slot for an ID with the given prefix, or -1 if the ID is malformed.
+    static int slotOf(String id, String prefix) {
+        long suffix = VehiclePark.parseIdSuffix(id, prefix);
+        return suffix >= 0 && suffix < Integer.MAX_VALUE - 8 ? (int) suffix : -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(int slot) {
+        if (slot < 0) return null;
+        if (slot < slots.length) return (T) slots[slot];
+        return farSlots.isEmpty() ? null : (T) farSlots.get(slot);
+    }
+
+    void put(int slot, T entity) {
+        if (slot < 0) throw new IllegalArgumentException("Invalid entity slot " + slot);
+        if (slot >= slots.length) {
+            if (slot - slots.length > MAX_SLOT_GAP) {
+                if (farSlots.put(slot, entity) == null) count++;
+                return;
+            }
+            grow(slot);
+        }
+        if (slots[slot] == null) count++;
+        slots[slot] = entity;
+    }
+
+    private void grow(int slot) {
+        slots = Arrays.copyOf(slots, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(slot + 1L, slots.length * 2L)));
+        for (Iterator<Map.Entry<Integer, Object>> it = farSlots.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Integer, Object> e = it.next();
+            if (e.getKey() >= slots.length) continue;
+            slots[e.getKey()] = e.getValue();
+            it.remove();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    T remove(int slot) {
+        if (slot < 0) return null;
+        if (slot >= slots.length) {
+            T removed = (T) farSlots.remove(slot);
+            if (removed != null) count--;
+            return removed;
+        }
+        if (slots[slot] == null) return null;
+        T removed = (T) slots[slot];
+        slots[slot] = null;
+        count--;
+        return removed;
+    }
+
+    int size() { return count; }
+
+    void clear() {
+        Arrays.fill(slots, null);
+        farSlots.clear();
+        count = 0;
+    }
+}
@@ -0,0 +1,33 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Quote engine slots grouped by concrete vehicle type and ordered by per-day rate.
+// Built for one QuoteEngine and replaced together with it.
+final class FeeIndex {
+    final QuoteEngine engine;
+    final Map<String, int[]> slotsByType = new LinkedHashMap<>();
+    final Map<String, double[]> ratesByType = new LinkedHashMap<>(); // per-day rate of each slot above, same order
+
+    FeeIndex(QuoteEngine engine) {
+        this.engine = engine;
+        Map<String, List<Integer>> grouped = new LinkedHashMap<>();
+        for (int slot = 0; slot < engine.size(); slot++) {
+            grouped.computeIfAbsent(engine.vehicleAt(slot).getClass().getSimpleName(), k -> new ArrayList<>()).add(slot);
+        }
+        for (Map.Entry<String, List<Integer>> e : grouped.entrySet()) {
+            List<Integer> slots = e.getValue();
+            slots.sort(Comparator.comparingDouble(engine::perDayRate));
+            int[] sorted = new int[slots.size()];
+            double[] rates = new double[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = slots.get(i);
+                rates[i] = engine.perDayRate(sorted[i]);
+            }
+            slotsByType.put(e.getKey(), sorted);
+            ratesByType.put(e.getKey(), rates);
+        }
+    }
+}
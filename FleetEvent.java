@@ -0,0 +1,48 @@
+import java.util.Date;
+
+// One change to the fleet, as published by VehiclePark's event feed. Sequence numbers start at 1
+// and increase by one per event for as long as the park is running.
+public final class FleetEvent {
+    public enum Type { VEHICLE_ADDED, VEHICLE_REMOVED, BOOKING_CREATED, BOOKING_CANCELLED, RENTAL_STARTED, VEHICLE_DROPPED }
+
+    private final long sequence;
+    private final Type type;
+    private final long timestamp;
+    private final String vehicleId;
+    private final String vehicleType;
+    private final Booking booking; // the booking or rental involved; null for vehicle events
+    private final double fee; // charged on VEHICLE_DROPPED, otherwise 0
+
+    FleetEvent(long sequence, Type type, long timestamp, Vehicle vehicle, Booking booking, double fee) {
+        this.sequence = sequence;
+        this.type = type;
+        this.timestamp = timestamp;
+        this.vehicleId = vehicle.getId();
+        this.vehicleType = vehicle.getClass().getSimpleName();
+        this.booking = booking;
+        this.fee = fee;
+    }
+
+    public long getSequence() { return sequence; }
+    public Type getType() { return type; }
+    public long getTimestamp() { return timestamp; }
+    public String getVehicleId() { return vehicleId; }
+    public String getVehicleType() { return vehicleType; }
+    public String getBookingId() { return booking != null ? booking.getBookingId() : null; }
+    public String getCustomerId() { return booking != null ? booking.getCustomerId() : null; }
+    public Date getStartDate() { return booking != null ? booking.getStartDate() : null; }
+    public Date getEndDate() { return booking != null ? booking.getEndDate() : null; }
+    public double getFee() { return fee; }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("#").append(sequence).append(' ').append(type)
+                .append(' ').append(vehicleId).append(" (").append(vehicleType).append(')');
+        if (booking != null) {
+            sb.append(' ').append(booking.getBookingId()).append(" for ").append(booking.getCustomerId())
+              .append(", ").append(booking.getStartDate().toGMTString()).append(" to ").append(booking.getEndDate().toGMTString());
+        }
+        if (type == Type.VEHICLE_DROPPED) sb.append(String.format(", fee $%.2f", fee));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,184 @@
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Flow.Publisher over a ring buffer of the most recent fleet events.
+// The park appends under its own lock; that is an array store and a volatile write, plus a wake-up for
+// each subscriber with outstanding demand. Delivery runs on the executor, one drain loop per
+// subscriber, so a slow consumer only ever delays itself. Each subscriber reads the shared ring at
+// its own position and gets no more than it has requested.
+// A subscriber can start from any sequence still in the ring; one that falls more than the ring's
+// capacity behind gets onError(EventsLostException) and has to resync, e.g. from a fresh snapshot.
+// Numbering carries on from the sequence the feed was created with (the last one before a save), so a
+// subscriber resuming from before a reload is told its events are lost instead of waiting for a
+// number that has not come round again.
+final class FleetEventFeed implements Flow.Publisher<FleetEvent> {
+    // The events a subscriber asked for are no longer buffered. firstAvailable is the oldest one that is.
+    public static final class EventsLostException extends IllegalStateException {
+        private static final long serialVersionUID = 1L;
+        private final long firstAvailable;
+
+        EventsLostException(long requested, long firstAvailable) {
+            super("Events from #" + requested + " are no longer buffered; the oldest available is #" + firstAvailable + ".");
+            this.firstAvailable = firstAvailable;
+        }
+
+        public long getFirstAvailable() { return firstAvailable; }
+    }
+
+    private final FleetEvent[] ring;
+    private final int mask;
+    private final Executor executor;
+    private final long firstSequence; // the first event this feed appends; older ones were never buffered
+    private volatile long lastSequence;
+    private final List<EventSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    FleetEventFeed(int capacity, Executor executor, long lastSequence) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1; // next power of two
+        this.ring = new FleetEvent[size];
+        this.mask = size - 1;
+        this.executor = executor;
+        this.lastSequence = Math.max(0, lastSequence);
+        this.firstSequence = this.lastSequence + 1;
+    }
+
+    long getLastSequence() { return lastSequence; }
+
+    long firstAvailableSequence() {
+        return Math.max(firstSequence, lastSequence - ring.length + 1);
+    }
+
+    // Caller serializes appends (the park lock).
+    void append(FleetEvent.Type type, Vehicle vehicle, Booking booking, double fee) {
+        long sequence = lastSequence + 1;
+        ring[(int) (sequence & mask)] = new FleetEvent(sequence, type, System.currentTimeMillis(), vehicle, booking, fee);
+        lastSequence = sequence; // publishes the slot to readers
+        for (EventSubscription s : subscriptions) {
+            if (s.hasDemand()) s.signal(); // the others wake up when they next call request()
+        }
+    }
+
+    // Null if the event has not been appended yet; throws if it has already been overwritten.
+    private FleetEvent eventAt(long sequence) {
+        if (sequence > lastSequence) return null;
+        if (sequence < firstSequence) throw new EventsLostException(sequence, firstAvailableSequence());
+        FleetEvent event = ring[(int) (sequence & mask)];
+        if (event == null || event.getSequence() != sequence) throw new EventsLostException(sequence, firstAvailableSequence());
+        return event;
+    }
+
+    // Live events only, starting with the next one appended.
+    @Override
+    public void subscribe(Flow.Subscriber<? super FleetEvent> subscriber) {
+        subscribe(subscriber, lastSequence + 1);
+    }
+
+    // Replays buffered events from fromSequence on, then continues live. A fromSequence past the next
+    // event can only come from another run of the park, so that subscription fails straight away.
+    void subscribe(Flow.Subscriber<? super FleetEvent> subscriber, long fromSequence) {
+        if (subscriber == null) throw new NullPointerException("subscriber");
+        long next = lastSequence + 1;
+        EventSubscription subscription = new EventSubscription(subscriber, Math.max(1, fromSequence));
+        if (fromSequence > next) {
+            subscription.failure = new IllegalArgumentException("Event #" + fromSequence + " has not been published; the next event is #" + next + ".");
+        }
+        subscriptions.add(subscription);
+        subscription.start();
+    }
+
+    int getSubscriberCount() { return subscriptions.size(); }
+
+    private final class EventSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super FleetEvent> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pendingDrains = new AtomicInteger();
+        private long nextSequence; // only touched by the drain loop
+        private volatile boolean started;
+        private volatile boolean done;
+        private volatile Throwable failure; // a bad request() count, or a subscription that cannot be served
+
+        EventSubscription(Flow.Subscriber<? super FleetEvent> subscriber, long fromSequence) {
+            this.subscriber = subscriber;
+            this.nextSequence = fromSequence;
+        }
+
+        // onSubscribe goes through the drain loop too, so it never overlaps with onNext.
+        void start() { signal(); }
+
+        boolean hasDemand() { return demand.get() > 0; }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                failure = new IllegalArgumentException("Flow.Subscription.request needs a positive count, got " + n);
+            } else {
+                demand.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n);
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+            subscriptions.remove(this);
+        }
+
+        void signal() {
+            if (pendingDrains.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this);
+                } catch (RuntimeException e) { // executor shut down
+                    done = true;
+                    subscriptions.remove(this);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                drain();
+                missed = pendingDrains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            if (done) return;
+            try {
+                if (!started) {
+                    started = true;
+                    subscriber.onSubscribe(this);
+                }
+                while (!done) {
+                    if (failure != null) {
+                        fail(failure);
+                        return;
+                    }
+                    if (demand.get() == 0) return;
+                    FleetEvent event;
+                    try {
+                        event = eventAt(nextSequence);
+                    } catch (EventsLostException e) {
+                        fail(e);
+                        return;
+                    }
+                    if (event == null) return;
+                    nextSequence++;
+                    demand.decrementAndGet();
+                    subscriber.onNext(event);
+                }
+            } catch (RuntimeException e) { // a subscriber that throws is cancelled (Reactive Streams rule 2.13)
+                cancel();
+            }
+        }
+
+        private void fail(Throwable t) {
+            cancel();
+            subscriber.onError(t);
+        }
+    }
+}
@@ -0,0 +1,437 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+// Reads vehicles or customers for a bulk import from CSV (header row naming the columns) or JSON
+// (an array of flat objects), chosen by file extension. Splitting the file into records is one
+// sequential scan; parsing and validating the records runs in parallel chunks. Every record ends up
+// as a Row holding either a value ready to insert or the reason it was rejected, in file order.
+// Nothing is created here: VehiclePark builds the accepted entities in one pass under its lock and
+// the ID counter's, so the new IDs form one block and rejected rows never use one up.
+final class FleetImporter {
+    private static final int CHUNK_ROWS = 1024;
+
+    static final class Row<T> {
+        final int line;
+        final T value;
+        final String error;
+
+        Row(int line, T value, String error) {
+            this.line = line;
+            this.value = value;
+            this.error = error;
+        }
+    }
+
+    // A validated vehicle row. Columns that do not apply to its type are ignored.
+    static final class VehicleSpec {
+        final String type;
+        final String plate;
+        final String brand;
+        final String model;
+        final int tires;
+        final double dailyFee;
+        String color;
+        int seats;
+        int doors;
+        int horsePower;
+        String wheelDrive;
+        double capacity;
+        boolean goesAbroad;
+        String location; // depot name or "lat,lon"; null if not given
+
+        VehicleSpec(String type, String plate, String brand, String model, int tires, double dailyFee) {
+            this.type = type;
+            this.plate = plate;
+            this.brand = brand;
+            this.model = model;
+            this.tires = tires;
+            this.dailyFee = dailyFee;
+        }
+
+        Vehicle build() {
+            switch (type) {
+                case "SportsCar": return new SportsCar(plate, brand, model, tires, dailyFee, color, seats, doors, horsePower);
+                case "SUV": return new SUV(plate, brand, model, tires, dailyFee, color, seats, doors, wheelDrive);
+                case "StationWagon": return new StationWagon(plate, brand, model, tires, dailyFee, color, seats, doors, capacity);
+                case "SmallTruck": return new SmallTruck(plate, brand, model, tires, dailyFee, capacity);
+                default: return new TransportTruck(plate, brand, model, tires, dailyFee, capacity, goesAbroad);
+            }
+        }
+    }
+
+    static final class CustomerSpec {
+        final String name;
+        final String contact;
+
+        CustomerSpec(String name, String contact) {
+            this.name = name;
+            this.contact = contact;
+        }
+
+        Customer build() { return new Customer(name, contact); }
+    }
+
+    private static final String[] VEHICLE_TYPES = {"SportsCar", "SUV", "StationWagon", "SmallTruck", "TransportTruck"};
+    private static final Set<String> WHEEL_DRIVES = new HashSet<>(Arrays.asList("RWD", "FWD", "4WD", "AWD"));
+    private static final Pattern JSON_NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?");
+
+    private FleetImporter() {}
+
+    // Columns: type, plate, brand, model, tires, dailyFee, then by type color, seats, doors,
+    // horsePower (SportsCar), wheelDrive (SUV), capacity (StationWagon, trucks), goesAbroad
+    // (TransportTruck), and optionally location.
+    static Optional<List<Row<VehicleSpec>>> readVehicles(File file) {
+        return read(file, new String[] {"type", "plate"}, FleetImporter::toVehicle);
+    }
+
+    // Columns: name, contact.
+    static Optional<List<Row<CustomerSpec>>> readCustomers(File file) {
+        return read(file, new String[] {"name"}, FleetImporter::toCustomer);
+    }
+
+    private static <T> Optional<List<Row<T>>> read(File file, String[] requiredColumns, Function<Map<String, String>, T> convert) {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        boolean json = name.endsWith(".json");
+        if (!json && !name.endsWith(".csv")) {
+            System.err.println("Import failed: " + file.getName() + " must be a .csv or .json file.");
+            return Optional.empty();
+        }
+        if (!file.isFile()) {
+            System.err.println("Import failed: file " + file.getPath() + " not found.");
+            return Optional.empty();
+        }
+        String text;
+        try {
+            text = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.err.println("Import failed: could not read " + file.getPath() + ": " + e.getMessage());
+            return Optional.empty();
+        }
+        if (text.startsWith("\uFEFF")) text = text.substring(1);
+        List<int[]> records = new ArrayList<>(); // {line, start, end}
+        String[] header = null;
+        if (json) {
+            if (!splitJson(text, records, file.getName())) return Optional.empty();
+        } else {
+            header = splitCsv(text, records);
+            if (header == null) {
+                System.err.println("Import failed: " + file.getName() + " is empty.");
+                return Optional.empty();
+            }
+            for (String column : requiredColumns) {
+                if (indexOf(header, column) < 0) {
+                    System.err.println("Import failed: " + file.getName() + " has no '" + column + "' column.");
+                    return Optional.empty();
+                }
+            }
+        }
+        final String source = text;
+        final String[] columns = header;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Row<T>[] rows = new Row[records.size()];
+        int chunks = (records.size() + CHUNK_ROWS - 1) / CHUNK_ROWS;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int end = Math.min(records.size(), (chunk + 1) * CHUNK_ROWS);
+            for (int i = chunk * CHUNK_ROWS; i < end; i++) {
+                int[] record = records.get(i);
+                try {
+                    Map<String, String> fields = json ? parseJsonObject(source, record[1], record[2])
+                                                      : parseCsvRecord(source, record[1], record[2], columns);
+                    rows[i] = new Row<>(record[0], convert.apply(fields), null);
+                } catch (IllegalArgumentException e) {
+                    rows[i] = new Row<>(record[0], null, e.getMessage());
+                }
+            }
+        });
+        List<Row<T>> result = new ArrayList<>(rows.length);
+        for (Row<T> row : rows) result.add(row);
+        return Optional.of(result);
+    }
+
+    // --- Row Conversion ---
+    private static VehicleSpec toVehicle(Map<String, String> f) {
+        String type = null;
+        String given = text(f, "type");
+        for (String t : VEHICLE_TYPES) if (t.equalsIgnoreCase(given)) type = t;
+        if (type == null) throw new IllegalArgumentException("unknown vehicle type '" + given + "' (expected one of SportsCar, SUV, StationWagon, SmallTruck, TransportTruck)");
+        VehicleSpec spec = new VehicleSpec(type, text(f, "plate"), text(f, "brand"), text(f, "model"),
+                                           positiveInt(f, "tires"), positiveDouble(f, "dailyFee"));
+        if (!type.endsWith("Truck")) {
+            spec.color = text(f, "color");
+            spec.seats = positiveInt(f, "seats");
+            spec.doors = positiveInt(f, "doors");
+        }
+        switch (type) {
+            case "SportsCar": spec.horsePower = positiveInt(f, "horsePower"); break;
+            case "SUV":
+                spec.wheelDrive = text(f, "wheelDrive").toUpperCase(Locale.ROOT);
+                if (!WHEEL_DRIVES.contains(spec.wheelDrive)) throw new IllegalArgumentException("wheelDrive must be RWD, FWD, 4WD or AWD, got '" + f.get("wheeldrive") + "'");
+                break;
+            case "TransportTruck":
+                spec.capacity = positiveDouble(f, "capacity");
+                spec.goesAbroad = flag(f, "goesAbroad");
+                break;
+            default: spec.capacity = positiveDouble(f, "capacity"); // StationWagon and SmallTruck
+        }
+        String location = f.get("location");
+        if (location != null && !location.isEmpty()) spec.location = location;
+        return spec;
+    }
+
+    private static CustomerSpec toCustomer(Map<String, String> f) {
+        String contact = f.get("contact");
+        return new CustomerSpec(text(f, "name"), contact != null ? contact : "");
+    }
+
+    // Field names are lower-cased when a record is parsed; column is the name used in messages.
+    private static String text(Map<String, String> f, String column) {
+        String value = f.get(column.toLowerCase(Locale.ROOT));
+        if (value == null || value.isEmpty()) throw new IllegalArgumentException(column + " is missing");
+        return value;
+    }
+
+    private static int positiveInt(Map<String, String> f, String column) {
+        String value = text(f, column);
+        try {
+            int n = Integer.parseInt(value);
+            if (n > 0) return n;
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException(column + " must be a positive whole number, got '" + value + "'");
+    }
+
+    private static double positiveDouble(Map<String, String> f, String column) {
+        String value = text(f, column);
+        try {
+            double d = Double.parseDouble(value);
+            if (d > 0 && !Double.isInfinite(d)) return d;
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException(column + " must be a positive number, got '" + value + "'");
+    }
+
+    // Optional; false when blank.
+    private static boolean flag(Map<String, String> f, String column) {
+        String value = f.get(column.toLowerCase(Locale.ROOT));
+        if (value == null || value.isEmpty() || value.equalsIgnoreCase("false") || value.equalsIgnoreCase("no")) return false;
+        if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("yes")) return true;
+        throw new IllegalArgumentException(column + " must be true or false, got '" + value + "'");
+    }
+
+    private static int indexOf(String[] header, String column) {
+        for (int i = 0; i < header.length; i++) if (header[i].equals(column)) return i;
+        return -1;
+    }
+
+    // --- CSV ---
+    // Records are lines; quoted fields may contain commas and doubled quotes but not line breaks.
+    // Returns the header, lower-cased, or null if the file has no non-blank line.
+    private static String[] splitCsv(String text, List<int[]> records) {
+        String[] header = null;
+        int line = 0;
+        for (int start = 0; start < text.length(); ) {
+            int end = text.indexOf('\n', start);
+            if (end < 0) end = text.length();
+            int contentEnd = end > start && text.charAt(end - 1) == '\r' ? end - 1 : end;
+            line++;
+            int first = start;
+            while (first < contentEnd && Character.isWhitespace(text.charAt(first))) first++;
+            if (first < contentEnd) {
+                if (header == null) {
+                    List<String> names = splitCsvFields(text, start, contentEnd);
+                    header = new String[names.size()];
+                    for (int i = 0; i < header.length; i++) header[i] = names.get(i).toLowerCase(Locale.ROOT);
+                } else {
+                    records.add(new int[] {line, start, contentEnd});
+                }
+            }
+            start = end + 1;
+        }
+        return header;
+    }
+
+    private static Map<String, String> parseCsvRecord(String text, int start, int end, String[] header) {
+        List<String> values = splitCsvFields(text, start, end);
+        if (values.size() > header.length) throw new IllegalArgumentException("has " + values.size() + " fields but the header names " + header.length + " columns");
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) fields.put(header[i], values.get(i));
+        return fields;
+    }
+
+    private static List<String> splitCsvFields(String text, int start, int end) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int i = start;
+        while (true) {
+            while (i < end && text.charAt(i) == ' ') i++;
+            field.setLength(0);
+            if (i < end && text.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= end) throw new IllegalArgumentException("unterminated quoted field");
+                    char c = text.charAt(i++);
+                    if (c != '"') field.append(c);
+                    else if (i < end && text.charAt(i) == '"') { field.append('"'); i++; }
+                    else break;
+                }
+                while (i < end && text.charAt(i) != ',') {
+                    if (text.charAt(i++) != ' ') throw new IllegalArgumentException("unexpected text after a quoted field");
+                }
+                fields.add(field.toString());
+            } else {
+                int comma = text.indexOf(',', i);
+                int fieldEnd = comma < 0 || comma > end ? end : comma;
+                fields.add(text.substring(i, fieldEnd).trim());
+                i = fieldEnd;
+            }
+            if (i >= end) return fields;
+            i++; // the comma
+        }
+    }
+
+    // --- JSON ---
+    // Finds the objects of a top-level array without parsing them: strings and nesting are tracked
+    // only to find each closing brace.
+    private static boolean splitJson(String text, List<int[]> records, String fileName) {
+        int[] pos = {0};
+        int[] line = {1};
+        skipWhitespace(text, pos, line);
+        if (pos[0] >= text.length() || text.charAt(pos[0]) != '[') {
+            System.err.println("Import failed: " + fileName + " must contain a JSON array of objects.");
+            return false;
+        }
+        pos[0]++;
+        skipWhitespace(text, pos, line);
+        if (pos[0] < text.length() && text.charAt(pos[0]) == ']') return true;
+        while (true) {
+            if (pos[0] >= text.length() || text.charAt(pos[0]) != '{') {
+                System.err.println("Import failed: " + fileName + " line " + line[0] + ": expected an object.");
+                return false;
+            }
+            int start = pos[0], startLine = line[0], depth = 0;
+            boolean inString = false;
+            for (; pos[0] < text.length(); pos[0]++) {
+                char c = text.charAt(pos[0]);
+                if (c == '\n') line[0]++;
+                if (inString) {
+                    if (c == '\\') pos[0]++;
+                    else if (c == '"') inString = false;
+                } else if (c == '"') {
+                    inString = true;
+                } else if (c == '{' || c == '[') {
+                    depth++;
+                } else if ((c == '}' || c == ']') && --depth == 0) {
+                    break;
+                }
+            }
+            if (pos[0] >= text.length()) {
+                System.err.println("Import failed: " + fileName + " line " + startLine + ": the object is never closed.");
+                return false;
+            }
+            records.add(new int[] {startLine, start, ++pos[0]});
+            skipWhitespace(text, pos, line);
+            char next = pos[0] < text.length() ? text.charAt(pos[0]) : 0;
+            if (next == ']') return true;
+            if (next != ',') {
+                System.err.println("Import failed: " + fileName + " line " + line[0] + ": expected ',' or ']' after an object.");
+                return false;
+            }
+            pos[0]++;
+            skipWhitespace(text, pos, line);
+        }
+    }
+
+    private static void skipWhitespace(String text, int[] pos, int[] line) {
+        while (pos[0] < text.length() && Character.isWhitespace(text.charAt(pos[0]))) {
+            if (text.charAt(pos[0]) == '\n') line[0]++;
+            pos[0]++;
+        }
+    }
+
+    // A flat object: string, number, boolean or null values. Keys are matched case-insensitively.
+    private static Map<String, String> parseJsonObject(String text, int start, int end) {
+        Map<String, String> fields = new HashMap<>();
+        int[] pos = {start + 1};
+        int[] line = {0};
+        skipWhitespace(text, pos, line);
+        if (text.charAt(pos[0]) == '}') return fields;
+        while (true) {
+            if (text.charAt(pos[0]) != '"') throw new IllegalArgumentException("expected a quoted field name");
+            String key = parseJsonString(text, pos);
+            skipWhitespace(text, pos, line);
+            if (text.charAt(pos[0]) != ':') throw new IllegalArgumentException("expected ':' after \"" + key + "\"");
+            pos[0]++;
+            skipWhitespace(text, pos, line);
+            char c = text.charAt(pos[0]);
+            String value;
+            if (c == '"') {
+                value = parseJsonString(text, pos);
+            } else if (c == '{' || c == '[') {
+                throw new IllegalArgumentException("\"" + key + "\" holds a nested value; only flat objects can be imported");
+            } else {
+                int valueStart = pos[0];
+                while (pos[0] < end - 1 && ",} \t\r\n".indexOf(text.charAt(pos[0])) < 0) pos[0]++;
+                value = text.substring(valueStart, pos[0]);
+                if (value.equals("null")) value = null;
+                else if (!value.equals("true") && !value.equals("false") && !JSON_NUMBER.matcher(value).matches()) {
+                    throw new IllegalArgumentException("\"" + key + "\" has an invalid value '" + value + "'");
+                }
+            }
+            if (value != null) fields.put(key.toLowerCase(Locale.ROOT), value.trim());
+            skipWhitespace(text, pos, line);
+            c = text.charAt(pos[0]);
+            if (c == '}') return fields;
+            if (c != ',') throw new IllegalArgumentException("expected ',' or '}' after \"" + key + "\"");
+            pos[0]++;
+            skipWhitespace(text, pos, line);
+        }
+    }
+
+    private static String parseJsonString(String text, int[] pos) {
+        StringBuilder sb = new StringBuilder();
+        int i = pos[0] + 1;
+        while (true) {
+            char c = text.charAt(i++);
+            if (c == '"') break;
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            char e = text.charAt(i++);
+            switch (e) {
+                case 'n': sb.append('\n'); break;
+                case 't': sb.append('\t'); break;
+                case 'r': sb.append('\r'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'u':
+                    try {
+                        sb.append((char) Integer.parseInt(text.substring(i, i + 4), 16));
+                    } catch (NumberFormatException | StringIndexOutOfBoundsException ex) {
+                        throw new IllegalArgumentException("invalid \\u escape");
+                    }
+                    i += 4;
+                    break;
+                default: sb.append(e); // \" \\ \/
+            }
+        }
+        pos[0] = i;
+        return sb.toString();
+    }
+}
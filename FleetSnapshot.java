@@ -0,0 +1,117 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Consistent, read-only view of the fleet and customers at one published version.
+// Readers hold on to a snapshot for as long as they like; writers never touch it again.
+// Vehicles and customers sit at the numeric suffix of their ID, so lookups never hash or compare strings.
+public final class FleetSnapshot {
+    private final long version;
+    private final PersistentVector<VehicleView> vehicleSlots; // absent or removed vehicles are null
+    private final int vehicleCount;
+    private final PersistentVector<Customer> customerSlots;
+    private final int customerCount;
+    private final long compositionVersion; // changes only when vehicles are added or removed
+    private final long locationVersion; // changes when vehicles are added, removed or moved
+
+    FleetSnapshot(long version, PersistentVector<VehicleView> vehicleSlots, int vehicleCount,
+                  PersistentVector<Customer> customerSlots, int customerCount, long compositionVersion, long locationVersion) {
+        this.version = version;
+        this.compositionVersion = compositionVersion;
+        this.locationVersion = locationVersion;
+        this.vehicleSlots = vehicleSlots;
+        this.vehicleCount = vehicleCount;
+        this.customerSlots = customerSlots;
+        this.customerCount = customerCount;
+    }
+
+    public long getVersion() { return version; }
+    public long getCompositionVersion() { return compositionVersion; }
+    public long getLocationVersion() { return locationVersion; }
+    public int getVehicleCount() { return vehicleCount; }
+    public int getCustomerCount() { return customerCount; }
+    public boolean hasVehicles() { return vehicleCount > 0; }
+
+    public Optional<VehicleView> findVehicle(String vehicleId) {
+        return Optional.ofNullable(vehicleOrNull(vehicleId));
+    }
+
+    // findVehicle without the Optional, for internal loops over many IDs.
+    VehicleView vehicleOrNull(String vehicleId) {
+        if (vehicleId == null) return null;
+        return slot(vehicleSlots, EntityTable.slotOf(vehicleId.trim(), Vehicle.ID_PREFIX));
+    }
+
+    public Optional<Customer> findCustomer(String customerId) {
+        if (customerId == null) return Optional.empty();
+        return Optional.ofNullable(slot(customerSlots, EntityTable.slotOf(customerId.trim(), Customer.ID_PREFIX)));
+    }
+
+    private static <T> T slot(PersistentVector<T> slots, int slot) {
+        return slot >= 0 && slot < slots.size() ? slots.get(slot) : null;
+    }
+
+    // Visits every vehicle in ID order without allocating an iterator.
+    public void forEachVehicle(Consumer<? super VehicleView> action) {
+        for (int i = vehicleSlots.nextPresent(0); i < vehicleSlots.size(); i = vehicleSlots.nextPresent(i + 1)) {
+            action.accept(vehicleSlots.get(i));
+        }
+    }
+
+    // Up to limit vehicles from fromSlot onwards that pass the filter (null passes everything).
+    Page<VehicleView> vehiclePage(int fromSlot, int limit, Predicate<? super VehicleView> filter) {
+        return page(vehicleSlots, fromSlot, limit, filter, VehicleView::getId);
+    }
+
+    Page<Customer> customerPage(int fromSlot, int limit) {
+        return page(customerSlots, fromSlot, limit, null, Customer::getCustomerId);
+    }
+
+    // Walks only as far as the page needs, plus up to the next match to decide whether a cursor is due.
+    private static <T> Page<T> page(PersistentVector<T> slots, int fromSlot, int limit,
+                                    Predicate<? super T> filter, Function<T, String> idOf) {
+        List<T> items = new ArrayList<>(Math.min(limit, 64));
+        for (int i = slots.nextPresent(fromSlot); i < slots.size(); i = slots.nextPresent(i + 1)) {
+            T item = slots.get(i);
+            if (filter != null && !filter.test(item)) continue;
+            if (items.size() == limit) return new Page<>(items, idOf.apply(items.get(limit - 1)));
+            items.add(item);
+        }
+        return new Page<>(items, null);
+    }
+
+    public Iterable<VehicleView> vehicles() {
+        return () -> new SlotIterator<>(vehicleSlots);
+    }
+
+    public Iterable<Customer> customers() {
+        return () -> new SlotIterator<>(customerSlots);
+    }
+
+    // Iterates the occupied slots in ID order.
+    private static final class SlotIterator<T> implements Iterator<T> {
+        private final PersistentVector<T> slots;
+        private int nextSlot;
+
+        SlotIterator(PersistentVector<T> slots) {
+            this.slots = slots;
+            this.nextSlot = slots.nextPresent(0);
+        }
+
+        @Override
+        public boolean hasNext() { return nextSlot < slots.size(); }
+
+        @Override
+        public T next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            T item = slots.get(nextSlot);
+            nextSlot = slots.nextPresent(nextSlot + 1);
+            return item;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+import java.util.Date;
+
+// A gap in one vehicle's calendar. An open-ended window (nothing booked after it) has a null end date.
+public class FreeWindow {
+    private final String vehicleId;
+    private final Date startDate;
+    private final Date endDate;
+
+    public FreeWindow(String vehicleId, Date startDate, Date endDate) {
+        this.vehicleId = vehicleId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public String getVehicleId() { return vehicleId; }
+    public Date getStartDate() { return startDate; }
+    public Date getEndDate() { return endDate; }
+    public boolean isOpenEnded() { return endDate == null; }
+
+    @Override
+    public String toString() {
+        return "Vehicle " + vehicleId + " free from " + startDate.toGMTString() +
+               (endDate == null ? " onwards" : " to " + endDate.toGMTString());
+    }
+}
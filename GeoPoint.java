@@ -0,0 +1,74 @@
+import java.io.Serializable;
+import java.util.Optional;
+
+// A position on the earth in decimal degrees. Distances are great-circle kilometres.
+public final class GeoPoint implements Serializable {
+    private static final long serialVersionUID = 1L;
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final double latitude;
+    private final double longitude;
+
+    public GeoPoint(double latitude, double longitude) {
+        if (Double.isNaN(latitude) || latitude < -90 || latitude > 90) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90: " + latitude);
+        }
+        if (Double.isNaN(longitude) || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Longitude must be between -180 and 180: " + longitude);
+        }
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    // "lat,lon", e.g. "41.0082, 28.9784". Empty if the text is not a pair of valid coordinates.
+    public static Optional<GeoPoint> parse(String text) {
+        if (text == null) return Optional.empty();
+        int comma = text.indexOf(',');
+        if (comma < 0 || comma != text.lastIndexOf(',')) return Optional.empty();
+        try {
+            return Optional.of(new GeoPoint(Double.parseDouble(text.substring(0, comma).trim()),
+                                            Double.parseDouble(text.substring(comma + 1).trim())));
+        } catch (IllegalArgumentException e) { // NumberFormatException included
+            return Optional.empty();
+        }
+    }
+
+    public double getLatitude() { return latitude; }
+    public double getLongitude() { return longitude; }
+
+    // Unit-sphere coordinates; straight-line (chord) distance between them orders points like great-circle distance.
+    double x() { return Math.cos(Math.toRadians(latitude)) * Math.cos(Math.toRadians(longitude)); }
+    double y() { return Math.cos(Math.toRadians(latitude)) * Math.sin(Math.toRadians(longitude)); }
+    double z() { return Math.sin(Math.toRadians(latitude)); }
+
+    static double chordToKm(double chord) {
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, chord / 2));
+    }
+
+    static double kmToChord(double km) {
+        return 2 * Math.sin(Math.min(Math.PI / 2, km / (2 * EARTH_RADIUS_KM)));
+    }
+
+    public double distanceKm(GeoPoint other) {
+        double dx = x() - other.x(), dy = y() - other.y(), dz = z() - other.z();
+        return chordToKm(Math.sqrt(dx * dx + dy * dy + dz * dz));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GeoPoint)) return false;
+        GeoPoint other = (GeoPoint) o;
+        return Double.compare(latitude, other.latitude) == 0 && Double.compare(longitude, other.longitude) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(latitude) + Double.hashCode(longitude);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.5f,%.5f", latitude, longitude);
+    }
+}
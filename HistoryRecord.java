@@ -0,0 +1,73 @@
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+// One archived calendar entry: an expired booking or a completed rental.
+public class HistoryRecord implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public enum Kind { BOOKING, RENTAL }
+
+    private final Kind kind;
+    private final String vehicleId;
+    private final String vehicleType;
+    private final Date startDate;
+    private final Date endDate;
+    private final double fee; // NaN for bookings that never became rentals
+    private final String customerId; // null when the owner is unknown
+
+    public HistoryRecord(Kind kind, String vehicleId, String vehicleType, Date startDate, Date endDate, double fee, String customerId) {
+        this.kind = kind;
+        this.vehicleId = vehicleId;
+        this.vehicleType = vehicleType;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.fee = fee;
+        this.customerId = customerId;
+    }
+
+    public Kind getKind() { return kind; }
+    public String getVehicleId() { return vehicleId; }
+    public String getVehicleType() { return vehicleType; }
+    public Date getStartDate() { return startDate; }
+    public Date getEndDate() { return endDate; }
+    public double getFee() { return fee; }
+    public String getCustomerId() { return customerId; }
+
+    public boolean overlaps(Date from, Date to) {
+        return startDate.before(to) && endDate.after(from);
+    }
+
+    // Tab separated line used by BookingHistoryStore.
+    String toLine() {
+        return kind + "\t" + vehicleId + "\t" + vehicleType + "\t" + startDate.getTime() + "\t" + endDate.getTime() + "\t" + fee + "\t" + (customerId == null ? "" : customerId);
+    }
+
+    static HistoryRecord fromLine(String line) {
+        String[] f = line.split("\t");
+        if (f.length < 6) throw new IllegalArgumentException("Malformed history line: " + line);
+        String customerId = f.length > 6 && !f[6].isEmpty() ? f[6] : null;
+        return new HistoryRecord(Kind.valueOf(f[0]), f[1], f[2], new Date(Long.parseLong(f[3])), new Date(Long.parseLong(f[4])), Double.parseDouble(f[5]), customerId);
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + vehicleId + " (" + vehicleType + "): " + startDate.toGMTString() + " to " + endDate.toGMTString() +
+               (customerId == null ? "" : " | Customer: " + customerId) +
+               (Double.isNaN(fee) ? "" : " | Fee: $" + String.format("%.2f", fee));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        HistoryRecord that = (HistoryRecord) o;
+        return kind == that.kind && vehicleId.equals(that.vehicleId) &&
+               startDate.equals(that.startDate) && endDate.equals(that.endDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, vehicleId, startDate, endDate);
+    }
+}
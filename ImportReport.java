@@ -0,0 +1,59 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Outcome of one bulk import: the IDs that were created and, per rejected row, why.
+public class ImportReport {
+    private static final int ERRORS_SHOWN = 50; // toString lists this many; getErrors has all of them
+
+    public static final class RowError {
+        private final int line;
+        private final String message;
+
+        RowError(int line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public int getLine() { return line; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() { return "line " + line + ": " + message; }
+    }
+
+    private final String source;
+    private final int rowsRead;
+    private final List<String> importedIds = new ArrayList<>();
+    private final List<RowError> errors = new ArrayList<>();
+
+    ImportReport(String source, int rowsRead) {
+        this.source = source;
+        this.rowsRead = rowsRead;
+    }
+
+    void addImported(String id) { importedIds.add(id); }
+    void addError(int line, String message) { errors.add(new RowError(line, message)); }
+
+    public String getSource() { return source; }
+    public int getRowsRead() { return rowsRead; }
+    public int getImportedCount() { return importedIds.size(); }
+    public List<String> getImportedIds() { return Collections.unmodifiableList(importedIds); }
+    public List<RowError> getErrors() { return Collections.unmodifiableList(errors); } // in line order
+    public boolean hasErrors() { return !errors.isEmpty(); }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(source).append(": ").append(rowsRead).append(" row(s) read, ").append(importedIds.size()).append(" imported");
+        if (!importedIds.isEmpty()) {
+            sb.append(" (").append(importedIds.get(0));
+            if (importedIds.size() > 1) sb.append(" to ").append(importedIds.get(importedIds.size() - 1));
+            sb.append(')');
+        }
+        sb.append(", ").append(errors.size()).append(" rejected");
+        for (int i = 0; i < errors.size() && i < ERRORS_SHOWN; i++) sb.append("\n  ").append(errors.get(i));
+        if (errors.size() > ERRORS_SHOWN) sb.append("\n  ... and ").append(errors.size() - ERRORS_SHOWN).append(" more");
+        return sb.toString();
+    }
+}
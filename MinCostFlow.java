@@ -0,0 +1,100 @@
+import java.util.Arrays;
+
+// Minimum-cost flow by successive shortest paths. Each round runs Dijkstra on reduced costs
+// (Johnson potentials), so residual edges never have negative weight, and augments along the
+// cheapest source-sink path by its bottleneck capacity. Dijkstra scans an array for the next node
+// instead of using a heap: the depot graphs solved here are dense, where that is O(V^2) and cheaper.
+// Edges are kept in flat arrays; edge e and its residual twin are e and e ^ 1.
+final class MinCostFlow {
+    private static final long INF = Long.MAX_VALUE / 4;
+
+    private final int nodes;
+    private final int[] head;
+    private int[] next;
+    private int[] target;
+    private int[] capacity;
+    private long[] cost;
+    private int edgeCount;
+
+    MinCostFlow(int nodes, int expectedEdges) {
+        this.nodes = nodes;
+        this.head = new int[nodes];
+        Arrays.fill(head, -1);
+        int slots = Math.max(2, expectedEdges * 2);
+        this.next = new int[slots];
+        this.target = new int[slots];
+        this.capacity = new int[slots];
+        this.cost = new long[slots];
+    }
+
+    // Returns the edge's ID for flowOn. Costs must be non-negative.
+    int addEdge(int from, int to, int cap, long edgeCost) {
+        if (edgeCount + 2 > next.length) {
+            int grown = next.length * 2;
+            next = Arrays.copyOf(next, grown);
+            target = Arrays.copyOf(target, grown);
+            capacity = Arrays.copyOf(capacity, grown);
+            cost = Arrays.copyOf(cost, grown);
+        }
+        int e = edgeCount;
+        link(e, from, to, cap, edgeCost);
+        link(e + 1, to, from, 0, -edgeCost);
+        edgeCount += 2;
+        return e;
+    }
+
+    private void link(int e, int from, int to, int cap, long edgeCost) {
+        target[e] = to;
+        capacity[e] = cap;
+        cost[e] = edgeCost;
+        next[e] = head[from];
+        head[from] = e;
+    }
+
+    int flowOn(int edge) { return capacity[edge ^ 1]; }
+
+    // Sends up to maxFlow units from source to sink; returns {flow, cost}.
+    long[] run(int source, int sink, int maxFlow) {
+        long[] potential = new long[nodes];
+        long[] dist = new long[nodes];
+        int[] viaEdge = new int[nodes];
+        boolean[] settled = new boolean[nodes];
+        long flow = 0, totalCost = 0;
+        while (flow < maxFlow) {
+            Arrays.fill(dist, INF);
+            Arrays.fill(settled, false);
+            dist[source] = 0;
+            while (true) {
+                int u = -1;
+                for (int v = 0; v < nodes; v++) {
+                    if (!settled[v] && dist[v] < INF && (u < 0 || dist[v] < dist[u])) u = v;
+                }
+                if (u < 0) break;
+                settled[u] = true;
+                for (int e = head[u]; e >= 0; e = next[e]) {
+                    if (capacity[e] == 0) continue;
+                    int v = target[e];
+                    long d = dist[u] + cost[e] + potential[u] - potential[v];
+                    if (d < dist[v]) {
+                        dist[v] = d;
+                        viaEdge[v] = e;
+                    }
+                }
+            }
+            if (dist[sink] >= INF) break;
+            // Capping at the sink's distance keeps every residual reduced cost non-negative,
+            // including edges into nodes this round could not reach.
+            for (int v = 0; v < nodes; v++) potential[v] += Math.min(dist[v], dist[sink]);
+            int push = (int) Math.min(Integer.MAX_VALUE, maxFlow - flow);
+            for (int v = sink; v != source; v = target[viaEdge[v] ^ 1]) push = Math.min(push, capacity[viaEdge[v]]);
+            for (int v = sink; v != source; v = target[viaEdge[v] ^ 1]) {
+                int e = viaEdge[v];
+                capacity[e] -= push;
+                capacity[e ^ 1] += push;
+                totalCost += (long) push * cost[e];
+            }
+            flow += push;
+        }
+        return new long[] { flow, totalCost };
+    }
+}
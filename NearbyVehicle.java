@@ -0,0 +1,20 @@
+// A vehicle found by VehiclePark.findNearestAvailable, with its great-circle distance from the search point.
+public class NearbyVehicle {
+    private final VehicleView vehicle;
+    private final double distanceKm;
+
+    public NearbyVehicle(VehicleView vehicle, double distanceKm) {
+        this.vehicle = vehicle;
+        this.distanceKm = distanceKm;
+    }
+
+    public VehicleView getVehicle() { return vehicle; }
+    public double getDistanceKm() { return distanceKm; }
+
+    @Override
+    public String toString() {
+        Vehicle v = vehicle.getVehicle();
+        return v.getId() + " (" + v.getPlateNumber() + ", " + vehicle.getType() + " " + v.getBrand() + " " + v.getModel() + "): " +
+               String.format("%.1f km away at %s", distanceKm, vehicle.getLocation());
+    }
+}
@@ -0,0 +1,24 @@
+import java.util.Collections;
+import java.util.List;
+
+// One page of a listing in ID order. The cursor is the ID of the last item on the page; pass it back
+// to get the next page. It stays valid while entities are added or removed, since IDs are never reused.
+public final class Page<T> {
+    private final List<T> items;
+    private final String nextCursor; // null on the last page
+
+    Page(List<T> items, String nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    static <T> Page<T> empty() {
+        return new Page<>(Collections.emptyList(), null);
+    }
+
+    public List<T> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean hasNext() { return nextCursor != null; }
+    public int size() { return items.size(); }
+    public boolean isEmpty() { return items.isEmpty(); }
+}
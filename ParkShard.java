@@ -0,0 +1,23 @@
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+// Operations a ShardRouter needs from one partition of the fleet.
+// VehiclePark implements it directly; RemoteShard forwards it to a ShardServer.
+public interface ParkShard {
+    boolean addVehicle(Vehicle vehicle);
+    boolean removeVehicle(String vehicleId);
+    Optional<Vehicle> findVehicleById(String vehicleId);
+    Optional<Vehicle> findVehicleByPlateNumber(String plateNumber);
+    List<Vehicle> findAvailableVehicles(Date startDate, Date endDate, String vehicleTypeClassName);
+
+    boolean addCustomer(Customer customer);
+    boolean removeCustomer(String customerId);
+    Optional<Customer> findCustomerById(String customerId);
+
+    boolean bookVehicle(String vehicleId, String customerId, Date startDate, Date endDate);
+    boolean cancelBooking(String vehicleId, String customerId, Date startDate, Date endDate);
+    boolean rentVehicle(String vehicleId, String customerId, Date startDate, Date endDate, String deliveryLocation, String dropOffLocation);
+    boolean dropVehicle(String vehicleId, String customerId);
+    boolean loadVehicle(String vehicleId, String customerId, double amount);
+}
@@ -0,0 +1,94 @@
+import java.util.Arrays;
+
+// Immutable 32-way trie. set/append copy only the path to the touched leaf,
+// so every published version shares all untouched nodes with its predecessor.
+// Subtrees holding only nulls are left out, so gaps in the index range cost nothing to create or scan.
+final class PersistentVector<T> {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final PersistentVector<Object> EMPTY = new PersistentVector<>(0, 0, new Object[WIDTH]);
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+
+    private PersistentVector(int size, int shift, Object[] root) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> PersistentVector<T> empty() { return (PersistentVector<T>) EMPTY; }
+
+    int size() { return size; }
+
+    @SuppressWarnings("unchecked")
+    T get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        Object[] node = root;
+        for (int level = shift; level > 0 && node != null; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node == null ? null : (T) node[index & MASK];
+    }
+
+    // Index of the first non-null element at or after from, or size() if there is none.
+    int nextPresent(int from) {
+        if (from >= size) return size;
+        int found = nextIn(root, shift, 0, Math.max(from, 0));
+        return found < 0 || found >= size ? size : found;
+    }
+
+    private static int nextIn(Object[] node, int level, int base, int from) {
+        for (int i = from <= base ? 0 : (from - base) >>> level; i < WIDTH; i++) {
+            if (node[i] == null) continue;
+            int childBase = base + (i << level);
+            if (level == 0) return childBase;
+            int found = nextIn((Object[]) node[i], level - BITS, childBase, from);
+            if (found >= 0) return found;
+        }
+        return -1;
+    }
+
+    PersistentVector<T> set(int index, T value) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        if (value == null && get(index) == null) return this; // do not build a path just to store a null
+        return new PersistentVector<>(size, shift, setIn(root, shift, index, value));
+    }
+
+    // Like set, but grows the vector when index is past the end; the skipped indexes read as null.
+    // At most EntityTable.MAX_SLOT_GAP indexes may be skipped.
+    PersistentVector<T> put(int index, T value) {
+        if (index < size) return set(index, value);
+        if (index < 0 || index - size > EntityTable.MAX_SLOT_GAP) {
+            throw new IndexOutOfBoundsException("Index " + index + " too far past the end (size " + size + ")");
+        }
+        Object[] newRoot = root;
+        int newShift = shift;
+        while (index >= capacity(newShift)) { // root is full, grow the tree by one level
+            Object[] grown = new Object[WIDTH];
+            grown[0] = newRoot;
+            newRoot = grown;
+            newShift += BITS;
+        }
+        return new PersistentVector<>(index + 1, newShift, setIn(newRoot, newShift, index, value));
+    }
+
+    PersistentVector<T> append(T value) { return put(size, value); }
+
+    private static long capacity(int shift) { return 1L << (shift + BITS); }
+
+    private static Object[] setIn(Object[] node, int level, int index, Object value) {
+        Object[] copy = Arrays.copyOf(node, WIDTH);
+        if (level == 0) {
+            copy[index & MASK] = value;
+        } else {
+            int childIndex = (index >>> level) & MASK;
+            Object[] child = copy[childIndex] == null ? new Object[WIDTH] : (Object[]) copy[childIndex];
+            copy[childIndex] = setIn(child, level - BITS, index, value);
+        }
+        return copy;
+    }
+}
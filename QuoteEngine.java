@@ -0,0 +1,76 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Precomputed fee functions for every vehicle in one snapshot, stored as parallel primitive arrays
+// (per-day rate and fixed surcharge) so bulk quotes are a single loop without virtual calls.
+// Stays valid until a vehicle is added or removed or any vehicle's pricing changes.
+final class QuoteEngine {
+    final long compositionVersion;
+    final long pricingEpoch;
+    private final Vehicle[] vehicles;
+    private final double[] perDay;
+    private final double[] fixed;
+    private final Map<String, Integer> slotById;
+
+    private QuoteEngine(FleetSnapshot snapshot, long pricingEpoch) {
+        this.compositionVersion = snapshot.getCompositionVersion();
+        this.pricingEpoch = pricingEpoch;
+        int n = snapshot.getVehicleCount();
+        this.vehicles = new Vehicle[n];
+        this.perDay = new double[n];
+        this.fixed = new double[n];
+        this.slotById = new HashMap<>(n * 2);
+        int slot = 0;
+        for (VehicleView v : snapshot.vehicles()) {
+            Vehicle vehicle = v.getVehicle();
+            vehicles[slot] = vehicle;
+            perDay[slot] = vehicle.getPerDayRate();
+            fixed[slot] = vehicle.getFixedSurcharge();
+            slotById.put(vehicle.getId(), slot);
+            slot++;
+        }
+    }
+
+    static QuoteEngine build(FleetSnapshot snapshot, long pricingEpoch) {
+        return new QuoteEngine(snapshot, pricingEpoch);
+    }
+
+    boolean isCurrent(FleetSnapshot snapshot, long pricingEpoch) {
+        return compositionVersion == snapshot.getCompositionVersion() && this.pricingEpoch == pricingEpoch;
+    }
+
+    int size() { return vehicles.length; }
+    Vehicle vehicleAt(int slot) { return vehicles[slot]; }
+    double perDayRate(int slot) { return perDay[slot]; }
+
+    // -1 if the vehicle is not part of this engine's snapshot.
+    int slotOf(String vehicleId) {
+        Integer slot = slotById.get(vehicleId);
+        return slot != null ? slot : -1;
+    }
+
+    int[] slotsOf(List<Vehicle> list) {
+        int[] slots = new int[list.size()];
+        for (int i = 0; i < slots.length; i++) slots[i] = slotOf(list.get(i).getId());
+        return slots;
+    }
+
+    double quote(int slot, int numberOfDays) {
+        if (numberOfDays <= 0) return 0;
+        return perDay[slot] * numberOfDays + fixed[slot];
+    }
+
+    // out[i] = fee of slots[i]; unknown slots (-1) get NaN.
+    void quote(int[] slots, int numberOfDays, double[] out) {
+        if (numberOfDays <= 0) {
+            Arrays.fill(out, 0, slots.length, 0);
+            return;
+        }
+        for (int i = 0; i < slots.length; i++) {
+            int slot = slots[i];
+            out[i] = slot >= 0 ? perDay[slot] * numberOfDays + fixed[slot] : Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Relocation moves proposed by RebalancingPlanner for one planning period.
+public class RebalancePlan {
+    public static final class Move {
+        private final String vehicleId;
+        private final String type;
+        private final GeoPoint origin; // the vehicle's location when the plan was made
+        private final Depot from;
+        private final Depot to;
+        private final double distanceKm;
+
+        Move(String vehicleId, String type, GeoPoint origin, Depot from, Depot to, double distanceKm) {
+            this.vehicleId = vehicleId;
+            this.type = type;
+            this.origin = origin;
+            this.from = from;
+            this.to = to;
+            this.distanceKm = distanceKm;
+        }
+
+        public String getVehicleId() { return vehicleId; }
+        public String getType() { return type; }
+        public GeoPoint getOrigin() { return origin; }
+        public Depot getFrom() { return from; }
+        public Depot getTo() { return to; }
+        public double getDistanceKm() { return distanceKm; }
+
+        @Override
+        public String toString() {
+            return vehicleId + " (" + type + "): " + from.getName() + " -> " + to.getName() + String.format(", %.1f km", distanceKm);
+        }
+    }
+
+    private final Date startDate;
+    private final Date endDate;
+    private final List<Move> moves = new ArrayList<>();
+    private final Map<String, Integer> unmetByType = new TreeMap<>();
+    private double totalKm;
+
+    RebalancePlan(Date startDate, Date endDate) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    void addMove(Move move) {
+        moves.add(move);
+        totalKm += move.getDistanceKm();
+    }
+
+    void addUnmet(String type, int vehicles) {
+        if (vehicles > 0) unmetByType.merge(type, vehicles, Integer::sum);
+    }
+
+    public Date getStartDate() { return startDate; }
+    public Date getEndDate() { return endDate; }
+    public List<Move> getMoves() { return Collections.unmodifiableList(moves); }
+    public double getTotalKm() { return totalKm; }
+    public boolean isEmpty() { return moves.isEmpty(); }
+
+    // Idle vehicles still missing per type after all moves, because no depot had any to spare.
+    public Map<String, Integer> getUnmetByType() { return Collections.unmodifiableMap(unmetByType); }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Move move : moves) sb.append("  ").append(move).append('\n');
+        sb.append("  ").append(moves.size()).append(" move(s), ").append(String.format("%.1f", totalKm)).append(" km in total");
+        for (Map.Entry<String, Integer> e : unmetByType.entrySet()) {
+            sb.append("\n  Still short of ").append(e.getValue()).append(' ').append(e.getKey()).append("(s): no depot has any to spare");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,138 @@
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Plans relocation moves that spread idle vehicles over the depots ahead of upcoming bookings.
+// Every located vehicle belongs to its nearest depot. A booking is picked up at the depot its vehicle
+// was due at when it was booked; if the vehicle is still due there it covers the booking itself. Only
+// bookings whose vehicle has since been moved or rented one-way to another depot are demand: per
+// vehicle type, the pickup depot needs an idle vehicle (free for the whole period) for each of them,
+// and idle vehicles beyond that are surplus it can give away. Surplus is matched to shortfall with a
+// min-cost flow over great-circle distances, so as much shortfall as possible is covered with the
+// fewest total kilometres driven.
+final class RebalancingPlanner {
+    // Idle vehicles and uncovered upcoming bookings of one type, per depot.
+    private static final class Stock {
+        final List<List<VehicleView>> idle = new ArrayList<>();
+        final int[] demand;
+
+        Stock(int depots) {
+            demand = new int[depots];
+            for (int d = 0; d < depots; d++) idle.add(new ArrayList<>());
+        }
+    }
+
+    private final List<Depot> depots;
+    private final double[][] depotXyz;
+    private final Map<GeoPoint, Integer> nearestByLocation = new HashMap<>(); // most vehicles sit exactly at a depot
+
+    RebalancingPlanner(List<Depot> depots) {
+        this.depots = depots;
+        this.depotXyz = new double[depots.size()][];
+        for (int d = 0; d < depots.size(); d++) {
+            GeoPoint p = depots.get(d).getLocation();
+            depotXyz[d] = new double[] { p.x(), p.y(), p.z() };
+        }
+    }
+
+    private int nearestDepot(GeoPoint location) {
+        Integer cached = nearestByLocation.get(location);
+        if (cached != null) return cached;
+        double x = location.x(), y = location.y(), z = location.z();
+        int best = 0;
+        double bestChord = Double.MAX_VALUE;
+        for (int d = 0; d < depotXyz.length; d++) {
+            double dx = x - depotXyz[d][0], dy = y - depotXyz[d][1], dz = z - depotXyz[d][2];
+            double chord = dx * dx + dy * dy + dz * dz;
+            if (chord < bestChord) {
+                bestChord = chord;
+                best = d;
+            }
+        }
+        nearestByLocation.put(location, best);
+        return best;
+    }
+
+    RebalancePlan plan(FleetSnapshot snapshot, Date startDate, Date endDate) {
+        long from = startDate.getTime(), to = endDate.getTime();
+        Map<String, Stock> byType = new TreeMap<>();
+        snapshot.forEachVehicle(view -> {
+            GeoPoint location = view.getLocation();
+            if (location == null) return;
+            int depot = nearestDepot(location);
+            Stock stock = byType.computeIfAbsent(view.getType(), t -> new Stock(depots.size()));
+            boolean idle = !view.isRented();
+            for (Booking b : view.getBookings()) {
+                long start = b.getStartDate().getTime();
+                if (start >= from && start < to && b.getPickupLocation() != null) {
+                    int pickup = nearestDepot(b.getPickupLocation());
+                    if (pickup != depot) stock.demand[pickup]++;
+                }
+                if (start < to && b.getEndDate().getTime() > from) idle = false;
+            }
+            if (idle) stock.idle.get(depot).add(view);
+        });
+        RebalancePlan plan = new RebalancePlan(startDate, endDate);
+        for (Map.Entry<String, Stock> e : byType.entrySet()) balance(e.getKey(), e.getValue(), plan);
+        return plan;
+    }
+
+    private void balance(String type, Stock stock, RebalancePlan plan) {
+        List<Integer> givers = new ArrayList<>();
+        List<Integer> takers = new ArrayList<>();
+        int supply = 0, shortfall = 0;
+        for (int d = 0; d < depots.size(); d++) {
+            int spare = stock.idle.get(d).size() - stock.demand[d];
+            if (spare > 0) {
+                givers.add(d);
+                supply += spare;
+            } else if (spare < 0) {
+                takers.add(d);
+                shortfall -= spare;
+            }
+        }
+        if (givers.isEmpty() || takers.isEmpty()) {
+            plan.addUnmet(type, shortfall);
+            return;
+        }
+        // Nodes: 0 source, 1 sink, then givers, then takers.
+        int g = givers.size(), t = takers.size();
+        MinCostFlow flow = new MinCostFlow(2 + g + t, g + t + g * t);
+        int[][] lanes = new int[g][t];
+        double[][] km = new double[g][t];
+        for (int i = 0; i < g; i++) {
+            int giver = givers.get(i);
+            int spare = stock.idle.get(giver).size() - stock.demand[giver];
+            flow.addEdge(0, 2 + i, spare, 0);
+            for (int j = 0; j < t; j++) {
+                km[i][j] = distanceKm(giver, takers.get(j));
+                lanes[i][j] = flow.addEdge(2 + i, 2 + g + j, spare, Math.round(km[i][j] * 1000)); // metres
+            }
+        }
+        for (int j = 0; j < t; j++) {
+            int taker = takers.get(j);
+            flow.addEdge(2 + g + j, 1, stock.demand[taker] - stock.idle.get(taker).size(), 0);
+        }
+        long moved = flow.run(0, 1, Math.min(supply, shortfall))[0];
+        for (int i = 0; i < g; i++) {
+            List<VehicleView> idle = stock.idle.get(givers.get(i));
+            int next = 0;
+            for (int j = 0; j < t; j++) {
+                for (int n = flow.flowOn(lanes[i][j]); n > 0; n--) {
+                    VehicleView v = idle.get(next++);
+                    plan.addMove(new RebalancePlan.Move(v.getId(), type, v.getLocation(), depots.get(givers.get(i)),
+                                                        depots.get(takers.get(j)), km[i][j]));
+                }
+            }
+        }
+        plan.addUnmet(type, shortfall - (int) moved);
+    }
+
+    private double distanceKm(int a, int b) {
+        double dx = depotXyz[a][0] - depotXyz[b][0], dy = depotXyz[a][1] - depotXyz[b][1], dz = depotXyz[a][2] - depotXyz[b][2];
+        return GeoPoint.chordToKm(Math.sqrt(dx * dx + dy * dy + dz * dz));
+    }
+}
@@ -0,0 +1,98 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+// Client side of ShardServer. Vehicles returned by lookups are copies; change them only through shard calls.
+public class RemoteShard implements ParkShard, AutoCloseable {
+    private final Socket socket;
+    private final ObjectOutputStream out;
+    private final ObjectInputStream in;
+
+    public RemoteShard(String host, int port) throws IOException {
+        this.socket = new Socket(host, port);
+        this.out = new ObjectOutputStream(socket.getOutputStream());
+        this.out.flush();
+        this.in = new ObjectInputStream(socket.getInputStream());
+    }
+
+    private synchronized Object call(Object... request) {
+        try {
+            out.writeObject(request);
+            out.reset();
+            out.flush();
+            Object response = in.readObject();
+            if (response instanceof RuntimeException) throw (RuntimeException) response;
+            return response;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Shard " + socket.getRemoteSocketAddress() + " unreachable: " + e.getMessage(), e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Unexpected shard response: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean addVehicle(Vehicle vehicle) { return (Boolean) call("addVehicle", vehicle); }
+
+    @Override
+    public boolean removeVehicle(String vehicleId) { return (Boolean) call("removeVehicle", vehicleId); }
+
+    @Override
+    public Optional<Vehicle> findVehicleById(String vehicleId) {
+        return Optional.ofNullable((Vehicle) call("findVehicleById", vehicleId));
+    }
+
+    @Override
+    public Optional<Vehicle> findVehicleByPlateNumber(String plateNumber) {
+        return Optional.ofNullable((Vehicle) call("findVehicleByPlateNumber", plateNumber));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Vehicle> findAvailableVehicles(Date startDate, Date endDate, String vehicleTypeClassName) {
+        return (List<Vehicle>) call("findAvailableVehicles", startDate, endDate, vehicleTypeClassName);
+    }
+
+    @Override
+    public boolean addCustomer(Customer customer) { return (Boolean) call("addCustomer", customer); }
+
+    @Override
+    public boolean removeCustomer(String customerId) { return (Boolean) call("removeCustomer", customerId); }
+
+    @Override
+    public Optional<Customer> findCustomerById(String customerId) {
+        return Optional.ofNullable((Customer) call("findCustomerById", customerId));
+    }
+
+    @Override
+    public boolean bookVehicle(String vehicleId, String customerId, Date startDate, Date endDate) {
+        return (Boolean) call("bookVehicle", vehicleId, customerId, startDate, endDate);
+    }
+
+    @Override
+    public boolean cancelBooking(String vehicleId, String customerId, Date startDate, Date endDate) {
+        return (Boolean) call("cancelBooking", vehicleId, customerId, startDate, endDate);
+    }
+
+    @Override
+    public boolean rentVehicle(String vehicleId, String customerId, Date startDate, Date endDate, String deliveryLocation, String dropOffLocation) {
+        return (Boolean) call("rentVehicle", vehicleId, customerId, startDate, endDate, deliveryLocation, dropOffLocation);
+    }
+
+    @Override
+    public boolean dropVehicle(String vehicleId, String customerId) { return (Boolean) call("dropVehicle", vehicleId, customerId); }
+
+    @Override
+    public boolean loadVehicle(String vehicleId, String customerId, double amount) {
+        return (Boolean) call("loadVehicle", vehicleId, customerId, amount);
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,164 @@
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+// Append-only record of completed rentals. Raw entries go into fixed-size columnar segments (one primitive
+// array per field); every append also updates a daily and a monthly rollup, each split by vehicle type.
+// A period query adds up whole months plus the odd days at either end, so it never touches raw entries.
+// Not thread-safe: VehiclePark appends under its own lock and copies results out under the same lock.
+final class RevenueLedger implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int SEGMENT_SIZE = 4096;
+
+    // Columns start small and double up to SEGMENT_SIZE, so a lightly used ledger stays small on disk.
+    private static final class Segment implements Serializable {
+        private static final long serialVersionUID = 1L;
+        long[] completedAt = new long[16];
+        long[] startMillis = new long[16];
+        long[] endMillis = new long[16];
+        long[] vehicleSuffix = new long[16];
+        long[] customerSuffix = new long[16]; // -1 when unknown
+        int[] typeCode = new int[16];
+        int[] days = new int[16];
+        double[] fee = new double[16];
+        double[] surcharge = new double[16];
+        long minCompletedAt = Long.MAX_VALUE;
+        long maxCompletedAt = Long.MIN_VALUE;
+        int size;
+
+        boolean isFull() { return size == SEGMENT_SIZE; }
+
+        // Index of the next free row, growing the columns if needed.
+        int append() {
+            if (size == completedAt.length) {
+                int n = Math.min(SEGMENT_SIZE, size * 2);
+                completedAt = Arrays.copyOf(completedAt, n);
+                startMillis = Arrays.copyOf(startMillis, n);
+                endMillis = Arrays.copyOf(endMillis, n);
+                vehicleSuffix = Arrays.copyOf(vehicleSuffix, n);
+                customerSuffix = Arrays.copyOf(customerSuffix, n);
+                typeCode = Arrays.copyOf(typeCode, n);
+                days = Arrays.copyOf(days, n);
+                fee = Arrays.copyOf(fee, n);
+                surcharge = Arrays.copyOf(surcharge, n);
+            }
+            return size++;
+        }
+    }
+
+    // Totals for one day or month, indexed by type code.
+    private static final class Bucket implements Serializable {
+        private static final long serialVersionUID = 1L;
+        int[] rentals = new int[0];
+        long[] rentalDays = new long[0];
+        double[] revenue = new double[0];
+        double[] surcharges = new double[0];
+
+        void add(int type, int days, double fee, double surcharge) {
+            if (type >= rentals.length) {
+                int n = type + 1;
+                rentals = Arrays.copyOf(rentals, n);
+                rentalDays = Arrays.copyOf(rentalDays, n);
+                revenue = Arrays.copyOf(revenue, n);
+                surcharges = Arrays.copyOf(surcharges, n);
+            }
+            rentals[type]++;
+            rentalDays[type] += days;
+            revenue[type] += fee;
+            surcharges[type] += surcharge;
+        }
+    }
+
+    private final List<Segment> segments = new ArrayList<>();
+    private final List<String> types = new ArrayList<>(); // type code -> simple class name
+    private final TreeMap<Long, Bucket> daily = new TreeMap<>();   // epoch day in the local time zone
+    private final TreeMap<Long, Bucket> monthly = new TreeMap<>(); // epoch day of the month's first day
+    private long entryCount;
+
+    // Rolls the rental into the day (and month) it was completed.
+    void record(long completedAt, String vehicleId, String vehicleType, String customerId,
+                Date start, Date end, int days, double fee, double surcharge) {
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segment.isFull()) {
+            segment = new Segment();
+            segments.add(segment);
+        }
+        int type = typeCode(vehicleType);
+        int i = segment.append();
+        segment.completedAt[i] = completedAt;
+        segment.startMillis[i] = start.getTime();
+        segment.endMillis[i] = end.getTime();
+        segment.vehicleSuffix[i] = VehiclePark.parseIdSuffix(vehicleId, Vehicle.ID_PREFIX);
+        segment.customerSuffix[i] = customerId == null ? -1 : VehiclePark.parseIdSuffix(customerId, Customer.ID_PREFIX);
+        segment.typeCode[i] = type;
+        segment.days[i] = days;
+        segment.fee[i] = fee;
+        segment.surcharge[i] = surcharge;
+        segment.minCompletedAt = Math.min(segment.minCompletedAt, completedAt);
+        segment.maxCompletedAt = Math.max(segment.maxCompletedAt, completedAt);
+        entryCount++;
+
+        long day = VehiclePark.localEpochDay(completedAt);
+        daily.computeIfAbsent(day, k -> new Bucket()).add(type, days, fee, surcharge);
+        monthly.computeIfAbsent(firstOfMonth(day), k -> new Bucket()).add(type, days, fee, surcharge);
+    }
+
+    private int typeCode(String vehicleType) {
+        int code = types.indexOf(vehicleType); // a handful of vehicle classes
+        if (code >= 0) return code;
+        types.add(vehicleType);
+        return types.size() - 1;
+    }
+
+    long size() { return entryCount; }
+
+    // Revenue completed on the days fromDay..toDay, both inclusive.
+    RevenueSummary summarize(LocalDate fromDay, LocalDate toDay) {
+        RevenueSummary summary = new RevenueSummary();
+        long day = fromDay.toEpochDay();
+        long end = toDay.toEpochDay() + 1;
+        while (day < end) {
+            LocalDate date = LocalDate.ofEpochDay(day);
+            long nextMonth = date.withDayOfMonth(1).plusMonths(1).toEpochDay();
+            if (date.getDayOfMonth() == 1 && nextMonth <= end) {
+                addBucket(summary, monthly.get(day));
+                day = nextMonth;
+            } else {
+                // Odd days at the edges: only the days that have any revenue are visited.
+                long stop = Math.min(nextMonth, end);
+                for (Bucket b : daily.subMap(day, true, stop, false).values()) addBucket(summary, b);
+                day = stop;
+            }
+        }
+        return summary;
+    }
+
+    private void addBucket(RevenueSummary summary, Bucket bucket) {
+        if (bucket == null) return;
+        for (int type = 0; type < bucket.rentals.length; type++) {
+            summary.add(types.get(type), bucket.rentals[type], bucket.rentalDays[type], bucket.revenue[type], bucket.surcharges[type]);
+        }
+    }
+
+    // Raw entries completed in [from, to), for drill-down; segments outside the range are skipped whole.
+    void forEachEntry(long from, long to, Consumer<HistoryRecord> action) {
+        for (Segment s : segments) {
+            if (s.maxCompletedAt < from || s.minCompletedAt >= to) continue;
+            for (int i = 0; i < s.size; i++) {
+                if (s.completedAt[i] < from || s.completedAt[i] >= to) continue;
+                action.accept(new HistoryRecord(HistoryRecord.Kind.RENTAL, Vehicle.ID_PREFIX + s.vehicleSuffix[i], types.get(s.typeCode[i]),
+                        new Date(s.startMillis[i]), new Date(s.endMillis[i]), s.fee[i],
+                        s.customerSuffix[i] < 0 ? null : Customer.ID_PREFIX + s.customerSuffix[i]));
+            }
+        }
+    }
+
+    private static long firstOfMonth(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay).withDayOfMonth(1).toEpochDay();
+    }
+}
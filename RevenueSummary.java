@@ -0,0 +1,53 @@
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Revenue from completed rentals over a range of days, in total and per vehicle type.
+public class RevenueSummary {
+    public static final class Line {
+        private int rentals;
+        private long rentalDays;
+        private double revenue;
+        private double surcharges;
+
+        void add(int rentals, long rentalDays, double revenue, double surcharges) {
+            this.rentals += rentals;
+            this.rentalDays += rentalDays;
+            this.revenue += revenue;
+            this.surcharges += surcharges;
+        }
+
+        public int getRentals() { return rentals; }
+        public long getRentalDays() { return rentalDays; }
+        public double getRevenue() { return revenue; }
+        public double getSurcharges() { return surcharges; } // part of revenue above the plain daily fee
+
+        @Override
+        public String toString() {
+            return rentals + " rental(s), " + rentalDays + " day(s), revenue $" + String.format("%.2f", revenue) +
+                   " (surcharges $" + String.format("%.2f", surcharges) + ")";
+        }
+    }
+
+    private final Line total = new Line();
+    private final Map<String, Line> byType = new TreeMap<>();
+
+    void add(String type, int rentals, long rentalDays, double revenue, double surcharges) {
+        if (rentals == 0) return;
+        total.add(rentals, rentalDays, revenue, surcharges);
+        byType.computeIfAbsent(type, k -> new Line()).add(rentals, rentalDays, revenue, surcharges);
+    }
+
+    public Line getTotal() { return total; }
+    public Map<String, Line> getByType() { return Collections.unmodifiableMap(byType); }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Line> e : byType.entrySet()) {
+            sb.append("  ").append(e.getKey()).append(": ").append(e.getValue()).append('\n');
+        }
+        sb.append("  Total: ").append(total);
+        return sb.toString();
+    }
+}
@@ -1,25 +1,29 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+
 public class SUV extends Car {
-    private String wheelDriveType; // Stores "RWD", "FWD", "4WD", "AWD"
+    private static final long serialVersionUID = -1571740749480984520L; // the implicit UID of the original class; saves from it stay readable
+    private static final ObjectStreamField[] serialPersistentFields = { new ObjectStreamField("wheelDriveType", String.class) };
+    private transient int wheelDriveCode; // AttributeDictionary code of "RWD", "FWD", "4WD" or "AWD"
 
     public SUV(String plateNo, String brand, String model, int numberOfTires, double dailyFee,
                String color, int seatingCapacity, int numOfDoors, String wheelDriveType) {
         super(plateNo, brand, model, numberOfTires, dailyFee, color, seatingCapacity, numOfDoors); // No ID passed
         setWheelDriveTypeInternal(wheelDriveType); // Internal method for validation
-
-        super.setRemoteDeliverable(false);
-        super.setRemoteDroppable(false);
     }
 
-    public String getWheelDriveType() { return wheelDriveType; }
-    public void setWheelDriveType(String wdType) { setWheelDriveTypeInternal(wdType); }
+    public String getWheelDriveType() { return AttributeDictionary.decode(wheelDriveCode); }
+    public void setWheelDriveType(String wdType) { setWheelDriveTypeInternal(wdType); attributesChanged(); }
 
     private void setWheelDriveTypeInternal(String wdType) {
         if (wdType != null && (wdType.equalsIgnoreCase("RWD") || wdType.equalsIgnoreCase("FWD") ||
                                wdType.equalsIgnoreCase("4WD") || wdType.equalsIgnoreCase("AWD"))) {
-            this.wheelDriveType = wdType.toUpperCase(); // Store in a consistent format
+            this.wheelDriveCode = AttributeDictionary.encode(wdType.toUpperCase()); // Store in a consistent format
         } else {
             System.err.println("Warning: Invalid wheel drive type '" + wdType + "' for SUV " + getId() + ". Setting to null. Valid types are RWD, FWD, 4WD, AWD.");
-            this.wheelDriveType = null;
+            this.wheelDriveCode = AttributeDictionary.NULL_CODE;
         }
     }
 
@@ -27,6 +31,16 @@ public class SUV extends Car {
     public String toString() {
         return super.toString() +
                "\n  Car Specific Type: SUV" +
-               (wheelDriveType != null ? "\n  Wheel Drive: " + wheelDriveType : "\n  Wheel Drive: Not Specified");
+               (getWheelDriveType() != null ? "\n  Wheel Drive: " + getWheelDriveType() : "\n  Wheel Drive: Not Specified");
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("wheelDriveType", getWheelDriveType());
+        out.writeFields();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        this.wheelDriveCode = AttributeDictionary.encode((String) in.readFields().get("wheelDriveType", null));
     }
 }
\ No newline at end of file
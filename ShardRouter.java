@@ -0,0 +1,220 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+// Partitions the fleet across several ParkShards by hash of the vehicle ID.
+// Customers are replicated to every shard so each shard can validate bookings locally.
+// Closing the router stops its fan-out threads and closes the shards it was given (remote connections).
+public class ShardRouter implements ParkShard, AutoCloseable {
+    static final Comparator<Vehicle> ID_ORDER =
+            Comparator.comparing(Vehicle::getId, Vehicle.ID_ORDER);
+
+    private final List<ParkShard> shards;
+    private final ExecutorService fanOutPool;
+    private final Object vehicleAdmission = new Object(); // plate check and add happen as one step
+
+    public ShardRouter(List<? extends ParkShard> shards) {
+        if (shards == null || shards.isEmpty()) {
+            throw new IllegalArgumentException("A shard router needs at least one shard.");
+        }
+        this.shards = new ArrayList<>(shards);
+        this.fanOutPool = Executors.newFixedThreadPool(this.shards.size(), r -> {
+            Thread t = new Thread(r, "vpark-shard-fanout");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Convenience for tests and single-JVM deployments.
+    public static ShardRouter inProcess(int shardCount) {
+        List<VehiclePark> parks = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) parks.add(new VehiclePark());
+        return new ShardRouter(parks);
+    }
+
+    // Connects to ShardServer processes listening on the given loopback ports.
+    public static ShardRouter connect(int... ports) throws IOException {
+        List<RemoteShard> remotes = new ArrayList<>();
+        try {
+            for (int port : ports) remotes.add(new RemoteShard("127.0.0.1", port));
+        } catch (IOException e) {
+            for (RemoteShard remote : remotes) {
+                try {
+                    remote.close();
+                } catch (IOException closeFailure) {
+                    e.addSuppressed(closeFailure);
+                }
+            }
+            throw e;
+        }
+        return new ShardRouter(remotes);
+    }
+
+    public int getShardCount() { return shards.size(); }
+
+    public ParkShard shardFor(String vehicleId) {
+        return shards.get(Math.floorMod(vehicleId.trim().hashCode(), shards.size()));
+    }
+
+    // --- Vehicle Management ---
+    @Override
+    public boolean addVehicle(Vehicle vehicle) {
+        if (vehicle == null) {
+            System.err.println("Error: Cannot add a null vehicle.");
+            return false;
+        }
+        // Plates must stay unique across the whole fleet, not just inside one shard, so two adds of the
+        // same plate through this router must not both pass the check before either lands.
+        synchronized (vehicleAdmission) {
+            if (findVehicleByPlateNumber(vehicle.getPlateNumber()).isPresent()) {
+                System.err.println("Error: Vehicle with Plate " + vehicle.getPlateNumber() + " already exists.");
+                return false;
+            }
+            return shardFor(vehicle.getId()).addVehicle(vehicle);
+        }
+    }
+
+    @Override
+    public boolean removeVehicle(String vehicleId) {
+        if (!isValidId(vehicleId)) {
+            System.err.println("Error: Vehicle ID cannot be null or empty for removal.");
+            return false;
+        }
+        return shardFor(vehicleId).removeVehicle(vehicleId);
+    }
+
+    @Override
+    public Optional<Vehicle> findVehicleById(String vehicleId) {
+        if (!isValidId(vehicleId)) return Optional.empty();
+        return shardFor(vehicleId).findVehicleById(vehicleId);
+    }
+
+    @Override
+    public Optional<Vehicle> findVehicleByPlateNumber(String plateNumber) {
+        for (Optional<Vehicle> found : fanOut(shard -> shard.findVehicleByPlateNumber(plateNumber))) {
+            if (found.isPresent()) return found;
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<Vehicle> findAvailableVehicles(Date startDate, Date endDate, String vehicleTypeClassName) {
+        List<Vehicle> merged = new ArrayList<>();
+        for (List<Vehicle> part : fanOut(shard -> shard.findAvailableVehicles(startDate, endDate, vehicleTypeClassName))) {
+            merged.addAll(part);
+        }
+        merged.sort(ID_ORDER);
+        return merged;
+    }
+
+    // --- Customer Management (replicated) ---
+    // All or nothing: if any shard refuses or fails, the shards that already took the customer drop it again.
+    @Override
+    public boolean addCustomer(Customer customer) {
+        if (customer == null) {
+            System.err.println("Error: Cannot add a null customer.");
+            return false;
+        }
+        List<ParkShard> replicated = new ArrayList<>();
+        try {
+            for (ParkShard shard : shards) {
+                if (!shard.addCustomer(customer)) break;
+                replicated.add(shard);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error: Replicating customer " + customer.getCustomerId() + " failed: " + e.getMessage());
+        }
+        if (replicated.size() == shards.size()) return true;
+        for (ParkShard shard : replicated) {
+            try {
+                shard.removeCustomer(customer.getCustomerId());
+            } catch (RuntimeException e) {
+                System.err.println("Error: Rolling back customer " + customer.getCustomerId() + " failed on a shard: " + e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean removeCustomer(String customerId) {
+        boolean removed = true;
+        for (ParkShard shard : shards) {
+            removed &= shard.removeCustomer(customerId);
+        }
+        return removed;
+    }
+
+    @Override
+    public Optional<Customer> findCustomerById(String customerId) {
+        return shards.get(0).findCustomerById(customerId);
+    }
+
+    // --- Booking, Rental, and Other Operations (routed to the owning shard) ---
+    @Override
+    public boolean bookVehicle(String vehicleId, String customerId, Date startDate, Date endDate) {
+        if (!isValidId(vehicleId)) return false;
+        return shardFor(vehicleId).bookVehicle(vehicleId, customerId, startDate, endDate);
+    }
+
+    @Override
+    public boolean cancelBooking(String vehicleId, String customerId, Date startDate, Date endDate) {
+        if (!isValidId(vehicleId)) return false;
+        return shardFor(vehicleId).cancelBooking(vehicleId, customerId, startDate, endDate);
+    }
+
+    @Override
+    public boolean rentVehicle(String vehicleId, String customerId, Date startDate, Date endDate, String deliveryLocation, String dropOffLocation) {
+        if (!isValidId(vehicleId)) return false;
+        return shardFor(vehicleId).rentVehicle(vehicleId, customerId, startDate, endDate, deliveryLocation, dropOffLocation);
+    }
+
+    @Override
+    public boolean dropVehicle(String vehicleId, String customerId) {
+        if (!isValidId(vehicleId)) return false;
+        return shardFor(vehicleId).dropVehicle(vehicleId, customerId);
+    }
+
+    @Override
+    public boolean loadVehicle(String vehicleId, String customerId, double amount) {
+        if (!isValidId(vehicleId)) return false;
+        return shardFor(vehicleId).loadVehicle(vehicleId, customerId, amount);
+    }
+
+    private static boolean isValidId(String id) {
+        return id != null && !id.trim().isEmpty();
+    }
+
+    @Override
+    public void close() throws IOException {
+        fanOutPool.shutdownNow();
+        IOException failure = null;
+        for (ParkShard shard : shards) {
+            if (!(shard instanceof AutoCloseable)) continue;
+            try {
+                ((AutoCloseable) shard).close();
+            } catch (Exception e) {
+                IOException io = e instanceof IOException ? (IOException) e : new IOException("Closing shard failed: " + e.getMessage(), e);
+                if (failure == null) failure = io;
+                else failure.addSuppressed(io);
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    private <T> List<T> fanOut(Function<ParkShard, T> call) {
+        List<CompletableFuture<T>> pending = new ArrayList<>();
+        for (ParkShard shard : shards) {
+            pending.add(CompletableFuture.supplyAsync(() -> call.apply(shard), fanOutPool));
+        }
+        List<T> results = new ArrayList<>();
+        for (CompletableFuture<T> f : pending) results.add(f.join());
+        return results;
+    }
+}
@@ -0,0 +1,146 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Set;
+
+// Serves one VehiclePark shard to RemoteShard clients over a loopback socket.
+// Run as a separate process with: java ShardServer <port>
+public class ShardServer implements AutoCloseable {
+    // Requests are Object[] of strings, dates and numbers, plus the vehicles and customers being added.
+    private static final Set<Class<?>> REQUEST_CLASSES = Set.of(Object[].class, String.class, Date.class, Number.class,
+            Boolean.class, Integer.class, Long.class, Double.class, ArrayList.class, Customer.class, Booking.class, GeoPoint.class);
+    private static final int MAX_REQUEST_DEPTH = 10;
+
+    private final VehiclePark park;
+    private final ServerSocket serverSocket;
+    private volatile boolean running = true;
+
+    public ShardServer(VehiclePark park, int port) throws IOException {
+        this.park = park;
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "vpark-shard-server-" + getPort());
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() { return serverSocket.getLocalPort(); }
+    public VehiclePark getPark() { return park; }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket client = serverSocket.accept();
+                Thread handler = new Thread(() -> serve(client), "vpark-shard-client");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                if (running) System.err.println("Shard server error while accepting connection: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket client) {
+        try (Socket s = client;
+             ObjectOutputStream out = new ObjectOutputStream(s.getOutputStream());
+             ObjectInputStream in = openInput(s, out)) {
+            while (running) {
+                Object[] request = (Object[]) in.readObject();
+                Object response;
+                synchronized (park) { // other connections change vehicles; copy the reply before letting them in
+                    try {
+                        response = detach(dispatch(request));
+                    } catch (RuntimeException e) {
+                        response = e;
+                    }
+                }
+                out.writeObject(response);
+                out.reset(); // vehicles change between calls, never send cached back-references
+                out.flush();
+            }
+        } catch (EOFException e) {
+            // client disconnected
+        } catch (IOException | ClassNotFoundException e) {
+            if (running) System.err.println("Shard server connection error: " + e.getMessage());
+        }
+    }
+
+    private static ObjectInputStream openInput(Socket s, ObjectOutputStream out) throws IOException {
+        out.flush(); // send our stream header first so the client's constructor does not block
+        ObjectInputStream in = new ObjectInputStream(s.getInputStream());
+        in.setObjectInputFilter(ShardServer::checkRequestClass);
+        return in;
+    }
+
+    private static ObjectInputFilter.Status checkRequestClass(ObjectInputFilter.FilterInfo info) {
+        if (info.depth() > MAX_REQUEST_DEPTH) return ObjectInputFilter.Status.REJECTED;
+        Class<?> c = info.serialClass();
+        if (c == null) return ObjectInputFilter.Status.UNDECIDED;
+        if (REQUEST_CLASSES.contains(c) || Vehicle.class.isAssignableFrom(c)) return ObjectInputFilter.Status.ALLOWED;
+        System.err.println("Shard server rejected a request containing " + c.getName() + ".");
+        return ObjectInputFilter.Status.REJECTED;
+    }
+
+    // A serialized copy of the reply, taken under the park lock so no other call can change it mid-write.
+    private static Object detach(Object response) {
+        if (response == null || response instanceof Boolean) return response;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream copy = new ObjectOutputStream(bytes)) {
+                copy.writeObject(response);
+            }
+            try (ObjectInputStream copy = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                return copy.readObject();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not copy shard reply: " + e.getMessage(), e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Could not copy shard reply: " + e.getMessage(), e);
+        }
+    }
+
+    private Object dispatch(Object[] r) {
+        String op = (String) r[0];
+        switch (op) {
+            case "addVehicle": return park.addVehicle((Vehicle) r[1]);
+            case "removeVehicle": return park.removeVehicle((String) r[1]);
+            case "findVehicleById": return park.findVehicleById((String) r[1]).orElse(null);
+            case "findVehicleByPlateNumber": return park.findVehicleByPlateNumber((String) r[1]).orElse(null);
+            case "findAvailableVehicles": return new ArrayList<>(park.findAvailableVehicles((Date) r[1], (Date) r[2], (String) r[3]));
+            case "addCustomer": return park.addCustomer((Customer) r[1]);
+            case "removeCustomer": return park.removeCustomer((String) r[1]);
+            case "findCustomerById": return park.findCustomerById((String) r[1]).orElse(null);
+            case "bookVehicle": return park.bookVehicle((String) r[1], (String) r[2], (Date) r[3], (Date) r[4]);
+            case "cancelBooking": return park.cancelBooking((String) r[1], (String) r[2], (Date) r[3], (Date) r[4]);
+            case "rentVehicle": return park.rentVehicle((String) r[1], (String) r[2], (Date) r[3], (Date) r[4], (String) r[5], (String) r[6]);
+            case "dropVehicle": return park.dropVehicle((String) r[1], (String) r[2]);
+            case "loadVehicle": return park.loadVehicle((String) r[1], (String) r[2], (Double) r[3]);
+            default: throw new UnsupportedOperationException("Unknown shard operation: " + op);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: java ShardServer <port>");
+            return;
+        }
+        ShardServer server = new ShardServer(new VehiclePark(), Integer.parseInt(args[0]));
+        System.out.println("VPark shard listening on 127.0.0.1:" + server.getPort());
+        Thread.currentThread().join(); // serve until the process is killed
+    }
+}
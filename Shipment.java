@@ -0,0 +1,21 @@
+// A piece of cargo to place on a Truck or StationWagon. Cross-border shipments need a TransportTruck that goes abroad.
+public class Shipment {
+    private final String reference;
+    private final double weight;
+    private final boolean crossesBorder;
+
+    public Shipment(String reference, double weight, boolean crossesBorder) {
+        this.reference = reference;
+        this.weight = weight;
+        this.crossesBorder = crossesBorder;
+    }
+
+    public String getReference() { return reference; }
+    public double getWeight() { return weight; }
+    public boolean crossesBorder() { return crossesBorder; }
+
+    @Override
+    public String toString() {
+        return reference + " (" + weight + (crossesBorder ? ", abroad" : "") + ")";
+    }
+}
@@ -1,4 +1,5 @@
 public class SmallTruck extends Truck {
+    private static final long serialVersionUID = -8685000113405833036L; // the implicit UID of the original class; saves from it stay readable
     public SmallTruck(String plateNo, String brand, String model, int numberOfTires, double dailyFee,
                       double loadingCapacity) {
         super(plateNo, brand, model, numberOfTires, dailyFee, loadingCapacity); // No ID passed
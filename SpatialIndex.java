@@ -0,0 +1,119 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Static k-d tree over the positions of every located vehicle in one snapshot. Points are stored as
+// unit-sphere x/y/z, where straight-line distance orders pairs exactly like great-circle distance, so
+// the tree needs no special handling near the poles or the date line.
+// nearest() walks the tree best-first and hands vehicles out in increasing distance; callers check
+// calendars only for the closest candidates and stop as soon as they have enough.
+final class SpatialIndex {
+    interface Visitor {
+        // Returns false to stop the walk.
+        boolean visit(Vehicle vehicle, double distanceKm);
+    }
+
+    // A subtree [lo, hi) or, with point >= 0, a single vehicle; bound is a lower bound on the chord distance.
+    private static final class Entry {
+        final double bound;
+        final int lo, hi, depth, point;
+
+        Entry(double bound, int lo, int hi, int depth, int point) {
+            this.bound = bound;
+            this.lo = lo;
+            this.hi = hi;
+            this.depth = depth;
+            this.point = point;
+        }
+    }
+
+    final long locationVersion;
+    // Tree order: subtree [lo, hi) keeps its splitting point at (lo + hi) >>> 1 and splits on axis depth % 3.
+    private final Vehicle[] vehicles;
+    private final double[][] coords; // coords[axis][i]
+
+    private SpatialIndex(long locationVersion, Vehicle[] vehicles, double[][] coords) {
+        this.locationVersion = locationVersion;
+        this.vehicles = vehicles;
+        this.coords = coords;
+    }
+
+    static SpatialIndex build(FleetSnapshot snapshot) {
+        List<VehicleView> located = new ArrayList<>();
+        snapshot.forEachVehicle(view -> {
+            if (view.getLocation() != null) located.add(view);
+        });
+        int n = located.size();
+        Vehicle[] vehicles = new Vehicle[n];
+        double[][] coords = new double[3][n];
+        for (int i = 0; i < n; i++) {
+            GeoPoint p = located.get(i).getLocation();
+            vehicles[i] = located.get(i).getVehicle();
+            coords[0][i] = p.x();
+            coords[1][i] = p.y();
+            coords[2][i] = p.z();
+        }
+        SpatialIndex index = new SpatialIndex(snapshot.getLocationVersion(), vehicles, coords);
+        index.arrange(0, n, 0);
+        return index;
+    }
+
+    int size() { return vehicles.length; }
+
+    // Puts the median of [lo, hi) on the node's axis in the middle, smaller values left, then recurses.
+    private void arrange(int lo, int hi, int depth) {
+        if (hi - lo <= 1) return;
+        int mid = (lo + hi) >>> 1;
+        double[] axis = coords[depth % 3];
+        int left = lo, right = hi - 1;
+        while (left < right) { // quickselect
+            double pivot = axis[(left + right) >>> 1];
+            int i = left, j = right;
+            while (i <= j) {
+                while (axis[i] < pivot) i++;
+                while (axis[j] > pivot) j--;
+                if (i <= j) swap(i++, j--);
+            }
+            if (mid <= j) right = j;
+            else if (mid >= i) left = i;
+            else break;
+        }
+        arrange(lo, mid, depth + 1);
+        arrange(mid + 1, hi, depth + 1);
+    }
+
+    private void swap(int i, int j) {
+        Vehicle v = vehicles[i]; vehicles[i] = vehicles[j]; vehicles[j] = v;
+        for (double[] axis : coords) {
+            double t = axis[i]; axis[i] = axis[j]; axis[j] = t;
+        }
+    }
+
+    // Visits vehicles closest to from first, up to maxKm away (no limit if maxKm <= 0).
+    void nearest(GeoPoint from, double maxKm, Visitor visitor) {
+        if (vehicles.length == 0) return;
+        double[] q = { from.x(), from.y(), from.z() };
+        double maxChord = maxKm > 0 ? GeoPoint.kmToChord(maxKm) : Double.MAX_VALUE;
+        PriorityQueue<Entry> queue = new PriorityQueue<>((a, b) -> Double.compare(a.bound, b.bound));
+        queue.add(new Entry(0, 0, vehicles.length, 0, -1));
+        while (!queue.isEmpty()) {
+            Entry e = queue.poll();
+            if (e.bound > maxChord) return;
+            if (e.point >= 0) {
+                if (!visitor.visit(vehicles[e.point], GeoPoint.chordToKm(e.bound))) return;
+                continue;
+            }
+            int mid = (e.lo + e.hi) >>> 1;
+            queue.add(new Entry(chord(q, mid), mid, mid + 1, e.depth, mid));
+            // Everything left of mid is <= the split on this axis, everything right is >= it.
+            double diff = q[e.depth % 3] - coords[e.depth % 3][mid];
+            if (e.lo < mid) queue.add(new Entry(diff > 0 ? Math.max(e.bound, diff) : e.bound, e.lo, mid, e.depth + 1, -1));
+            if (mid + 1 < e.hi) queue.add(new Entry(diff < 0 ? Math.max(e.bound, -diff) : e.bound, mid + 1, e.hi, e.depth + 1, -1));
+        }
+    }
+
+    private double chord(double[] q, int i) {
+        double dx = q[0] - coords[0][i], dy = q[1] - coords[1][i], dz = q[2] - coords[2][i];
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+}
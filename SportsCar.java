@@ -1,4 +1,5 @@
 public class SportsCar extends Car {
+    private static final long serialVersionUID = 5042438161703149547L; // the implicit UID of the original class; saves from it stay readable
     private int horsePower;
 
     public SportsCar(String plateNo, String brand, String model, int numberOfTires, double dailyFee,
@@ -8,7 +9,7 @@ public class SportsCar extends Car {
     }
 
     public int getHorsePower() { return horsePower; }
-    public void setHorsePower(int horsePower) { this.horsePower = horsePower; }
+    public void setHorsePower(int horsePower) { this.horsePower = horsePower; pricingChanged(); attributesChanged(); }
 
     @Override
     public String toString() {
@@ -18,11 +19,11 @@ public class SportsCar extends Car {
     }
 
     @Override
-    public double getTotalFee(int numberOfDays) {
-        double fee = super.getTotalFee(numberOfDays);
+    public double getPerDayRate() {
+        double rate = super.getPerDayRate();
         if (this.horsePower > 0) {
-            fee += (this.horsePower * 0.1) * numberOfDays;
+            rate += this.horsePower * BookingPolicy.current().getPerHorsePowerRate(policyRow());
         }
-        return fee;
+        return rate;
     }
 }
\ No newline at end of file
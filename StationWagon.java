@@ -1,4 +1,5 @@
 public class StationWagon extends Car {
+    private static final long serialVersionUID = -5969723497314218231L; // the implicit UID of the original class; saves from it stay readable
     private double loadingCapacitySW;
 
     public StationWagon(String plateNo, String brand, String model, int numberOfTires, double dailyFee,
@@ -7,13 +8,14 @@ public class StationWagon extends Car {
         this.loadingCapacitySW = loadingCapacitySW;
     }
 
-    public void setLoadingCapacitySW(double loadingCapacitySW) { this.loadingCapacitySW = loadingCapacitySW; }
+    public void setLoadingCapacitySW(double loadingCapacitySW) { this.loadingCapacitySW = loadingCapacitySW; attributesChanged(); }
 
     @Override
     public String toString() {
         return super.toString() +
                "\n  Car Specific Type: Station Wagon" +
-               "\n  Loading Capacity: " + loadingCapacitySW + " units";
+               "\n  Loading Capacity: " + loadingCapacitySW + " units" +
+               "\n  Current Load: " + getCurrentLoad() + " units";
     }
 
     @Override
@@ -21,11 +23,14 @@ public class StationWagon extends Car {
         if (this.loadingCapacitySW <= 0) {
             throw new UnsupportedOperationException("This Station Wagon (" + getId() + ") does not have a defined loading capacity.");
         }
-        if (additionalLoad > this.loadingCapacitySW) {
+        if (additionalLoad > getRemainingCapacity()) {
              throw new OverWeightException("Load of " + additionalLoad + " units exceeds Station Wagon " + getId() +
-                                          "'s capacity of " + this.loadingCapacitySW + " units.");
+                                          "'s remaining capacity of " + getRemainingCapacity() + " units (" +
+                                          getCurrentLoad() + " of " + this.loadingCapacitySW + " units already loaded).");
         }
-        System.out.println(additionalLoad + " units loaded to Station Wagon " + getId() + " (" + getPlateNumber() + ").");
+        addLoad(additionalLoad);
+        System.out.println(additionalLoad + " units loaded to Station Wagon " + getId() + " (" + getPlateNumber() + "). Now carrying " +
+                           getCurrentLoad() + " of " + this.loadingCapacitySW + " units.");
     }
 
     @Override
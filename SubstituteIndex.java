@@ -0,0 +1,95 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.IntPredicate;
+
+// Nearest-neighbour lookup for "something like this vehicle". Equivalence groups are the FeeIndex's
+// per-class slot arrays, already ordered by per-day rate; alongside them sit the comparable attributes
+// of every slot as primitives. A query walks outwards from the vehicle's own position in its group,
+// and stops once the fee gap alone is worse than the k-th best candidate found so far.
+// Stays valid until the fee index is replaced or any searchable attribute changes.
+final class SubstituteIndex {
+    private static final double DRIVE_MISMATCH_PENALTY = 0.5;
+
+    final FeeIndex feeIndex;
+    final long attributeEpoch;
+    private final QuoteEngine engine;
+    private final double[] seats;
+    private final double[] horsePower;
+    private final double[] capacity;
+    private final int[] driveCode;
+    private final int[][] groupOf;     // slot -> its class's fee-ordered slot array
+    private final int[] positionOf;    // slot -> index within that array
+
+    SubstituteIndex(FeeIndex feeIndex, long attributeEpoch) {
+        this.feeIndex = feeIndex;
+        this.attributeEpoch = attributeEpoch;
+        this.engine = feeIndex.engine;
+        int n = engine.size();
+        seats = new double[n];
+        horsePower = new double[n];
+        capacity = new double[n];
+        driveCode = new int[n];
+        groupOf = new int[n][];
+        positionOf = new int[n];
+        Arrays.fill(driveCode, AttributeDictionary.NULL_CODE);
+        for (int slot = 0; slot < n; slot++) {
+            Vehicle v = engine.vehicleAt(slot);
+            if (v instanceof Car) seats[slot] = ((Car) v).getSeatingCapacity();
+            if (v instanceof SportsCar) horsePower[slot] = ((SportsCar) v).getHorsePower();
+            if (v instanceof SUV) driveCode[slot] = AttributeDictionary.encode(((SUV) v).getWheelDriveType());
+            capacity[slot] = v.getLoadingCapacity();
+        }
+        for (Map.Entry<String, int[]> group : feeIndex.slotsByType.entrySet()) {
+            int[] slots = group.getValue();
+            for (int i = 0; i < slots.length; i++) {
+                groupOf[slots[i]] = slots;
+                positionOf[slots[i]] = i;
+            }
+        }
+    }
+
+    boolean isCurrent(FeeIndex feeIndex, long attributeEpoch) {
+        return this.feeIndex == feeIndex && this.attributeEpoch == attributeEpoch;
+    }
+
+    // Up to k slots of the same class closest to the target, best first. The availability test runs
+    // only for candidates that would make the current top k.
+    int[] nearest(int target, int k, IntPredicate available) {
+        if (target < 0 || target >= groupOf.length || k <= 0) return new int[0];
+        int[] group = groupOf[target];
+        double baseFee = engine.perDayRate(target);
+        double feeScale = Math.max(Math.abs(baseFee), 1);
+        // Max-heap on score (index 1), so the worst of the current top k is on top.
+        PriorityQueue<double[]> best = new PriorityQueue<>(k + 1, (a, b) -> Double.compare(b[1], a[1]));
+        int lo = positionOf[target] - 1;
+        int hi = positionOf[target] + 1;
+        while (lo >= 0 || hi < group.length) {
+            double loGap = lo >= 0 ? Math.abs(engine.perDayRate(group[lo]) - baseFee) : Double.POSITIVE_INFINITY;
+            double hiGap = hi < group.length ? Math.abs(engine.perDayRate(group[hi]) - baseFee) : Double.POSITIVE_INFINITY;
+            boolean takeLow = loGap <= hiGap;
+            double gap = (takeLow ? loGap : hiGap) / feeScale;
+            if (best.size() == k && gap >= best.peek()[1]) break; // every remaining candidate is at least this far on fee alone
+            int slot = takeLow ? group[lo--] : group[hi++];
+            double score = gap + distance(target, slot);
+            if (best.size() == k && score >= best.peek()[1]) continue;
+            if (!available.test(slot)) continue;
+            best.add(new double[] {slot, score});
+            if (best.size() > k) best.poll();
+        }
+        int[] result = new int[best.size()];
+        for (int i = result.length - 1; i >= 0; i--) result[i] = (int) best.poll()[0];
+        return result;
+    }
+
+    // Relative difference in the non-fee attributes; attributes a class lacks are zero on both sides.
+    private double distance(int a, int b) {
+        double d = relative(seats[a], seats[b]) + relative(horsePower[a], horsePower[b]) + relative(capacity[a], capacity[b]);
+        if (driveCode[a] != driveCode[b]) d += DRIVE_MISMATCH_PENALTY;
+        return d;
+    }
+
+    private static double relative(double base, double other) {
+        return Math.abs(other - base) / Math.max(Math.abs(base), 1);
+    }
+}
@@ -1,3 +1,4 @@
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -5,28 +6,45 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional; // For cleaner null checks from find methods
 import java.util.Scanner;
 import java.util.InputMismatchException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
 
 public class Test {
     private static VehiclePark park;
     private static final String DATA_FILE = "vpark_data.dat";
+    private static final String HISTORY_DIR = "vpark_history";
+    private static final String POLICY_FILE = "vpark_policy.properties";
+    private static final int HISTORY_RETENTION_DAYS = 30;
+    private static final int SCHEDULER_GRACE_HOURS = 2;
+    private static final int PAGE_SIZE = 10;
+    private static final int SUGGESTION_COUNT = 3;
     private static Scanner scanner = new Scanner(System.in);
     // Date format for user input and output consistency
     private static SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy");
     private static boolean dataWasSuccessfullyLoaded = false; // Flag to check if data was loaded
 
     public static void main(String[] args) {
+        if (args.length == 2 && "--check-load".equals(args[0])) {
+            System.exit(checkLoad(new File(args[1])) ? 0 : 1);
+        }
         dateFormat.setLenient(false); // Strict date parsing
         loadData();
+        loadBookingPolicy();
 
         // Populate initial data only if no data was loaded and the park is truly empty
-        if (!dataWasSuccessfullyLoaded && park.getAllVehicles().isEmpty() && park.getRegisteredCustomers().isEmpty()) {
+        if (!dataWasSuccessfullyLoaded && park.getVehicleCount() == 0 && park.getCustomerCount() == 0) {
             System.out.println("No existing data found. Populating with initial test data...");
             populateInitialData();
         }
+        startHistoryCompactor();
+        park.startScheduler(TimeUnit.MINUTES.toMillis(1), TimeUnit.HOURS.toMillis(SCHEDULER_GRACE_HOURS));
 
         boolean running = true;
         while (running) {
@@ -57,25 +75,33 @@ public class Test {
             }
         }
 
+        park.stopScheduler();
+        park.stopHistoryCompactor();
         saveData();
         scanner.close();
         System.out.println("Thank you for using VPark!");
     }
 
     private static void loadData() {
+        if (!new File(DATA_FILE).isFile()) {
+            System.out.println("No existing data found in " + DATA_FILE + ". Starting with a new VehiclePark.");
+            park = new VehiclePark();
+            dataWasSuccessfullyLoaded = false;
+            return;
+        }
         try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(DATA_FILE))) {
             park = (VehiclePark) ois.readObject();
-            // Crucially, after loading, update static counters in Vehicle and Customer classes
-            // This is now handled inside VehiclePark's setAllVehicles/setRegisteredCustomers
-            // which are implicitly called during deserialization if they were part of the saved state,
-            // or if we explicitly call them if 'park' contains only the lists.
-            // For safety, if VehiclePark's constructor does not call its own setters,
-            // we might need to call them here or ensure counters are set correctly.
-            // The current VehiclePark setters WILL update the static counters.
+            // VehiclePark.readObject rebuilds its indexes and moves the static Vehicle, Customer
+            // and Booking ID counters past the loaded IDs, so new entities never reuse an ID.
             System.out.println("Data loaded successfully from " + DATA_FILE);
             dataWasSuccessfullyLoaded = true;
         } catch (IOException | ClassNotFoundException e) {
-            System.out.println("No existing data or error loading data (" + e.getMessage() + "). Starting with a new VehiclePark.");
+            // Keep the unreadable file: saving on exit would otherwise overwrite it with the new, empty park.
+            File kept = new File(DATA_FILE + ".unreadable-" + System.currentTimeMillis());
+            boolean moved = new File(DATA_FILE).renameTo(kept);
+            System.err.println("Error loading data from " + DATA_FILE + " (" + e + "). " +
+                               (moved ? "The file was kept as " + kept.getName() + "." : "The file could not be set aside and will be overwritten on exit.") +
+                               " Starting with a new VehiclePark.");
             park = new VehiclePark();
             // Reset static counters for a fresh start if no data is loaded
             Vehicle.updateNextIdSuffix(0);
@@ -84,6 +110,37 @@ public class Test {
         }
     }
 
+    // Loads a saved park without starting the system, e.g. to confirm that a save from an older
+    // version still reads: java Test --check-load vpark_data.dat
+    private static boolean checkLoad(File file) {
+        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
+            VehiclePark loaded = (VehiclePark) ois.readObject();
+            int bookings = 0, rentals = 0;
+            for (VehicleView v : loaded.getSnapshot().vehicles()) {
+                bookings += v.bookingCount();
+                if (v.isRented()) rentals++;
+            }
+            System.out.println(file.getName() + ": " + loaded.getVehicleCount() + " vehicle(s), " + loaded.getCustomerCount() +
+                               " customer(s), " + bookings + " booking(s), " + rentals + " active rental(s).");
+            loaded.displayAllVehicles();
+            return true;
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            System.err.println(file.getName() + " could not be loaded: " + e);
+            return false;
+        }
+    }
+
+    // Optional; without the file the built-in rules apply.
+    private static void loadBookingPolicy() {
+        File policyFile = new File(POLICY_FILE);
+        if (!policyFile.isFile()) return;
+        try {
+            park.applyBookingPolicy(BookingPolicy.load(policyFile));
+        } catch (IOException e) {
+            System.err.println("Error loading booking policy from " + POLICY_FILE + " (" + e.getMessage() + "). Keeping the current rules.");
+        }
+    }
+
     private static void saveData() {
         try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(DATA_FILE))) {
             oos.writeObject(park);
@@ -93,6 +150,14 @@ public class Test {
         }
     }
 
+    private static void startHistoryCompactor() {
+        try {
+            park.startHistoryCompactor(new BookingHistoryStore(new File(HISTORY_DIR)), HISTORY_RETENTION_DAYS, 60);
+        } catch (IOException e) {
+            System.err.println("Booking history archive unavailable (" + e.getMessage() + "). Old bookings will stay in memory.");
+        }
+    }
+
     private static void populateInitialData() {
         System.out.println("Populating initial data as park is empty...");
         // IDs will be generated by Vehicle/Customer constructors
@@ -113,6 +178,14 @@ public class Test {
         park.addVehicle(smallTruck);
         park.addVehicle(transportTruck);
 
+        park.addDepot("Istanbul", new GeoPoint(41.0082, 28.9784));
+        park.addDepot("Ankara", new GeoPoint(39.9334, 32.8597));
+        park.setVehicleLocation(sportsCar.getId(), "Istanbul");
+        park.setVehicleLocation(suv.getId(), "Istanbul");
+        park.setVehicleLocation(stationWagon.getId(), "Ankara");
+        park.setVehicleLocation(smallTruck.getId(), "Ankara");
+        park.setVehicleLocation(transportTruck.getId(), "Istanbul");
+
         System.out.println("Initial data populated.");
         System.out.println("Example Customer ID: " + cust1.getCustomerId() + ", Example Vehicle ID: " + sportsCar.getId());
     }
@@ -170,6 +243,24 @@ public class Test {
         return date;
     }
 
+    // Blank input means "no filter".
+    private static String getOptionalInput(String prompt) {
+        System.out.print(prompt + " (leave blank for any): ");
+        String value = scanner.nextLine().trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Integer getOptionalIntInput(String prompt) {
+        String value = getOptionalInput(prompt);
+        if (value == null) return null;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number '" + value + "', ignoring this filter.");
+            return null;
+        }
+    }
+
     private static void adminMenu() {
         boolean adminRunning = true;
         while (adminRunning) {
@@ -180,17 +271,35 @@ public class Test {
             System.out.println("4. Remove Vehicle");
             System.out.println("5. Generate Daily Report");
             System.out.println("6. Display All Customers");
+            System.out.println("7. View Vehicle History");
+            System.out.println("8. Availability Cache Statistics");
+            System.out.println("9. Revenue Report");
+            System.out.println("10. Utilization Report and Heat Map");
+            System.out.println("11. Booking Policy (view/reload)");
+            System.out.println("12. Depots and Vehicle Locations");
+            System.out.println("13. Plan Fleet Rebalancing");
+            System.out.println("14. Recent Fleet Events");
+            System.out.println("15. Import Vehicles or Customers (CSV/JSON)");
             System.out.println("0. Back to Main Menu");
             System.out.print("Enter your choice: ");
             int choice = getIntInput();
 
             switch (choice) {
-                case 1: park.displayAllVehicles(); break;
+                case 1: handleBrowseVehicles(); break;
                 case 2: handleDisplayAvailableVehicles(false); break;
                 case 3: handleAddVehicle(); break;
                 case 4: handleRemoveVehicle(); break;
                 case 5: handleDailyReport(); break;
-                case 6: park.displayAllCustomers(); break;
+                case 6: handleBrowseCustomers(); break;
+                case 7: handleViewHistory(); break;
+                case 8: System.out.println(park.getAvailabilityCacheStats()); break;
+                case 9: handleRevenueReport(); break;
+                case 10: handleUtilizationReport(); break;
+                case 11: handleBookingPolicy(); break;
+                case 12: handleDepots(); break;
+                case 13: handleRebalancing(); break;
+                case 14: handleRecentEvents(); break;
+                case 15: handleImport(); break;
                 case 0: adminRunning = false; break;
                 case -1: /* Invalid input already handled */ break;
                 default: System.err.println("Invalid choice. Please try again.");
@@ -220,12 +329,19 @@ public class Test {
             System.out.println("6. Rent a Vehicle");
             System.out.println("7. Drop a Vehicle");
             System.out.println("8. Load a Vehicle");
+            System.out.println("9. My Bookings and Rentals");
+            System.out.println("10. Find Next Free Slot");
+            System.out.println("11. Cheapest Available Vehicles");
+            System.out.println("12. Search Vehicles by Features");
+            System.out.println("13. Allocate Cargo Shipments");
+            System.out.println("14. Cancel a Waitlist Request");
+            System.out.println("15. Find Nearest Available Vehicles");
             System.out.println("0. Back to Main Menu (Logout)");
             System.out.print("Enter your choice: ");
             int choice = getIntInput();
 
             switch (choice) {
-                case 1: park.displayAllVehicles(); break;
+                case 1: handleBrowseVehicles(); break;
                 case 2: handleDisplayAvailableVehicles(false); break;
                 case 3: handleDisplayAvailableVehicles(true); break;
                 case 4: handleBookVehicle(customerId); break;
@@ -233,6 +349,13 @@ public class Test {
                 case 6: handleRentVehicle(customerId); break;
                 case 7: handleDropVehicle(customerId); break;
                 case 8: handleLoadVehicle(customerId); break;
+                case 9: park.displayCustomerReservations(customerId); break;
+                case 10: handleFindFreeSlot(); break;
+                case 11: handleCheapestAvailable(); break;
+                case 12: handleSearchVehicles(); break;
+                case 13: handleAllocateCargo(customerId); break;
+                case 14: handleCancelWaitlistRequest(customerId); break;
+                case 15: handleNearestAvailable(); break;
                 case 0: customerRunning = false; break;
                 case -1: /* Invalid input already handled */ break;
                 default: System.err.println("Invalid choice. Please try again.");
@@ -240,6 +363,28 @@ public class Test {
         }
     }
 
+    private static void handleBrowseVehicles() {
+        String type = getOptionalInput("Vehicle type (e.g., SUV, Car, Truck)");
+        System.out.println("\n--- All Vehicles in VPark ---");
+        String cursor = park.displayVehiclePage(null, PAGE_SIZE, type);
+        while (cursor != null && wantsNextPage()) {
+            cursor = park.displayVehiclePage(cursor, PAGE_SIZE, type);
+        }
+    }
+
+    private static void handleBrowseCustomers() {
+        System.out.println("\n--- All Registered Customers ---");
+        String cursor = park.displayCustomerPage(null, PAGE_SIZE);
+        while (cursor != null && wantsNextPage()) {
+            cursor = park.displayCustomerPage(cursor, PAGE_SIZE);
+        }
+    }
+
+    private static boolean wantsNextPage() {
+        System.out.print("Press Enter for the next page, or type 'q' to stop: ");
+        return !scanner.nextLine().trim().equalsIgnoreCase("q");
+    }
+
     private static void handleDisplayAvailableVehicles(boolean byType) {
         System.out.println("Enter desired period for vehicle availability:");
         Date startDate = getDateInput("Start date");
@@ -325,6 +470,268 @@ public class Test {
         park.dailyReport(fileName);
     }
 
+    private static void handleViewHistory() {
+        System.out.print("Enter Vehicle ID (e.g., VEH-1): ");
+        String vehicleId = scanner.nextLine().trim();
+        if (vehicleId.isEmpty()) { System.err.println("Vehicle ID cannot be empty."); return; }
+        Date from = getDateInput("From date");
+        if (from == null) { System.out.println("Operation cancelled."); return; }
+        Date to = getDateInput("To date");
+        if (to == null) { System.out.println("Operation cancelled."); return; }
+        if (!from.before(to)) {
+            System.err.println("From date must be before to date.");
+            return;
+        }
+        park.displayHistory(vehicleId, from, to);
+    }
+
+    private static void handleRevenueReport() {
+        System.out.println("Enter the days to report on (both inclusive):");
+        Date from = getDateInput("From");
+        if (from == null) { System.out.println("Operation cancelled."); return; }
+        Date to = getDateInput("To");
+        if (to == null) { System.out.println("Operation cancelled."); return; }
+        park.displayRevenue(from, to);
+    }
+
+    private static void handleUtilizationReport() {
+        System.out.println("Enter the days to analyse (both inclusive):");
+        Date from = getDateInput("From");
+        if (from == null) { System.out.println("Operation cancelled."); return; }
+        Date to = getDateInput("To");
+        if (to == null) { System.out.println("Operation cancelled."); return; }
+        park.displayUtilization(from, to);
+        System.out.print("Export a per-day heat map as CSV? Enter a file name, or press Enter to skip: ");
+        String fileName = scanner.nextLine().trim();
+        if (!fileName.isEmpty()) park.exportUtilizationHeatMap(fileName, from, to);
+    }
+
+    private static void handleBookingPolicy() {
+        System.out.println(park.getBookingPolicy());
+        System.out.print("Reload rules from " + POLICY_FILE + "? (y/n): ");
+        if (!scanner.nextLine().trim().equalsIgnoreCase("y")) return;
+        if (!new File(POLICY_FILE).isFile()) {
+            System.err.println(POLICY_FILE + " not found. Keeping the current rules.");
+            return;
+        }
+        loadBookingPolicy();
+        System.out.println(park.getBookingPolicy());
+    }
+
+    private static void handleCheapestAvailable() {
+        System.out.println("Enter desired rental period:");
+        Date startDate = getDateInput("Start date");
+        if (startDate == null) { System.out.println("Operation cancelled."); return; }
+        Date endDate = getDateInput("End date");
+        if (endDate == null) { System.out.println("Operation cancelled."); return; }
+        if (!startDate.before(endDate)) {
+            System.err.println("Start date must be before end date.");
+            return;
+        }
+        System.out.print("Enter vehicle type (or leave blank for any): ");
+        String type = scanner.nextLine().trim();
+        System.out.print("How many vehicles to show: ");
+        int k = getIntInput();
+        if (k <= 0) { System.err.println("Number of vehicles must be positive."); return; }
+        park.displayCheapestAvailable(startDate, endDate, type, k);
+    }
+
+    private static void handleNearestAvailable() {
+        park.displayDepots();
+        System.out.print("Enter a depot name or coordinates (lat,lon) to search from: ");
+        String from = scanner.nextLine().trim();
+        if (from.isEmpty()) { System.out.println("Operation cancelled."); return; }
+        System.out.println("Enter desired rental period:");
+        Date startDate = getDateInput("Start date");
+        if (startDate == null) { System.out.println("Operation cancelled."); return; }
+        Date endDate = getDateInput("End date");
+        if (endDate == null) { System.out.println("Operation cancelled."); return; }
+        if (!startDate.before(endDate)) {
+            System.err.println("Start date must be before end date.");
+            return;
+        }
+        System.out.print("Enter vehicle type (or leave blank for any): ");
+        String type = scanner.nextLine().trim();
+        System.out.print("How many vehicles to show: ");
+        int k = getIntInput();
+        if (k <= 0) { System.err.println("Number of vehicles must be positive."); return; }
+        Integer maxKm = getOptionalIntInput("Maximum distance in km");
+        park.displayNearestAvailable(from, type, startDate, endDate, k, maxKm != null ? maxKm : 0);
+    }
+
+    private static void handleDepots() {
+        park.displayDepots();
+        System.out.print("Enter 'a' to add a depot, 'p' to place a vehicle, or press Enter to go back: ");
+        String action = scanner.nextLine().trim();
+        if (action.equalsIgnoreCase("a")) {
+            System.out.print("Depot name: ");
+            String name = scanner.nextLine().trim();
+            System.out.print("Coordinates (lat,lon): ");
+            String coordinates = scanner.nextLine().trim();
+            Optional<GeoPoint> location = GeoPoint.parse(coordinates);
+            if (!location.isPresent()) {
+                System.err.println("Invalid coordinates '" + coordinates + "'. Expected e.g. 41.0082,28.9784.");
+                return;
+            }
+            park.addDepot(name, location.get());
+        } else if (action.equalsIgnoreCase("p")) {
+            System.out.print("Vehicle ID: ");
+            String vehicleId = scanner.nextLine().trim();
+            System.out.print("Depot name or coordinates (lat,lon): ");
+            park.setVehicleLocation(vehicleId, scanner.nextLine().trim());
+        }
+    }
+
+    private static void handleRebalancing() {
+        System.out.print("Plan for bookings starting within how many days from now: ");
+        int days = getIntInput();
+        if (days <= 0) { System.err.println("Number of days must be positive."); return; }
+        long now = System.currentTimeMillis();
+        Optional<RebalancePlan> plan = park.planRebalancing(new Date(now), new Date(now + TimeUnit.DAYS.toMillis(days)));
+        if (!plan.isPresent()) return;
+        park.displayRebalancingPlan(plan.get());
+        if (plan.get().isEmpty()) return;
+        System.out.print("Apply these moves now? (y/n): ");
+        if (scanner.nextLine().trim().equalsIgnoreCase("y")) park.applyRebalancing(plan.get());
+    }
+
+    // Replays the buffered change feed up to the latest event, the way a reconnecting consumer catches up.
+    private static void handleRecentEvents() {
+        long last = park.getLastEventSequence();
+        if (last == 0) {
+            System.out.println("No fleet events since the system started.");
+            return;
+        }
+        long oldest = park.getOldestBufferedEventSequence();
+        Integer from = getOptionalIntInput("Replay from event number (" + oldest + "-" + last + ", blank for the last 20)");
+        long fromSequence = from != null ? from : Math.max(oldest, last - 19);
+        if (fromSequence > last) { System.err.println("No events after #" + last + " yet."); return; }
+        CountDownLatch caughtUp = new CountDownLatch(1);
+        park.subscribeToEvents(new Flow.Subscriber<FleetEvent>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(last - fromSequence + 1);
+            }
+
+            @Override
+            public void onNext(FleetEvent event) {
+                System.out.println(event);
+                if (event.getSequence() >= last) {
+                    subscription.cancel();
+                    caughtUp.countDown();
+                }
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                System.err.println("Event replay failed: " + error.getMessage());
+                caughtUp.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                caughtUp.countDown();
+            }
+        }, fromSequence);
+        try {
+            if (!caughtUp.await(5, TimeUnit.SECONDS)) System.err.println("Event replay timed out.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void handleImport() {
+        System.out.print("Import (Vehicles/Customers): ");
+        String kind = scanner.nextLine().trim();
+        if (!"Vehicles".equalsIgnoreCase(kind) && !"Customers".equalsIgnoreCase(kind)) {
+            System.err.println("Invalid choice: " + kind);
+            return;
+        }
+        System.out.print("File (.csv or .json): ");
+        String fileName = scanner.nextLine().trim();
+        if (fileName.isEmpty()) { System.err.println("File name cannot be empty."); return; }
+        Optional<ImportReport> report = "Vehicles".equalsIgnoreCase(kind) ? park.importVehicles(new File(fileName))
+                                                                         : park.importCustomers(new File(fileName));
+        report.ifPresent(System.out::println);
+    }
+
+    private static void handleSearchVehicles() {
+        System.out.println("--- Search Vehicles by Features ---");
+        VehicleCriteria criteria = new VehicleCriteria();
+        criteria.setType(getOptionalInput("Vehicle type (e.g., SUV, Car, Truck)"));
+        criteria.setColor(getOptionalInput("Color"));
+        criteria.setMinSeatingCapacity(getOptionalIntInput("Minimum seating capacity"));
+        criteria.setNumOfDoors(getOptionalIntInput("Number of doors"));
+        criteria.setWheelDriveType(getOptionalInput("Wheel drive (RWD, FWD, 4WD, AWD)"));
+        criteria.setMinHorsePower(getOptionalIntInput("Minimum horsepower"));
+        Integer minLoad = getOptionalIntInput("Minimum loading capacity");
+        if (minLoad != null) criteria.setMinLoadingCapacity(minLoad.doubleValue());
+        String abroad = getOptionalInput("Goes abroad (true/false)");
+        if (abroad != null) criteria.setGoesAbroad(Boolean.parseBoolean(abroad));
+        String remote = getOptionalInput("Remote delivery (true/false)");
+        if (remote != null) criteria.setRemoteDeliverable(Boolean.parseBoolean(remote));
+
+        Date startDate = null;
+        Date endDate = null;
+        System.out.print("Only show vehicles available for a period? (y/n): ");
+        if (scanner.nextLine().trim().equalsIgnoreCase("y")) {
+            startDate = getDateInput("Start date");
+            if (startDate == null) { System.out.println("Operation cancelled."); return; }
+            endDate = getDateInput("End date");
+            if (endDate == null) { System.out.println("Operation cancelled."); return; }
+            if (!startDate.before(endDate)) {
+                System.err.println("Start date must be before end date.");
+                return;
+            }
+        }
+        park.displaySearchResults(criteria, startDate, endDate);
+    }
+
+    private static void handleAllocateCargo(String customerId) {
+        System.out.print("How many shipments: ");
+        int count = getIntInput();
+        if (count <= 0) { System.err.println("Number of shipments must be positive."); return; }
+        List<Shipment> shipments = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            System.out.print("Weight of shipment " + i + ": ");
+            double weight = getDoubleInput();
+            if (weight <= 0) { System.err.println("Weight must be positive."); return; }
+            shipments.add(new Shipment("SHIP-" + i, weight, getBooleanInput("Does shipment " + i + " cross a border?")));
+        }
+        System.out.println("Enter transport period:");
+        Date startDate = getDateInput("Start date");
+        if (startDate == null) { System.out.println("Operation cancelled."); return; }
+        Date endDate = getDateInput("End date");
+        if (endDate == null) { System.out.println("Operation cancelled."); return; }
+        if (!startDate.before(endDate)) {
+            System.err.println("Start date must be before end date.");
+            return;
+        }
+        Optional<CargoPlan> plan = park.allocateCargo(customerId, shipments, startDate, endDate);
+        if (plan.isPresent()) park.displayCargoPlan(plan.get());
+    }
+
+    private static void handleFindFreeSlot() {
+        System.out.print("Enter Vehicle ID or type (e.g., VEH-1, SUV, Truck): ");
+        String target = scanner.nextLine().trim();
+        if (target.isEmpty()) { System.err.println("Vehicle ID or type cannot be empty."); return; }
+        System.out.print("Enter number of days needed: ");
+        int days = getIntInput();
+        if (days <= 0) { System.err.println("Number of days must be positive."); return; }
+        Date notBefore = getDateInput("Not before");
+        if (notBefore == null) { System.out.println("Operation cancelled."); return; }
+
+        Optional<FreeWindow> slot = park.findEarliestSlot(target, days, notBefore);
+        if (slot.isPresent()) {
+            System.out.println("Earliest free slot: " + slot.get());
+        } else {
+            System.out.println("No vehicle matching '" + target + "' found.");
+        }
+    }
+
     private static void handleBookVehicle(String customerId) {
         System.out.print("Enter Vehicle ID to book (e.g., VEH-1): ");
         String vehicleId = scanner.nextLine().trim();
@@ -340,48 +747,78 @@ public class Test {
             System.err.println("Start date cannot be after end date.");
             return;
         }
-        park.bookVehicle(vehicleId, customerId, startDate, endDate);
+        BookingResult result = park.bookVehicleOrSuggest(vehicleId, customerId, startDate, endDate, SUGGESTION_COUNT);
+        if (result.isBooked()) return;
+        Optional<Vehicle> vehicle = park.findVehicleById(vehicleId);
+        if (!vehicle.isPresent()) return;
+        if (!result.getAlternatives().isEmpty()) {
+            System.out.println("Similar vehicles available for that period:");
+            for (VehicleQuote q : result.getAlternatives()) System.out.println("  " + q);
+            System.out.print("Enter one of these Vehicle IDs to book it instead, or press Enter to skip: ");
+            String alternativeId = scanner.nextLine().trim();
+            if (!alternativeId.isEmpty() && park.bookVehicle(alternativeId, customerId, startDate, endDate)) return;
+        }
+        String type = vehicle.get().getClass().getSimpleName();
+        System.out.print("Join the waitlist? Enter 'v' for this vehicle, 't' for any " + type + ", or press Enter to skip: ");
+        String answer = scanner.nextLine().trim();
+        if (answer.equalsIgnoreCase("v")) park.joinWaitlist(customerId, vehicleId, startDate, endDate);
+        else if (answer.equalsIgnoreCase("t")) park.joinWaitlist(customerId, type, startDate, endDate);
     }
 
-    private static void handleCancelBooking(String customerId) {
-        System.out.print("Enter Vehicle ID of the booking to cancel (e.g., VEH-1): ");
-        String vehicleId = scanner.nextLine().trim();
-        if (vehicleId.isEmpty()) { System.err.println("Vehicle ID cannot be empty."); return; }
+    private static void handleCancelWaitlistRequest(String customerId) {
+        System.out.print("Enter Waitlist Request ID to cancel (e.g., WAIT-1): ");
+        String requestId = scanner.nextLine().trim();
+        if (requestId.isEmpty()) { System.err.println("Request ID cannot be empty."); return; }
+        park.cancelWaitlistRequest(requestId, customerId);
+    }
 
-        System.out.println("Enter period of the booking to cancel:");
-        Date startDate = getDateInput("Start date of booking");
-        if (startDate == null) { System.out.println("Cancellation cancelled."); return; }
-        Date endDate = getDateInput("End date of booking");
-        if (endDate == null) { System.out.println("Cancellation cancelled."); return; }
-        
-        if (startDate.after(endDate)) { // Though cancelMe in Vehicle will also check
-            System.err.println("Start date cannot be after end date for cancellation period.");
-            return;
-        }
-        park.cancelBooking(vehicleId, customerId, startDate, endDate);
+    private static void handleCancelBooking(String customerId) {
+        park.displayCustomerReservations(customerId);
+        System.out.print("Enter Booking ID to cancel (e.g., BOOK-1): ");
+        String bookingId = scanner.nextLine().trim();
+        if (bookingId.isEmpty()) { System.err.println("Booking ID cannot be empty."); return; }
+        park.cancelBooking(bookingId, customerId);
     }
 
     private static void handleRentVehicle(String customerId) {
-        System.out.print("Enter Vehicle ID to rent (e.g., VEH-1): ");
-        String vehicleId = scanner.nextLine().trim();
-        if (vehicleId.isEmpty()) { System.err.println("Vehicle ID cannot be empty."); return; }
+        System.out.print("Enter Booking ID to rent from (or leave blank to rent without a booking): ");
+        String bookingId = scanner.nextLine().trim();
+        Vehicle vehicleToRent;
+        String vehicleId;
+        Date startDate = null;
+        Date endDate = null;
+
+        if (!bookingId.isEmpty()) {
+            Optional<Booking> bookingOpt = park.findBookingById(bookingId);
+            if (!bookingOpt.isPresent()) {
+                System.err.println("Booking with ID " + bookingId + " not found.");
+                return;
+            }
+            vehicleId = bookingOpt.get().getVehicleId();
+        } else {
+            System.out.print("Enter Vehicle ID to rent (e.g., VEH-1): ");
+            vehicleId = scanner.nextLine().trim();
+            if (vehicleId.isEmpty()) { System.err.println("Vehicle ID cannot be empty."); return; }
+        }
 
         Optional<Vehicle> vehicleOpt = park.findVehicleById(vehicleId);
         if (!vehicleOpt.isPresent()) {
             System.err.println("Vehicle with ID " + vehicleId + " not found.");
             return;
         }
-        Vehicle vehicleToRent = vehicleOpt.get();
-
-        System.out.println("Enter rental period:");
-        Date startDate = getDateInput("Start date");
-        if (startDate == null) { System.out.println("Rental cancelled."); return; }
-        Date endDate = getDateInput("End date");
-        if (endDate == null) { System.out.println("Rental cancelled."); return; }
-
-        if (startDate.after(endDate)) {
-            System.err.println("Start date cannot be after end date.");
-            return;
+        vehicleToRent = vehicleOpt.get();
+
+        if (bookingId.isEmpty()) {
+            System.out.println("Enter rental period:");
+            startDate = getDateInput("Start date");
+            if (startDate == null) { System.out.println("Rental cancelled."); return; }
+            endDate = getDateInput("End date");
+            if (endDate == null) { System.out.println("Rental cancelled."); return; }
+
+            if (startDate.after(endDate)) {
+                System.err.println("Start date cannot be after end date.");
+                return;
+            }
         }
 
         String deliveryLocation = "";
@@ -392,11 +829,15 @@ public class Test {
             deliveryLocation = scanner.nextLine().trim();
         }
         if (vehicleToRent.isRemoteDroppable()) {
-             System.out.print("Enter drop-off location (or leave blank if not applicable/same as rental office): ");
+             System.out.print("Enter drop-off depot or coordinates lat,lon (or leave blank if not applicable/same as rental office): ");
              dropOffLocation = scanner.nextLine().trim();
         }
 
-        park.rentVehicle(vehicleId, customerId, startDate, endDate, deliveryLocation, dropOffLocation);
+        if (!bookingId.isEmpty()) {
+            park.rentFromBooking(bookingId, customerId, deliveryLocation, dropOffLocation);
+        } else {
+            park.rentVehicle(vehicleId, customerId, startDate, endDate, deliveryLocation, dropOffLocation);
+        }
     }
 
     private static void handleDropVehicle(String customerId) {
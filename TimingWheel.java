@@ -0,0 +1,136 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// Hierarchical timing wheel. Level 0 has one bucket per tick; each higher level covers a whole
+// revolution of the level below and is cascaded down when the clock reaches it. Scheduling and
+// cancelling are O(1); advancing costs one bucket per elapsed tick plus the timers that fire.
+// Not thread-safe: callers serialize access (VehiclePark drives it under its own lock).
+public class TimingWheel {
+    private static final int BITS = 6;
+    private static final int WHEEL_SIZE = 1 << BITS;
+    private static final int MASK = WHEEL_SIZE - 1;
+
+    public static final class Timeout {
+        private final long deadlineTick;
+        private final Runnable task;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+        private boolean done; // fired or cancelled
+
+        private Timeout(long deadlineTick, Runnable task) {
+            this.deadlineTick = deadlineTick;
+            this.task = task;
+        }
+
+        public boolean isDone() { return done; }
+
+        public void cancel() {
+            if (done) return;
+            done = true;
+            if (bucket != null) bucket.remove(this);
+        }
+    }
+
+    private static final class Bucket {
+        private Timeout head;
+
+        void add(Timeout t) {
+            t.bucket = this;
+            t.prev = null;
+            t.next = head;
+            if (head != null) head.prev = t;
+            head = t;
+        }
+
+        void remove(Timeout t) {
+            if (t.prev != null) t.prev.next = t.next; else head = t.next;
+            if (t.next != null) t.next.prev = t.prev;
+            t.bucket = null;
+            t.prev = null;
+            t.next = null;
+        }
+
+        // Empties the bucket and returns its former contents.
+        List<Timeout> drain() {
+            List<Timeout> drained = new ArrayList<>();
+            for (Timeout t = head; t != null; ) {
+                Timeout following = t.next;
+                t.bucket = null;
+                t.prev = null;
+                t.next = null;
+                drained.add(t);
+                t = following;
+            }
+            head = null;
+            return drained;
+        }
+    }
+
+    private final long tickMillis;
+    private final List<Bucket[]> levels = new ArrayList<>();
+    private final Bucket overdue = new Bucket(); // scheduled at or before the current tick
+    private long currentTick;
+
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("Tick must be positive.");
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public long getTickMillis() { return tickMillis; }
+
+    public Timeout schedule(long deadlineMillis, Runnable task) {
+        Timeout timeout = new Timeout(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), task);
+        place(timeout);
+        return timeout;
+    }
+
+    // Fires every timer whose deadline is at or before nowMillis.
+    public void advanceTo(long nowMillis) {
+        fire(overdue.drain());
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Cascade from the highest level down so entries can fall through several levels in one tick.
+            for (int level = levels.size() - 1; level >= 1; level--) {
+                if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+                    int index = (int) ((currentTick >>> (BITS * level)) & MASK);
+                    for (Timeout t : levels.get(level)[index].drain()) place(t);
+                }
+            }
+            if (!levels.isEmpty()) fire(levels.get(0)[(int) (currentTick & MASK)].drain());
+            fire(overdue.drain());
+        }
+    }
+
+    private void place(Timeout t) {
+        if (t.deadlineTick <= currentTick) {
+            overdue.add(t);
+            return;
+        }
+        // Lowest level whose parent slot already contains both now and the deadline.
+        int level = 0;
+        while (level < 64 / BITS && (t.deadlineTick >>> (BITS * (level + 1))) != (currentTick >>> (BITS * (level + 1)))) {
+            level++;
+        }
+        while (levels.size() <= level) {
+            Bucket[] buckets = new Bucket[WHEEL_SIZE];
+            for (int i = 0; i < WHEEL_SIZE; i++) buckets[i] = new Bucket();
+            levels.add(buckets);
+        }
+        levels.get(level)[(int) ((t.deadlineTick >>> (BITS * level)) & MASK)].add(t);
+    }
+
+    private static void fire(List<Timeout> due) {
+        for (Timeout t : due) {
+            if (t.done) continue;
+            t.done = true;
+            try {
+                t.task.run();
+            } catch (RuntimeException e) {
+                System.err.println("Scheduled task failed: " + e.getMessage());
+            }
+        }
+    }
+}
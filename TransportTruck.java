@@ -1,4 +1,5 @@
 public class TransportTruck extends Truck {
+    private static final long serialVersionUID = 3810859721502361801L; // the implicit UID of the original class; saves from it stay readable
     private boolean goesAbroad;
 
     public TransportTruck(String plateNo, String brand, String model, int numberOfTires, double dailyFee,
@@ -10,7 +11,7 @@ public class TransportTruck extends Truck {
     public boolean isGoesAbroad() { 
         return goesAbroad; 
     }
-    public void setGoesAbroad(boolean goesAbroad) { this.goesAbroad = goesAbroad; }
+    public void setGoesAbroad(boolean goesAbroad) { this.goesAbroad = goesAbroad; pricingChanged(); attributesChanged(); }
 
     @Override
     public String toString() {
@@ -20,11 +21,11 @@ public class TransportTruck extends Truck {
     }
 
     @Override
-    public double getTotalFee(int numberOfDays) {
-        double fee = super.getTotalFee(numberOfDays);
+    public double getFixedSurcharge() {
+        double surcharge = super.getFixedSurcharge();
         if (this.goesAbroad) {
-            fee += 500.00; // Example fixed additional charge
+            surcharge += BookingPolicy.current().getAbroadSurcharge(policyRow());
         }
-        return fee;
+        return surcharge;
     }
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+// Per-vehicle occupancy as one bit per day, with a running popcount per 64-day word, so the number of
+// occupied days in any range is two rank lookups and a subtraction. Built for one snapshot version;
+// the next version reuses every vehicle whose published view did not change and rebuilds the rest in
+// parallel. A day counts as occupied if any booking, active rental or completed rental covers part of it.
+final class UtilizationIndex {
+    final long version;
+    private final VehicleView[] views; // live vehicles in ID order; a slot here is a position in this array
+    private final DayBitmap[] bitmaps;
+    private final Map<String, Integer> slotById;
+
+    static final class DayBitmap {
+        private static final DayBitmap EMPTY = new DayBitmap(0, new long[0]);
+
+        private final long originDay;
+        private final long[] words;
+        private final int[] ranks; // ranks[i] = occupied days in words[0..i)
+
+        private DayBitmap(long originDay, long[] words) {
+            this.originDay = originDay;
+            this.words = words;
+            this.ranks = new int[words.length + 1];
+            for (int i = 0; i < words.length; i++) ranks[i + 1] = ranks[i] + Long.bitCount(words[i]);
+        }
+
+        static DayBitmap of(VehicleView view) {
+            List<Booking> intervals = view.getOccupiedIntervals();
+            long[] completed = view.getCompletedRentalPeriods();
+            if (intervals.isEmpty() && completed.length == 0) return EMPTY;
+            // {first day, last day} per interval, both inclusive.
+            long[] days = new long[2 * intervals.size() + completed.length];
+            int n = 0;
+            for (Booking b : intervals) n = addDays(days, n, b.getStartDate().getTime(), b.getEndDate().getTime());
+            for (int i = 0; i < completed.length; i += 2) n = addDays(days, n, completed[i], completed[i + 1]);
+            long first = Long.MAX_VALUE;
+            long last = Long.MIN_VALUE;
+            for (int i = 0; i < n; i += 2) {
+                first = Math.min(first, days[i]);
+                last = Math.max(last, days[i + 1]);
+            }
+            long[] words = new long[(int) ((last - first) / 64) + 1];
+            for (int i = 0; i < n; i += 2) {
+                for (long d = days[i] - first; d <= days[i + 1] - first; d++) words[(int) (d >>> 6)] |= 1L << d;
+            }
+            return new DayBitmap(first, words);
+        }
+
+        // Days touched by [start, end): the end instant itself is not part of the interval.
+        private static int addDays(long[] days, int n, long start, long end) {
+            days[n] = VehiclePark.localEpochDay(start);
+            days[n + 1] = VehiclePark.localEpochDay(Math.max(start, end - 1));
+            return n + 2;
+        }
+
+        // Occupied days before the given day.
+        private int rank(long day) {
+            long offset = day - originDay;
+            if (offset <= 0) return 0;
+            if (offset >= (long) words.length * 64) return ranks[words.length];
+            int word = (int) (offset >>> 6);
+            return ranks[word] + Long.bitCount(words[word] & ((1L << offset) - 1));
+        }
+
+        // Occupied days in [fromDay, toDay).
+        int occupiedDays(long fromDay, long toDay) {
+            return toDay <= fromDay ? 0 : rank(toDay) - rank(fromDay);
+        }
+
+        boolean isOccupied(long day) {
+            long offset = day - originDay;
+            return offset >= 0 && offset < (long) words.length * 64 && (words[(int) (offset >>> 6)] & (1L << offset)) != 0;
+        }
+    }
+
+    private UtilizationIndex(long version, VehicleView[] views, DayBitmap[] bitmaps) {
+        this.version = version;
+        this.views = views;
+        this.bitmaps = bitmaps;
+        this.slotById = new HashMap<>(views.length * 2);
+        for (int slot = 0; slot < views.length; slot++) slotById.put(views[slot].getId(), slot);
+    }
+
+    // previous may be null.
+    static UtilizationIndex build(FleetSnapshot snapshot, UtilizationIndex previous) {
+        List<VehicleView> live = new ArrayList<>(snapshot.getVehicleCount());
+        snapshot.forEachVehicle(live::add);
+        VehicleView[] views = live.toArray(new VehicleView[0]);
+        DayBitmap[] bitmaps = new DayBitmap[views.length];
+        IntStream.range(0, views.length).parallel().forEach(slot -> {
+            VehicleView view = views[slot];
+            Integer old = previous != null ? previous.slotById.get(view.getId()) : null;
+            boolean unchanged = old != null && previous.views[old] == view;
+            bitmaps[slot] = unchanged ? previous.bitmaps[old] : DayBitmap.of(view);
+        });
+        return new UtilizationIndex(snapshot.getVersion(), views, bitmaps);
+    }
+
+    int slotCount() { return views.length; }
+    VehicleView viewAt(int slot) { return views[slot]; }
+    DayBitmap bitmapAt(int slot) { return bitmaps[slot]; }
+
+    int slotOf(String vehicleId) {
+        Integer slot = vehicleId == null ? null : slotById.get(vehicleId.trim());
+        return slot != null ? slot : -1;
+    }
+
+    // Occupied vehicle-days in [fromDay, toDay) per slot, computed in parallel.
+    int[] occupiedDays(long fromDay, long toDay) {
+        int[] days = new int[views.length];
+        Arrays.fill(days, -1);
+        IntStream.range(0, views.length).parallel().forEach(slot -> {
+            if (bitmaps[slot] != null) days[slot] = bitmaps[slot].occupiedDays(fromDay, toDay);
+        });
+        return days;
+    }
+}
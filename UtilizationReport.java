@@ -0,0 +1,53 @@
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Share of days vehicles were booked or rented over a range of days: per vehicle, per type and fleet-wide.
+public class UtilizationReport {
+    private final int days;
+    private final Map<String, Double> byVehicle = new LinkedHashMap<>(); // in ID order
+    private final Map<String, long[]> typeTotals = new TreeMap<>(); // type -> {occupied vehicle-days, vehicles}
+    private long occupied;
+    private long vehicles;
+
+    UtilizationReport(int days) {
+        this.days = days;
+    }
+
+    void add(String vehicleId, String type, int occupiedDays) {
+        byVehicle.put(vehicleId, days == 0 ? 0 : (double) occupiedDays / days);
+        long[] totals = typeTotals.computeIfAbsent(type, k -> new long[2]);
+        totals[0] += occupiedDays;
+        totals[1]++;
+        occupied += occupiedDays;
+        vehicles++;
+    }
+
+    public int getDays() { return days; }
+    public Map<String, Double> getByVehicle() { return Collections.unmodifiableMap(byVehicle); }
+
+    public Map<String, Double> getByType() {
+        Map<String, Double> result = new TreeMap<>();
+        for (Map.Entry<String, long[]> e : typeTotals.entrySet()) result.put(e.getKey(), ratio(e.getValue()[0], e.getValue()[1]));
+        return result;
+    }
+
+    public double getFleetUtilization() { return ratio(occupied, vehicles); }
+
+    private double ratio(long occupiedDays, long vehicleCount) {
+        return vehicleCount == 0 || days == 0 ? 0 : (double) occupiedDays / (vehicleCount * (long) days);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Double> e : getByType().entrySet()) {
+            sb.append("  ").append(e.getKey()).append(" (").append(typeTotals.get(e.getKey())[1]).append(" vehicle(s)): ")
+              .append(String.format("%.1f%%", e.getValue() * 100)).append('\n');
+        }
+        sb.append("  Fleet (").append(vehicles).append(" vehicle(s), ").append(days).append(" day(s)): ")
+          .append(String.format("%.1f%%", getFleetUtilization() * 100));
+        return sb.toString();
+    }
+}
@@ -1,69 +1,177 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.concurrent.TimeUnit; // For date difference calculation
 
 public abstract class Vehicle implements Serializable {
     private static final long serialVersionUID = 1L;
     private static long nextIdSuffix = 1; // Static counter for all Vehicle instances
     protected static final String ID_PREFIX = "VEH-"; // Static prefix, subclasses might need it for parsing
+    // Numeric order for IDs with the same prefix: VEH-9 before VEH-10.
+    static final Comparator<String> ID_ORDER = Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder());
+    private static volatile long pricingEpoch; // bumped whenever any vehicle's pricing inputs change
+    private static volatile long attributeEpoch; // bumped whenever a searchable attribute changes
 
-    private final String id;
-    private final String plateNumber;
-    private String brand;
-    private String model;
-    private final int numberOfTires;
+    // Saved in the original layout, brand and model as strings, followed by the fields added since.
+    // Anything missing from an older save reads back as its default.
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("id", String.class),
+        new ObjectStreamField("plateNumber", String.class),
+        new ObjectStreamField("brand", String.class),
+        new ObjectStreamField("model", String.class),
+        new ObjectStreamField("numberOfTires", int.class),
+        new ObjectStreamField("dailyFee", double.class),
+        new ObjectStreamField("isRented", boolean.class),
+        new ObjectStreamField("isOverdue", boolean.class),
+        new ObjectStreamField("currentRentalPeriod", Booking.class),
+        new ObjectStreamField("bookings", List.class),
+        new ObjectStreamField("currentLoad", double.class),
+        new ObjectStreamField("location", GeoPoint.class),
+        new ObjectStreamField("relocating", boolean.class),
+        new ObjectStreamField("returnLocation", GeoPoint.class),
+    };
+
+    private String id; // never reassigned after construction; not final only so readObject can set it
+    private String plateNumber; // same
+    private transient int brandCode; // AttributeDictionary codes; written as strings, see writeObject
+    private transient int modelCode;
+    private int numberOfTires; // same
     private double dailyFee;
 
     private boolean isRented;
+    private boolean isOverdue; // set by the park scheduler once the rental's grace period has passed
     private Booking currentRentalPeriod;
     private List<Booking> bookings;
+    private transient List<Booking> bookingsView; // read-only view over bookings, created on first use
+    private transient VehiclePark owner; // the park listing this vehicle; null until it is added
 
-    private boolean isRemoteDeliverable;
-    private boolean isRemoteDroppable;
+    private double currentLoad; // cargo on board; cleared when the vehicle is dropped off
+    private GeoPoint location; // where the vehicle is parked; null if unknown
+    private boolean relocating; // rented with a remote drop-off: the vehicle ends up at returnLocation
+    private GeoPoint returnLocation; // null if the drop-off location could not be resolved
 
     public Vehicle(String plateNumber, String brand, String model, int numberOfTires, double dailyFee) {
-        this.id = ID_PREFIX + nextIdSuffix++;
+        this.id = ID_PREFIX + nextSuffix();
         this.plateNumber = plateNumber;
-        this.brand = brand;
-        this.model = model;
+        this.brandCode = AttributeDictionary.encode(brand);
+        this.modelCode = AttributeDictionary.encode(model);
         this.numberOfTires = numberOfTires;
         this.dailyFee = dailyFee;
 
         this.isRented = false;
         this.bookings = new ArrayList<>();
         this.currentRentalPeriod = null;
-        this.isRemoteDeliverable = true;
-        this.isRemoteDroppable = true;
     }
 
-    public static void updateNextIdSuffix(long highestKnownIdSuffix) {
+    // Parks in the same JVM (e.g. in-process shards) may create vehicles concurrently.
+    private static synchronized long nextSuffix() {
+        return nextIdSuffix++;
+    }
+
+    // Builds one vehicle per spec while holding the ID counter, so they get one consecutive block of IDs.
+    static synchronized <S> List<Vehicle> buildBlock(List<S> specs, Function<S, Vehicle> build) {
+        List<Vehicle> vehicles = new ArrayList<>(specs.size());
+        for (S spec : specs) vehicles.add(build.apply(spec));
+        return vehicles;
+    }
+
+    public static synchronized void updateNextIdSuffix(long highestKnownIdSuffix) {
         nextIdSuffix = Math.max(1L, highestKnownIdSuffix + 1); // Ensure it's at least 1
     }
 
+    // Never moves the counter backwards; used when a park is loaded next to existing vehicles.
+    static synchronized void raiseNextIdSuffix(long highestKnownIdSuffix) {
+        nextIdSuffix = Math.max(nextIdSuffix, highestKnownIdSuffix + 1);
+    }
+
     public String getId() { return id; }
     public String getPlateNumber() { return plateNumber; }
-    public String getBrand() { return brand; }
-    public String getModel() { return model; }
+    public String getBrand() { return AttributeDictionary.decode(brandCode); }
+    public String getModel() { return AttributeDictionary.decode(modelCode); }
     public int getNumberOfTires() { return numberOfTires; }
     public double getDailyFee() { return dailyFee; }
     public boolean isRented() { return isRented; }
+    public boolean isOverdue() { return isOverdue; }
     public List<Booking> getBookings() { return new ArrayList<>(bookings); }
-    public boolean isRemoteDeliverable() { return isRemoteDeliverable; }
-    public boolean isRemoteDroppable() { return isRemoteDroppable; }
+    public int bookingCount() { return bookings.size(); }
+    public boolean hasBookings() { return !bookings.isEmpty(); }
+    public boolean isRemoteDeliverable() { return BookingPolicy.current().isRemoteDeliverable(policyRow()); }
+    public boolean isRemoteDroppable() { return BookingPolicy.current().isRemoteDroppable(policyRow()); }
     public Booking getCurrentRentalPeriod() { return currentRentalPeriod; }
+    public GeoPoint getLocation() { return location; }
+
+    // Where the vehicle can be picked up after its current rental: the drop-off point for remote drop-offs.
+    public GeoPoint getNextLocation() { return relocating ? returnLocation : location; }
+
+    // Live, read-only view of the calendar: no copy, but it reflects later changes.
+    // Callers that need a stable list must copy it (or use getBookings()).
+    public List<Booking> getBookingsView() {
+        if (bookingsView == null) bookingsView = Collections.unmodifiableList(bookings);
+        return bookingsView;
+    }
+
+    public void forEachBooking(Consumer<? super Booking> action) {
+        for (int i = 0; i < bookings.size(); i++) action.accept(bookings.get(i));
+    }
+
+    public void setBrand(String brand) { this.brandCode = AttributeDictionary.encode(brand); viewChanged(); }
+    public void setModel(String model) { this.modelCode = AttributeDictionary.encode(model); viewChanged(); }
+    public void setDailyFee(double dailyFee) { if (dailyFee > 0) { this.dailyFee = dailyFee; pricingChanged(); viewChanged(); } }
+    void setOverdue(boolean overdue) { this.isOverdue = overdue; }
+    void setOwner(VehiclePark owner) { this.owner = owner; }
+    void setLocation(GeoPoint location) { this.location = location; }
+
+    // Called by the park when a rental with a remote drop-off starts; dropMe moves the vehicle there.
+    void setReturnLocation(GeoPoint returnLocation) {
+        this.relocating = true;
+        this.returnLocation = returnLocation;
+    }
+
+    // This vehicle's row in the BookingPolicy table; remote delivery, lead time, duration and surcharges come from there.
+    final int policyRow() { return BookingPolicy.rowOf(this); }
+
+    // Fee caches compare this against the epoch they were built at.
+    public static long getPricingEpoch() { return pricingEpoch; }
+    protected static synchronized void pricingChanged() { pricingEpoch++; }
+
+    // Same for the attribute index behind VehiclePark.searchVehicles. Only listed vehicles are indexed, so
+    // building or editing a vehicle outside a park (e.g. before adding it) leaves the indexes alone.
+    public static long getAttributeEpoch() { return attributeEpoch; }
+    protected final void attributesChanged() { if (owner != null) { bumpAttributeEpoch(); viewChanged(); } }
+    static synchronized void bumpAttributeEpoch() { attributeEpoch++; }
 
-    public void setBrand(String brand) { this.brand = brand; }
-    public void setModel(String model) { this.model = model; }
-    public void setDailyFee(double dailyFee) { if (dailyFee > 0) this.dailyFee = dailyFee; }
-    protected void setRemoteDeliverable(boolean remoteDeliverable) { this.isRemoteDeliverable = remoteDeliverable; }
-    protected void setRemoteDroppable(boolean remoteDroppable) { this.isRemoteDroppable = remoteDroppable; }
+    // Setters call this so the park republishes the vehicle and snapshot readers see the new description.
+    protected final void viewChanged() {
+        VehiclePark park = owner;
+        if (park != null) park.republishVehicle(this);
+    }
+
+    // Days charged for a period: whole days, at least one.
+    public static int billableDays(Date startDate, Date endDate) {
+        long durationMillis = endDate.getTime() - startDate.getTime();
+        return (int) Math.max(1, TimeUnit.MILLISECONDS.toDays(durationMillis));
+    }
+
+    // Every vehicle's fee is linear in the number of days: per-day rate times days plus a fixed surcharge.
+    // Subclasses adjust the two terms rather than getTotalFee so QuoteEngine can precompute them;
+    // the surcharge amounts themselves come from the booking policy.
+    public double getPerDayRate() { return dailyFee + BookingPolicy.current().getPerDaySurcharge(policyRow()); }
+    public double getFixedSurcharge() { return BookingPolicy.current().getFixedSurcharge(policyRow()); }
 
     public double getTotalFee(int numberOfDays) {
         if (numberOfDays <= 0) return 0;
-        return this.dailyFee * numberOfDays;
+        return getPerDayRate() * numberOfDays + getFixedSurcharge();
     }
 
     public boolean isAvailable(Date startDate, Date endDate) throws InvalidDateException {
@@ -78,11 +186,24 @@ public abstract class Vehicle implements Serializable {
     }
 
     public void bookMe(Date startDate, Date endDate) throws SorryWeDontHaveThatOneException, InvalidDateException {
+        bookMe(startDate, endDate, null);
+    }
+
+    public Booking bookMe(Date startDate, Date endDate, String customerId) throws SorryWeDontHaveThatOneException, InvalidDateException {
+        if (startDate != null && endDate != null) {
+            String violation = BookingPolicy.current().checkBooking(policyRow(), startDate.getTime(), endDate.getTime(), System.currentTimeMillis());
+            if (violation != null) {
+                throw new InvalidDateException("Booking failed for " + getClass().getSimpleName() + " " + id + " (" + plateNumber + "): " + violation);
+            }
+        }
         if (!isAvailable(startDate, endDate)) {
             throw new SorryWeDontHaveThatOneException("Vehicle " + id + " (" + plateNumber + ") is not available for booking from " + startDate.toGMTString() + " to " + endDate.toGMTString() + ".");
         }
-        this.bookings.add(new Booking(startDate, endDate));
-        System.out.println("Vehicle " + id + " ("+ plateNumber + ") successfully booked from " + startDate.toGMTString() + " to " + endDate.toGMTString());
+        Booking booking = new Booking(startDate, endDate, id, customerId);
+        booking.setPickupLocation(getNextLocation());
+        insertBooking(booking);
+        System.out.println("Vehicle " + id + " ("+ plateNumber + ") successfully booked from " + startDate.toGMTString() + " to " + endDate.toGMTString() + " (Booking ID: " + booking.getBookingId() + ")");
+        return booking;
     }
 
     public void cancelMe(Date startDate, Date endDate) throws NoCancellationYouMustPayException, InvalidDateException {
@@ -114,36 +235,105 @@ public abstract class Vehicle implements Serializable {
         }
     }
 
+    public void cancelMe(Booking booking) throws NoCancellationYouMustPayException, InvalidDateException {
+        if (booking == null || !hasBooking(booking)) {
+            throw new InvalidDateException("No matching booking found to cancel for vehicle " + id + " (" + plateNumber + ").");
+        }
+        cancelBooked(booking);
+    }
+
+    // For callers that already know the booking is on this calendar (the park checks its booking index).
+    void cancelBooked(Booking booking) throws NoCancellationYouMustPayException {
+        if (!booking.getStartDate().after(new Date())) {
+            throw new NoCancellationYouMustPayException("Cannot cancel booking for " + id + " (" + plateNumber + "): Booking start date is today or has passed.");
+        }
+        removeBooking(booking);
+        System.out.println("Booking " + booking.getBookingId() + " for " + id + " (" + plateNumber + ") from " + booking.getStartDate().toGMTString() + " to " + booking.getEndDate().toGMTString() + " has been cancelled.");
+    }
+
+    public boolean hasBooking(Booking booking) {
+        return booking != null && indexOfBooking(booking) >= 0;
+    }
+
+    // Binary search on the start-date order, then an identity match among bookings starting at the same time.
+    private int indexOfBooking(Booking booking) {
+        long start = booking.getStartDate().getTime();
+        int lo = 0, hi = bookings.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (bookings.get(mid).getStartDate().getTime() < start) lo = mid + 1;
+            else hi = mid;
+        }
+        for (int i = lo; i < bookings.size() && bookings.get(i).getStartDate().getTime() == start; i++) {
+            if (bookings.get(i) == booking) return i;
+        }
+        return -1;
+    }
+
+    private void removeBooking(Booking booking) {
+        int i = indexOfBooking(booking);
+        if (i >= 0) bookings.remove(i);
+    }
+
     public void rentMe(Date startDate, Date endDate, String deliveryLocation, String dropOffLocation) throws SorryWeDontHaveThatOneException, InvalidDateException {
-        boolean wasBooked = false;
+        rentMe(startDate, endDate, deliveryLocation, dropOffLocation, null);
+    }
+
+    public void rentMe(Date startDate, Date endDate, String deliveryLocation, String dropOffLocation, String customerId) throws SorryWeDontHaveThatOneException, InvalidDateException {
         Booking matchingBooking = null;
         for(Booking b : bookings) {
             if(b.getStartDate().equals(startDate) && b.getEndDate().equals(endDate)) {
                 matchingBooking = b;
-                wasBooked = true;
                 break;
             }
         }
-        if (!isAvailable(startDate, endDate) && !wasBooked) {
+        if (matchingBooking == null && !isAvailable(startDate, endDate)) {
             throw new SorryWeDontHaveThatOneException("Vehicle " + id + " (" + plateNumber + ") is not available for rental from " + startDate.toGMTString() + " to " + endDate.toGMTString() + ".");
         }
-        if (deliveryLocation != null && !deliveryLocation.trim().isEmpty() && !isRemoteDeliverable()) {
-            throw new SorryWeDontHaveThatOneException("Vehicle " + id + " (" + plateNumber + ", " + getClass().getSimpleName() + ") cannot be remotely delivered.");
+        startRental(startDate, endDate, deliveryLocation, dropOffLocation, customerId, matchingBooking);
+    }
+
+    // Rents out the exact booking that was reserved; no date matching involved.
+    public void rentMe(Booking booking, String deliveryLocation, String dropOffLocation, String customerId) throws SorryWeDontHaveThatOneException, InvalidDateException {
+        if (booking == null || !hasBooking(booking)) {
+            throw new InvalidDateException("No matching booking found to rent for vehicle " + id + " (" + plateNumber + ").");
+        }
+        rentBooked(booking, deliveryLocation, dropOffLocation, customerId);
+    }
+
+    // For callers that already know the booking is on this calendar (the park checks its booking index).
+    void rentBooked(Booking booking, String deliveryLocation, String dropOffLocation, String customerId) throws SorryWeDontHaveThatOneException {
+        startRental(booking.getStartDate(), booking.getEndDate(), deliveryLocation, dropOffLocation, customerId, booking);
+    }
+
+    private void startRental(Date startDate, Date endDate, String deliveryLocation, String dropOffLocation, String customerId, Booking matchingBooking) throws SorryWeDontHaveThatOneException {
+        if (isRented) {
+            throw new SorryWeDontHaveThatOneException("Vehicle " + id + " (" + plateNumber + ") has not been returned from its current rental yet.");
+        }
+        if (matchingBooking != null && customerId != null && !matchingBooking.isOwnedBy(customerId)) {
+            throw new SorryWeDontHaveThatOneException("Vehicle " + id + " (" + plateNumber + ") is reserved by another customer from " + startDate.toGMTString() + " to " + endDate.toGMTString() + ".");
         }
-        if (dropOffLocation != null && !dropOffLocation.trim().isEmpty() && !isRemoteDroppable()) {
-            throw new SorryWeDontHaveThatOneException("Vehicle " + id + " (" + plateNumber + ", " + getClass().getSimpleName() + ") cannot be remotely dropped off.");
+        boolean delivery = deliveryLocation != null && !deliveryLocation.trim().isEmpty();
+        boolean dropOff = dropOffLocation != null && !dropOffLocation.trim().isEmpty();
+        String violation = BookingPolicy.current().checkRental(policyRow(), startDate.getTime(), endDate.getTime(), delivery, dropOff);
+        if (violation != null) {
+            throw new SorryWeDontHaveThatOneException("Vehicle " + id + " (" + plateNumber + ", " + getClass().getSimpleName() + ") " + violation);
         }
         this.isRented = true;
-        this.currentRentalPeriod = new Booking(startDate, endDate);
+        if (matchingBooking != null && (customerId == null || customerId.equals(matchingBooking.getCustomerId()))) {
+            this.currentRentalPeriod = matchingBooking; // the rental keeps the booking's ID
+        } else {
+            this.currentRentalPeriod = new Booking(startDate, endDate, id, customerId != null ? customerId : (matchingBooking != null ? matchingBooking.getCustomerId() : null));
+        }
         if (matchingBooking != null) {
-            bookings.remove(matchingBooking);
-            System.out.println("Existing booking for " + id + " (" + plateNumber + ") converted to rental.");
+            removeBooking(matchingBooking);
+            System.out.println("Existing booking " + matchingBooking.getBookingId() + " for " + id + " (" + plateNumber + ") converted to rental.");
         }
         System.out.println("Vehicle " + id + " (" + plateNumber + ") successfully rented from " + startDate.toGMTString() + " to " + endDate.toGMTString() + ".");
-        if (isRemoteDeliverable() && deliveryLocation != null && !deliveryLocation.trim().isEmpty()) {
+        if (delivery) {
             System.out.println("To be delivered to: " + deliveryLocation);
         }
-        if (isRemoteDroppable() && dropOffLocation != null && !dropOffLocation.trim().isEmpty()) {
+        if (dropOff) {
             System.out.println("To be dropped off at: " + dropOffLocation);
         }
     }
@@ -152,19 +342,58 @@ public abstract class Vehicle implements Serializable {
         if (!isRented || currentRentalPeriod == null) {
             throw new InvalidDateException("Vehicle " + id + " (" + plateNumber + ") cannot be dropped off as it is not currently rented.");
         }
-        long rentalDurationMillis = currentRentalPeriod.getEndDate().getTime() - currentRentalPeriod.getStartDate().getTime();
-        int numberOfDays = (int) Math.max(1, TimeUnit.MILLISECONDS.toDays(rentalDurationMillis));
-        if (numberOfDays == 0 && rentalDurationMillis > 0) numberOfDays = 1;
+        int numberOfDays = billableDays(currentRentalPeriod.getStartDate(), currentRentalPeriod.getEndDate());
 
         double totalFee = getTotalFee(numberOfDays);
         System.out.println("Vehicle " + id + " (" + plateNumber + ") dropped off. Rental period: " +
                            currentRentalPeriod.getStartDate().toGMTString() + " to " + currentRentalPeriod.getEndDate().toGMTString() + " (" + numberOfDays + " days).");
         System.out.println("Total fee: $" + String.format("%.2f", totalFee));
         this.isRented = false;
+        this.isOverdue = false;
         this.currentRentalPeriod = null;
+        this.currentLoad = 0;
+        if (relocating) {
+            this.location = returnLocation;
+            this.relocating = false;
+            this.returnLocation = null;
+        }
         return totalFee;
     }
 
+    // Removes and returns bookings that ended before the horizon; used by history compaction.
+    public List<Booking> removeBookingsEndingBefore(Date horizon) {
+        List<Booking> expired = new ArrayList<>();
+        for (Iterator<Booking> it = bookings.iterator(); it.hasNext(); ) {
+            Booking booking = it.next();
+            if (booking.getEndDate() != null && booking.getEndDate().before(horizon)) {
+                expired.add(booking);
+                it.remove();
+            }
+        }
+        return expired;
+    }
+
+    void restoreBooking(Booking booking) {
+        insertBooking(booking);
+    }
+
+    // Bookings are kept ordered by start date so calendar walks need a single pass.
+    private void insertBooking(Booking booking) {
+        int i = bookings.size();
+        while (i > 0 && bookings.get(i - 1).getStartDate().after(booking.getStartDate())) i--;
+        bookings.add(i, booking);
+    }
+
+    // Restores start-date order for calendars loaded from data saved before bookings were kept sorted.
+    void sortBookings() {
+        bookings.sort(Comparator.comparing(Booking::getStartDate));
+    }
+
+    // How far ahead of its start a booking must be made, per the booking policy.
+    public long getMinimumLeadTimeMillis() {
+        return BookingPolicy.current().getMinimumLeadTimeMillis(policyRow());
+    }
+
     public void loadMe(double additionalLoad) throws OverWeightException {
         throw new UnsupportedOperationException("Vehicle type " + this.getClass().getSimpleName() + " ("+id+") does not support loading cargo.");
     }
@@ -173,19 +402,68 @@ public abstract class Vehicle implements Serializable {
         return 0;
     }
 
+    public double getCurrentLoad() { return currentLoad; }
+    public double getRemainingCapacity() { return Math.max(0, getLoadingCapacity() - currentLoad); }
+
+    // Puts cargo on board; callers have already checked it fits.
+    void addLoad(double load) { this.currentLoad += load; }
+
     @Override
     public String toString() {
         return "Vehicle Type: " + this.getClass().getSimpleName() +
                "\n  ID: " + id +
                "\n  Plate Number: " + plateNumber +
-               "\n  Brand: " + brand +
-               "\n  Model: " + model +
+               "\n  Brand: " + getBrand() +
+               "\n  Model: " + getModel() +
                "\n  Number of Tires: " + numberOfTires +
                "\n  Daily Fee: $" + String.format("%.2f", dailyFee) +
-               "\n  Rented: " + (isRented ? "Yes (Until: " + (currentRentalPeriod != null ? currentRentalPeriod.getEndDate().toGMTString() : "N/A") + ")" : "No") +
+               "\n  Rented: " + (isRented ? "Yes (Until: " + (currentRentalPeriod != null ? currentRentalPeriod.getEndDate().toGMTString() : "N/A") + ")" + (isOverdue ? " OVERDUE" : "") : "No") +
                "\n  Bookings: " + (bookings.isEmpty() ? "None" : bookings.size() + " active booking(s)") +
-               "\n  Remote Deliverable: " + isRemoteDeliverable +
-               "\n  Remote Droppable: " + isRemoteDroppable;
+               "\n  Remote Deliverable: " + isRemoteDeliverable() +
+               "\n  Remote Droppable: " + isRemoteDroppable() +
+               "\n  Location: " + (location != null ? location : "Unknown") +
+               (relocating ? " (returning to " + (returnLocation != null ? returnLocation : "an unknown location") + ")" : "");
+    }
+
+    // Codes are process-local, so the strings go into the stream. They are the dictionary's shared
+    // instances, which the stream writes once and back-references for every other vehicle.
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("id", id);
+        fields.put("plateNumber", plateNumber);
+        fields.put("brand", getBrand());
+        fields.put("model", getModel());
+        fields.put("numberOfTires", numberOfTires);
+        fields.put("dailyFee", dailyFee);
+        fields.put("isRented", isRented);
+        fields.put("isOverdue", isOverdue);
+        fields.put("currentRentalPeriod", currentRentalPeriod);
+        fields.put("bookings", bookings);
+        fields.put("currentLoad", currentLoad);
+        fields.put("location", location);
+        fields.put("relocating", relocating);
+        fields.put("returnLocation", returnLocation);
+        out.writeFields();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        this.id = (String) fields.get("id", null);
+        this.plateNumber = (String) fields.get("plateNumber", null);
+        this.brandCode = AttributeDictionary.encode((String) fields.get("brand", null));
+        this.modelCode = AttributeDictionary.encode((String) fields.get("model", null));
+        this.numberOfTires = fields.get("numberOfTires", 0);
+        this.dailyFee = fields.get("dailyFee", 0.0);
+        this.isRented = fields.get("isRented", false);
+        this.isOverdue = fields.get("isOverdue", false);
+        this.currentRentalPeriod = (Booking) fields.get("currentRentalPeriod", null);
+        this.bookings = (List<Booking>) fields.get("bookings", null);
+        if (this.bookings == null) this.bookings = new ArrayList<>();
+        this.currentLoad = fields.get("currentLoad", 0.0);
+        this.location = (GeoPoint) fields.get("location", null);
+        this.relocating = fields.get("relocating", false);
+        this.returnLocation = (GeoPoint) fields.get("returnLocation", null);
     }
 
     @Override
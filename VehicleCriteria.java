@@ -0,0 +1,45 @@
+// Attribute filters for VehiclePark.searchVehicles. Every field left null matches any vehicle;
+// attributes a vehicle type does not have (e.g. horsepower on a truck) never match a set filter.
+public class VehicleCriteria {
+    private String type;             // class name, or "Car" / "Truck"
+    private String color;
+    private Integer minSeatingCapacity;
+    private Integer maxSeatingCapacity;
+    private Integer numOfDoors;
+    private String wheelDriveType;
+    private Integer minHorsePower;
+    private Integer maxHorsePower;
+    private Double minLoadingCapacity;
+    private Double maxLoadingCapacity;
+    private Boolean goesAbroad;
+    private Boolean remoteDeliverable;
+    private Boolean remoteDroppable;
+
+    public String getType() { return type; }
+    public String getColor() { return color; }
+    public Integer getMinSeatingCapacity() { return minSeatingCapacity; }
+    public Integer getMaxSeatingCapacity() { return maxSeatingCapacity; }
+    public Integer getNumOfDoors() { return numOfDoors; }
+    public String getWheelDriveType() { return wheelDriveType; }
+    public Integer getMinHorsePower() { return minHorsePower; }
+    public Integer getMaxHorsePower() { return maxHorsePower; }
+    public Double getMinLoadingCapacity() { return minLoadingCapacity; }
+    public Double getMaxLoadingCapacity() { return maxLoadingCapacity; }
+    public Boolean getGoesAbroad() { return goesAbroad; }
+    public Boolean getRemoteDeliverable() { return remoteDeliverable; }
+    public Boolean getRemoteDroppable() { return remoteDroppable; }
+
+    public void setType(String type) { this.type = type; }
+    public void setColor(String color) { this.color = color; }
+    public void setMinSeatingCapacity(Integer minSeatingCapacity) { this.minSeatingCapacity = minSeatingCapacity; }
+    public void setMaxSeatingCapacity(Integer maxSeatingCapacity) { this.maxSeatingCapacity = maxSeatingCapacity; }
+    public void setNumOfDoors(Integer numOfDoors) { this.numOfDoors = numOfDoors; }
+    public void setWheelDriveType(String wheelDriveType) { this.wheelDriveType = wheelDriveType; }
+    public void setMinHorsePower(Integer minHorsePower) { this.minHorsePower = minHorsePower; }
+    public void setMaxHorsePower(Integer maxHorsePower) { this.maxHorsePower = maxHorsePower; }
+    public void setMinLoadingCapacity(Double minLoadingCapacity) { this.minLoadingCapacity = minLoadingCapacity; }
+    public void setMaxLoadingCapacity(Double maxLoadingCapacity) { this.maxLoadingCapacity = maxLoadingCapacity; }
+    public void setGoesAbroad(Boolean goesAbroad) { this.goesAbroad = goesAbroad; }
+    public void setRemoteDeliverable(Boolean remoteDeliverable) { this.remoteDeliverable = remoteDeliverable; }
+    public void setRemoteDroppable(Boolean remoteDroppable) { this.remoteDroppable = remoteDroppable; }
+}
@@ -1,27 +1,361 @@
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.PrintWriter;
 import java.io.Serializable;
 import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
-public class VehiclePark implements Serializable {
+public class VehiclePark implements ParkShard, Serializable {
     private static final long serialVersionUID = 1L;
+    private static final int CHANGE_LOG_CAPACITY = 4096;
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_HEATMAP_DAYS = 3660;
+    static final int EVENT_BUFFER_CAPACITY = 8192; // events kept for replay
 
     private List<Vehicle> allVehicles;
     private List<Customer> registeredCustomers;
+    private List<HistoryRecord> completedRentals; // waiting for the compactor to archive them
+    private Waitlist waitlist; // booking requests waiting for a vehicle to free up
+    private RevenueLedger revenueLedger; // every completed rental, with daily and monthly rollups
+    private Map<String, Depot> depots; // depotKey(name) -> depot, in the order they were added
+    private transient List<Consumer<WaitlistRequest>> waitlistListeners;
+    private long lastEventSequence; // saved with the park so event numbering carries on after a load
+    private transient FleetEventFeed eventFeed;
+    private transient ExecutorService eventDelivery;
+
+    private transient BookingHistoryStore historyStore;
+    private transient ScheduledExecutorService historyCompactor;
+
+    // Calendar event scheduling: booking start, rental end and grace-period expiry per vehicle.
+    private transient TimingWheel timingWheel;
+    private transient ScheduledExecutorService schedulerTicker;
+    private transient long gracePeriodMillis;
+    private transient Map<Vehicle, VehicleTimers> vehicleTimers;
+
+    private static final class VehicleTimers {
+        private final Map<Booking, TimingWheel.Timeout> bookingStarts = new IdentityHashMap<>();
+        private Booking rental;
+        private final List<TimingWheel.Timeout> rentalTimeouts = new ArrayList<>();
+
+        void cancelAll() {
+            for (TimingWheel.Timeout t : bookingStarts.values()) t.cancel();
+            bookingStarts.clear();
+            cancelRental();
+        }
+
+        void cancelRental() {
+            for (TimingWheel.Timeout t : rentalTimeouts) t.cancel();
+            rentalTimeouts.clear();
+            rental = null;
+        }
+    }
+
+    // Published read state. Writers build the next version by path-copying the
+    // persistent vectors; readers grab the volatile snapshot and never lock or copy.
+    // Both vectors are indexed by the numeric suffix of the entity's ID.
+    private transient PersistentVector<VehicleView> vehicleViews;
+    private transient PersistentVector<Customer> customerViews;
+    private transient int publishedVehicleCount;
+    private transient int publishedCustomerCount;
+    private transient long version;
+    private transient long compositionVersion;
+    private transient long locationVersion;
+    private transient volatile FleetSnapshot snapshot;
+    private transient volatile QuoteEngine quoteEngine; // rebuilt lazily when the fleet or pricing changes
+    private transient volatile FeeIndex feeIndex;
+    private transient volatile AttributeIndex attributeIndex;
+    private transient volatile SubstituteIndex substituteIndex;
+    private transient volatile UtilizationIndex utilizationIndex;
+    private transient volatile SpatialIndex spatialIndex;
+
+    // Cached availability results, patched from the log of vehicles changed since they were computed.
+    private transient AvailabilityCache availabilityCache;
+    private transient AvailabilityCache.ChangeLog changeLog;
+
+    // Customer ID -> that customer's bookings and active rentals; booking ID -> booking (which names its vehicle).
+    // Keyed by the IDs' numeric suffixes, parsed once when a request comes in.
+    private transient EntityTable<Set<Booking>> reservationsByCustomer;
+    private transient EntityTable<Booking> bookingsById;
+    private transient EntityTable<long[]> completedRentalPeriods; // vehicle slot -> {start, end} pairs; see viewOf
 
     public VehiclePark() {
         this.allVehicles = new ArrayList<>();
         this.registeredCustomers = new ArrayList<>();
+        this.completedRentals = new ArrayList<>();
+        this.waitlist = new Waitlist();
+        this.revenueLedger = new RevenueLedger();
+        this.depots = new LinkedHashMap<>();
+        rebuildSnapshot();
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        lastEventSequence = eventFeed.getLastSequence();
+        out.defaultWriteObject();
+    }
+
+    // Vehicles save their attributes as strings and re-encode them as they load, so no dictionary codes
+    // are saved. Saves that still carry a dictionary after the park fields have it skipped here.
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (completedRentals == null) completedRentals = new ArrayList<>(); // data saved before history existed
+        if (waitlist == null) waitlist = new Waitlist(); // data saved before the waitlist existed
+        if (revenueLedger == null) revenueLedger = new RevenueLedger(); // data saved before the ledger existed
+        if (depots == null) depots = new LinkedHashMap<>(); // data saved before vehicles had locations
+        Map<String, Depot> rekeyed = new LinkedHashMap<>(); // keys may have been lower-cased in another locale
+        for (Depot depot : depots.values()) rekeyed.put(depotKey(depot.getName()), depot);
+        depots = rekeyed;
+        rebuildSnapshot();
+    }
+
+    // --- Snapshot Publication ---
+    public FleetSnapshot getSnapshot() { return snapshot; }
+
+    private synchronized void rebuildSnapshot() {
+        this.vehicleViews = PersistentVector.empty();
+        this.customerViews = PersistentVector.empty();
+        this.publishedVehicleCount = 0;
+        this.publishedCustomerCount = 0;
+        this.compositionVersion++;
+        this.locationVersion++;
+        this.reservationsByCustomer = new EntityTable<>();
+        this.bookingsById = new EntityTable<>();
+        loadCompletedRentalPeriods();
+        long maxBookingSuffix = 0;
+        long maxVehicleSuffix = 0;
+        long maxCustomerSuffix = 0;
+        List<Vehicle> vehiclesById = new ArrayList<>(allVehicles); // in ID order, so each slot lands close to the last
+        vehiclesById.sort(Comparator.comparing(Vehicle::getId, Vehicle.ID_ORDER));
+        for (Vehicle v : vehiclesById) {
+            int slot = EntityTable.slotOf(v.getId(), Vehicle.ID_PREFIX);
+            if (slot < 0) {
+                System.err.println("Warning: Skipping vehicle with malformed ID " + v.getId() + ".");
+                continue;
+            }
+            if (!fitsAfter(slot, vehicleViews)) {
+                System.err.println("Warning: Skipping vehicle " + v.getId() + ". Its ID is too far past the highest one in use.");
+                continue;
+            }
+            maxVehicleSuffix = Math.max(maxVehicleSuffix, slot);
+            v.sortBookings();
+            List<Booking> calendar = v.getBookings();
+            if (v.isRented() && v.getCurrentRentalPeriod() != null) calendar.add(v.getCurrentRentalPeriod());
+            for (Booking b : calendar) {
+                b.restoreIdentity(v.getId());
+                maxBookingSuffix = Math.max(maxBookingSuffix, parseIdSuffix(b.getBookingId(), Booking.ID_PREFIX));
+                indexReservation(b);
+            }
+            v.setOwner(this);
+            vehicleViews = vehicleViews.put(slot, viewOf(v));
+            publishedVehicleCount++;
+        }
+        List<Customer> customersById = new ArrayList<>(registeredCustomers);
+        customersById.sort(Comparator.comparing(Customer::getCustomerId, Vehicle.ID_ORDER));
+        for (Customer c : customersById) {
+            int slot = EntityTable.slotOf(c.getCustomerId(), Customer.ID_PREFIX);
+            if (slot < 0) {
+                System.err.println("Warning: Skipping customer with malformed ID " + c.getCustomerId() + ".");
+                continue;
+            }
+            if (!fitsAfter(slot, customerViews)) {
+                System.err.println("Warning: Skipping customer " + c.getCustomerId() + ". Its ID is too far past the highest one in use.");
+                continue;
+            }
+            maxCustomerSuffix = Math.max(maxCustomerSuffix, slot);
+            customerViews = customerViews.put(slot, c);
+            publishedCustomerCount++;
+        }
+        // Loaded entities keep their IDs, so new ones must be numbered after them.
+        Booking.updateNextIdSuffix(maxBookingSuffix);
+        Vehicle.raiseNextIdSuffix(maxVehicleSuffix);
+        Customer.raiseNextIdSuffix(maxCustomerSuffix);
+        WaitlistRequest.raiseNextIdSuffix(waitlist.highestIdSuffix());
+        if (waitlistListeners == null) waitlistListeners = new CopyOnWriteArrayList<>();
+        if (eventFeed == null) {
+            eventDelivery = Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "vpark-events");
+                t.setDaemon(true);
+                return t;
+            });
+            eventFeed = new FleetEventFeed(EVENT_BUFFER_CAPACITY, eventDelivery, lastEventSequence);
+        }
+        if (availabilityCache == null) {
+            availabilityCache = new AvailabilityCache();
+            changeLog = new AvailabilityCache.ChangeLog(CHANGE_LOG_CAPACITY);
+        }
+        availabilityCache.clear();
+        changeLog.reset(version + 1);
+        publish();
+    }
+
+    private VehicleView viewOf(Vehicle vehicle) {
+        return new VehicleView(vehicle, completedRentalPeriods.get(EntityTable.slotOf(vehicle.getId(), Vehicle.ID_PREFIX)));
+    }
+
+    // Finished rentals per vehicle slot, from the revenue ledger, which keeps every one of them.
+    private void loadCompletedRentalPeriods() {
+        Map<Integer, List<HistoryRecord>> bySlot = new HashMap<>();
+        revenueLedger.forEachEntry(Long.MIN_VALUE, Long.MAX_VALUE, r -> {
+            int slot = EntityTable.slotOf(r.getVehicleId(), Vehicle.ID_PREFIX);
+            if (slot >= 0) bySlot.computeIfAbsent(slot, k -> new ArrayList<>()).add(r);
+        });
+        completedRentalPeriods = new EntityTable<>();
+        for (Map.Entry<Integer, List<HistoryRecord>> e : bySlot.entrySet()) {
+            long[] periods = new long[2 * e.getValue().size()];
+            int i = 0;
+            for (HistoryRecord r : e.getValue()) {
+                periods[i++] = r.getStartDate().getTime();
+                periods[i++] = r.getEndDate().getTime();
+            }
+            completedRentalPeriods.put(e.getKey(), periods);
+        }
+    }
+
+    // Copy-on-write: views published earlier keep the array they were given.
+    private void addCompletedRentalPeriod(Vehicle vehicle, Booking rentalPeriod) {
+        int slot = EntityTable.slotOf(vehicle.getId(), Vehicle.ID_PREFIX);
+        long[] periods = completedRentalPeriods.get(slot);
+        int n = periods == null ? 0 : periods.length;
+        long[] grown = periods == null ? new long[2] : Arrays.copyOf(periods, n + 2);
+        grown[n] = rentalPeriod.getStartDate().getTime();
+        grown[n + 1] = rentalPeriod.getEndDate().getTime();
+        completedRentalPeriods.put(slot, grown);
+    }
+
+    // Must be called (under the park lock) after every change to a vehicle's calendar or status.
+    private void publishVehicle(Vehicle vehicle) {
+        syncTimers(vehicle);
+        int slot = EntityTable.slotOf(vehicle.getId(), Vehicle.ID_PREFIX);
+        VehicleView previous = slot < vehicleViews.size() ? vehicleViews.get(slot) : null;
+        VehicleView view = viewOf(vehicle);
+        vehicleViews = vehicleViews.put(slot, view);
+        if (previous == null) {
+            publishedVehicleCount++;
+            compositionVersion++;
+        }
+        if (previous == null || !Objects.equals(previous.getLocation(), view.getLocation())) locationVersion++;
+        changeLog.record(version + 1, vehicle.getId());
+        publish();
+    }
+
+    // Called by the setters of a listed vehicle (Vehicle.viewChanged).
+    synchronized void republishVehicle(Vehicle vehicle) {
+        int slot = EntityTable.slotOf(vehicle.getId(), Vehicle.ID_PREFIX);
+        VehicleView current = slot >= 0 && slot < vehicleViews.size() ? vehicleViews.get(slot) : null;
+        if (current != null && current.getVehicle() == vehicle) publishVehicle(vehicle);
+    }
+
+    private void unpublishVehicle(Vehicle vehicle) {
+        if (vehicleTimers != null) {
+            VehicleTimers vt = vehicleTimers.remove(vehicle);
+            if (vt != null) vt.cancelAll();
+        }
+        int slot = EntityTable.slotOf(vehicle.getId(), Vehicle.ID_PREFIX);
+        if (slot >= 0 && slot < vehicleViews.size() && vehicleViews.get(slot) != null) {
+            vehicleViews = vehicleViews.set(slot, null);
+            publishedVehicleCount--;
+            compositionVersion++;
+            locationVersion++;
+            changeLog.record(version + 1, vehicle.getId());
+            publish();
+        }
+    }
+
+    private void indexReservation(Booking booking) {
+        if (booking == null) return;
+        int bookingSlot = EntityTable.slotOf(booking.getBookingId(), Booking.ID_PREFIX);
+        if (bookingSlot >= 0) bookingsById.put(bookingSlot, booking);
+        int customerSlot = EntityTable.slotOf(booking.getCustomerId(), Customer.ID_PREFIX);
+        if (customerSlot < 0) return;
+        Set<Booking> reservations = reservationsByCustomer.get(customerSlot);
+        if (reservations == null) {
+            reservations = Collections.newSetFromMap(new IdentityHashMap<>());
+            reservationsByCustomer.put(customerSlot, reservations);
+        }
+        reservations.add(booking);
+    }
+
+    private void unindexReservation(Booking booking) {
+        if (booking == null) return;
+        int bookingSlot = EntityTable.slotOf(booking.getBookingId(), Booking.ID_PREFIX);
+        if (bookingsById.get(bookingSlot) == booking) bookingsById.remove(bookingSlot);
+        int customerSlot = EntityTable.slotOf(booking.getCustomerId(), Customer.ID_PREFIX);
+        Set<Booking> reservations = reservationsByCustomer.get(customerSlot);
+        if (reservations != null) {
+            reservations.remove(booking);
+            if (reservations.isEmpty()) reservationsByCustomer.remove(customerSlot);
+        }
+    }
+
+    static long parseIdSuffix(String id, String prefix) {
+        if (id == null || !id.startsWith(prefix)) return -1;
+        try {
+            return Long.parseLong(id, prefix.length(), id.length(), 10); // no substring allocation
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Day number (days since 1970-01-01) of an instant in the local time zone, matching how dates are entered.
+    static long localEpochDay(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+    }
+
+    private static Booking findBooking(Vehicle vehicle, Date startDate, Date endDate) {
+        for (Booking b : vehicle.getBookingsView()) {
+            if (b.getStartDate().equals(startDate) && b.getEndDate().equals(endDate)) return b;
+        }
+        return null;
+    }
+
+    // Sequential IDs always fit; this keeps an ID from foreign data from stretching the published range.
+    private static boolean fitsAfter(int slot, PersistentVector<?> views) {
+        return slot >= 0 && slot - views.size() <= EntityTable.MAX_SLOT_GAP;
+    }
+
+    private void publishCustomer(Customer customer) {
+        customerViews = customerViews.put(EntityTable.slotOf(customer.getCustomerId(), Customer.ID_PREFIX), customer);
+        publishedCustomerCount++;
+        publish();
+    }
+
+    private void publish() {
+        this.snapshot = new FleetSnapshot(++version, vehicleViews, publishedVehicleCount, customerViews, publishedCustomerCount, compositionVersion, locationVersion);
     }
 
     // --- Vehicle Management Methods ---
-    public boolean addVehicle(Vehicle vehicle) {
+    public synchronized boolean addVehicle(Vehicle vehicle) {
         if (vehicle == null) {
             System.err.println("Error: Cannot add a null vehicle.");
             return false;
@@ -36,12 +370,20 @@ public class VehiclePark implements Serializable {
              System.err.println("Error: Vehicle with ID " + vehicle.getId() + " already exists (ID collision!). This should not happen with sequential IDs.");
              return false;
         }
+        if (!fitsAfter(EntityTable.slotOf(vehicle.getId(), Vehicle.ID_PREFIX), vehicleViews)) {
+            System.err.println("Error: Vehicle ID " + vehicle.getId() + " is malformed or too far past the highest one in use.");
+            return false;
+        }
         this.allVehicles.add(vehicle);
+        vehicle.setOwner(this);
+        publishVehicle(vehicle);
+        eventFeed.append(FleetEvent.Type.VEHICLE_ADDED, vehicle, null, 0);
         System.out.println("Vehicle added successfully: ID=" + vehicle.getId() + ", Plate=" + vehicle.getPlateNumber() + " (" + vehicle.getClass().getSimpleName() + ")");
+        offerToWaitlist(vehicle, waitlist.typeCandidatesFor(vehicle));
         return true;
     }
 
-    public boolean removeVehicle(String vehicleId) {
+    public synchronized boolean removeVehicle(String vehicleId) {
         if (vehicleId == null || vehicleId.trim().isEmpty()) {
             System.err.println("Error: Vehicle ID cannot be null or empty for removal.");
             return false;
@@ -53,12 +395,18 @@ public class VehiclePark implements Serializable {
                 System.err.println("Error: Cannot remove vehicle " + vehicleId + ". It is currently rented.");
                 return false;
             }
-            if (!vehicleToRemove.getBookings().isEmpty()) {
-                 System.err.println("Warning: Vehicle " + vehicleId + " has active bookings. These bookings will remain associated with a removed vehicle if not handled.");
-                 // For a real system, you might want to prevent removal or auto-cancel bookings.
+            if (vehicleToRemove.hasBookings()) { // customers must cancel them first, so no reservation vanishes unannounced
+                System.err.println("Error: Cannot remove vehicle " + vehicleId + ". It still has bookings.");
+                return false;
             }
             this.allVehicles.remove(vehicleToRemove);
+            vehicleToRemove.setOwner(null);
+            unpublishVehicle(vehicleToRemove);
+            eventFeed.append(FleetEvent.Type.VEHICLE_REMOVED, vehicleToRemove, null, 0);
             System.out.println("Vehicle removed successfully: " + vehicleToRemove.getPlateNumber() + " (ID: " + vehicleId + ")");
+            for (WaitlistRequest r : waitlist.requestsForVehicle(vehicleToRemove.getId())) {
+                closeWaitlistRequest(r, WaitlistRequest.Status.CANCELLED, "vehicle removed from the fleet");
+            }
             return true;
         } else {
             System.err.println("Error: Vehicle with ID " + vehicleId + " not found for removal.");
@@ -67,81 +415,123 @@ public class VehiclePark implements Serializable {
     }
 
     public Optional<Vehicle> findVehicleById(String vehicleId) {
-        if (vehicleId == null || vehicleId.trim().isEmpty()) return Optional.empty();
-        for (Vehicle v : allVehicles) {
-            if (v.getId().equals(vehicleId.trim())) {
-                return Optional.of(v);
-            }
-        }
-        return Optional.empty();
+        return snapshot.findVehicle(vehicleId).map(VehicleView::getVehicle);
     }
 
     public Optional<Vehicle> findVehicleByPlateNumber(String plateNumber) {
         if (plateNumber == null || plateNumber.trim().isEmpty()) return Optional.empty();
-        for (Vehicle v : allVehicles) {
-            if (v.getPlateNumber().equalsIgnoreCase(plateNumber.trim())) {
-                return Optional.of(v);
+        for (VehicleView view : snapshot.vehicles()) {
+            if (view.getPlateNumber().equalsIgnoreCase(plateNumber.trim())) {
+                return Optional.of(view.getVehicle());
             }
         }
         return Optional.empty();
     }
 
     public void displayAllVehicles() {
-        if (allVehicles.isEmpty()) {
+        FleetSnapshot current = snapshot;
+        if (!current.hasVehicles()) {
             System.out.println("No vehicles currently in the system.");
             return;
         }
         System.out.println("\n--- All Vehicles in VPark ---");
-        for (Vehicle v : allVehicles) {
+        Date now = new Date();
+        // Check for immediate availability (e.g., within the next hour to avoid date precision issues)
+        Date soon = new Date(now.getTime() + 1 * 60 * 1000); // 1 minute from now
+        for (VehicleView v : current.vehicles()) {
             System.out.println("------------------------------");
-            System.out.println(v.toString());
-            String availabilityStatus;
-            try {
-                Date now = new Date();
-                // Check for immediate availability (e.g., within the next hour to avoid date precision issues)
-                Date soon = new Date(now.getTime() + 1 * 60 * 1000); // 1 minute from now
-                availabilityStatus = v.isAvailable(now, soon) ? "Available Now" : "Not Available Now";
-            } catch (InvalidDateException e) {
-                availabilityStatus = "Availability Unknown (Error: " + e.getMessage() + ")";
-            }
-            System.out.println("  Current Status: " + (v.isRented() ? "Rented" : availabilityStatus));
+            System.out.println(v.getDescription());
+            System.out.println("  Current Status: " + new VehicleRow(v, now, soon).getStatus());
+        }
+        System.out.println("------------------------------");
+    }
+
+    // --- Paginated Listings ---
+    // A null or empty cursor starts from the first vehicle; a null or empty type matches every vehicle.
+    public Page<VehicleRow> listVehicles(String cursor, int pageSize, String vehicleTypeClassName) {
+        int fromSlot = pageStart(cursor, Vehicle.ID_PREFIX, pageSize);
+        if (fromSlot < 0) return Page.empty();
+        String type = vehicleTypeClassName == null ? "" : vehicleTypeClassName.trim();
+        Page<VehicleView> views = snapshot.vehiclePage(fromSlot, pageSize,
+                type.isEmpty() ? null : v -> matchesType(v.getVehicle(), type));
+        Date now = new Date();
+        Date soon = new Date(now.getTime() + 1 * 60 * 1000);
+        List<VehicleRow> rows = new ArrayList<>(views.size());
+        for (VehicleView v : views.getItems()) rows.add(new VehicleRow(v, now, soon));
+        return new Page<>(rows, views.getNextCursor());
+    }
+
+    public Page<Customer> listCustomers(String cursor, int pageSize) {
+        int fromSlot = pageStart(cursor, Customer.ID_PREFIX, pageSize);
+        if (fromSlot < 0) return Page.empty();
+        return snapshot.customerPage(fromSlot, pageSize);
+    }
+
+    // First slot after the cursor, or -1 if the request is invalid.
+    private static int pageStart(String cursor, String prefix, int pageSize) {
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            System.err.println("Error: Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+            return -1;
+        }
+        if (cursor == null || cursor.trim().isEmpty()) return 0;
+        int slot = EntityTable.slotOf(cursor.trim(), prefix);
+        if (slot < 0) {
+            System.err.println("Error: Invalid page cursor '" + cursor + "'.");
+            return -1;
+        }
+        return slot + 1;
+    }
+
+    // Prints one page and returns the cursor for the next one (null when there is nothing more).
+    public String displayVehiclePage(String cursor, int pageSize, String vehicleTypeClassName) {
+        Page<VehicleRow> page = listVehicles(cursor, pageSize, vehicleTypeClassName);
+        if (page.isEmpty()) {
+            System.out.println("No more vehicles to show.");
+            return null;
+        }
+        System.out.println("------------------------------");
+        for (VehicleRow row : page.getItems()) System.out.println(row);
+        System.out.println("------------------------------");
+        return page.getNextCursor();
+    }
+
+    public String displayCustomerPage(String cursor, int pageSize) {
+        Page<Customer> page = listCustomers(cursor, pageSize);
+        if (page.isEmpty()) {
+            System.out.println("No more customers to show.");
+            return null;
+        }
+        for (Customer c : page.getItems()) {
+            System.out.println("------------------------------");
+            System.out.println(c.toString());
         }
         System.out.println("------------------------------");
+        return page.getNextCursor();
     }
 
     public void displayAvailableVehicles(Date startDate, Date endDate) {
-        if (startDate == null || endDate == null || startDate.after(endDate)) {
+        if (startDate == null || endDate == null || !startDate.before(endDate)) {
             System.err.println("Invalid date range provided for displaying available vehicles.");
             return;
         }
         System.out.println("\nSearching for available vehicles from: " + startDate.toGMTString() + " to " + endDate.toGMTString());
-        List<Vehicle> availableVehicles = new ArrayList<>();
-        for (Vehicle v : allVehicles) {
-            try {
-                if (v.isAvailable(startDate, endDate)) {
-                    availableVehicles.add(v);
-                }
-            } catch (InvalidDateException e) {
-                // This exception in v.isAvailable usually means the dates passed to it were bad,
-                // but we checked startDate/endDate already. Could be an internal issue in isAvailable logic.
-                System.err.println("Error checking availability for vehicle " + v.getPlateNumber() + " (ID: " + v.getId() + "): " + e.getMessage());
-            }
-        }
+        List<VehicleView> availableVehicles = new ArrayList<>();
+        forEachAvailable(snapshot, startDate, endDate, null, availableVehicles::add);
 
         if (availableVehicles.isEmpty()) {
             System.out.println("No vehicles available for the period: " + startDate.toGMTString() + " to " + endDate.toGMTString());
             return;
         }
         System.out.println("\n--- Available Vehicles (" + startDate.toGMTString() + " - " + endDate.toGMTString() + ") ---");
-        for (Vehicle v : availableVehicles) {
+        for (VehicleView v : availableVehicles) {
             System.out.println("------------------------------");
-            System.out.println(v.toString());
+            System.out.println(v.getDescription());
         }
         System.out.println("------------------------------");
     }
 
     public void displayAvailableVehicles(Date startDate, Date endDate, String vehicleTypeClassName) {
-        if (startDate == null || endDate == null || startDate.after(endDate)) {
+        if (startDate == null || endDate == null || !startDate.before(endDate)) {
             System.err.println("Invalid date range provided.");
             return;
         }
@@ -150,254 +540,1579 @@ public class VehiclePark implements Serializable {
             return;
         }
         System.out.println("\nSearching for available '" + vehicleTypeClassName + "' vehicles from: " + startDate.toGMTString() + " to " + endDate.toGMTString());
-        List<Vehicle> availableVehiclesOfType = new ArrayList<>();
         String searchType = vehicleTypeClassName.trim();
-
-        for (Vehicle v : allVehicles) {
-            boolean typeMatch = false;
-            // Match against specific class name or general "Car"/"Truck"
-            if (v.getClass().getSimpleName().equalsIgnoreCase(searchType)) {
-                typeMatch = true;
-            } else if (("Car".equalsIgnoreCase(searchType) && v instanceof Car) ||
-                       ("Truck".equalsIgnoreCase(searchType) && v instanceof Truck)) {
-                typeMatch = true;
-            }
-
-            if (typeMatch) {
-                try {
-                    if (v.isAvailable(startDate, endDate)) {
-                        availableVehiclesOfType.add(v);
-                    }
-                } catch (InvalidDateException e) {
-                    System.err.println("Error checking availability for vehicle " + v.getPlateNumber() + " (ID: " + v.getId() + "): " + e.getMessage());
-                }
-            }
-        }
+        List<VehicleView> availableVehiclesOfType = new ArrayList<>();
+        forEachAvailable(snapshot, startDate, endDate, searchType, availableVehiclesOfType::add);
 
         if (availableVehiclesOfType.isEmpty()) {
             System.out.println("No " + searchType + " vehicles available for the period: " + startDate.toGMTString() + " to " + endDate.toGMTString());
             return;
         }
         System.out.println("\n--- Available " + searchType + " Vehicles (" + startDate.toGMTString() + " - " + endDate.toGMTString() + ") ---");
-        for (Vehicle v : availableVehiclesOfType) {
+        for (VehicleView v : availableVehiclesOfType) {
             System.out.println("------------------------------");
-            System.out.println(v.toString());
+            System.out.println(v.getDescription());
         }
         System.out.println("------------------------------");
     }
 
-    // --- Customer Management Methods ---
-    public boolean addCustomer(Customer customer) {
-        if (customer == null) {
-            System.err.println("Error: Cannot add a null customer.");
-            return false;
-        }
-        if (findCustomerById(customer.getCustomerId()).isPresent()){
-           System.err.println("Error: Customer with ID " + customer.getCustomerId() + " already exists (ID collision!). This should not happen with sequential IDs.");
-           return false;
-        }
-        this.registeredCustomers.add(customer);
-        System.out.println("Customer added successfully: " + customer.getName() + " (ID: " + customer.getCustomerId() + ")");
-        return true;
+    // Non-printing search used by shard routing and other callers that need the result list.
+    // A null or empty type matches every vehicle.
+    public List<Vehicle> findAvailableVehicles(Date startDate, Date endDate, String vehicleTypeClassName) {
+        List<Vehicle> result = new ArrayList<>();
+        if (startDate == null || endDate == null || !startDate.before(endDate)) return result;
+        forEachAvailable(snapshot, startDate, endDate, vehicleTypeClassName, v -> result.add(v.getVehicle()));
+        return result;
     }
 
-    public Optional<Customer> findCustomerById(String customerId) {
-        if (customerId == null || customerId.trim().isEmpty()) return Optional.empty();
-        for (Customer c : registeredCustomers) {
-            if (c.getCustomerId().equals(customerId.trim())) {
-                return Optional.of(c);
-            }
+    // Availability searches go through the result cache; IDs are resolved against the same snapshot.
+    private void forEachAvailable(FleetSnapshot current, Date startDate, Date endDate, String vehicleTypeClassName, Consumer<VehicleView> action) {
+        List<String> ids = availabilityCache.availableVehicleIds(current, changeLog, startDate, endDate, vehicleTypeClassName);
+        for (int i = 0; i < ids.size(); i++) {
+            VehicleView view = current.vehicleOrNull(ids.get(i));
+            if (view != null) action.accept(view);
         }
-        return Optional.empty();
     }
 
-    public void displayAllCustomers() {
-        if (registeredCustomers.isEmpty()) {
-            System.out.println("No customers currently registered in the system.");
+    public String getAvailabilityCacheStats() {
+        return availabilityCache.toString();
+    }
+
+    // --- Booking Policy ---
+    // Swaps the process-wide rule table. Fees and remote flags are derived from it, so the fee and
+    // attribute caches are invalidated and every vehicle is republished with its new description.
+    public synchronized void applyBookingPolicy(BookingPolicy policy) {
+        if (policy == null) {
+            System.err.println("Booking policy not applied: no policy given.");
             return;
         }
-        System.out.println("\n--- All Registered Customers ---");
-        for (Customer c : registeredCustomers) {
-            System.out.println("------------------------------");
-            System.out.println(c.toString());
+        BookingPolicy.install(policy);
+        Vehicle.pricingChanged();
+        Vehicle.bumpAttributeEpoch();
+        for (Vehicle v : allVehicles) {
+            vehicleViews = vehicleViews.put(EntityTable.slotOf(v.getId(), Vehicle.ID_PREFIX), viewOf(v));
+            changeLog.record(version + 1, v.getId());
         }
-        System.out.println("------------------------------");
+        publish();
+        System.out.println("Booking policy applied from " + policy.getSource() + ".");
     }
 
-    // --- Booking, Rental, and Other Operations ---
-    public void bookVehicle(String vehicleId, String customerId, Date startDate, Date endDate) {
-        Optional<Customer> customerOpt = findCustomerById(customerId);
-        if (!customerOpt.isPresent()) {
-            System.err.println("Booking failed: Customer with ID " + customerId + " not found.");
-            return;
+    public BookingPolicy getBookingPolicy() {
+        return BookingPolicy.current();
+    }
+
+    // --- Quotes ---
+    private QuoteEngine currentQuoteEngine(FleetSnapshot current) {
+        long epoch = Vehicle.getPricingEpoch();
+        QuoteEngine engine = quoteEngine;
+        if (engine == null || !engine.isCurrent(current, epoch)) {
+            engine = QuoteEngine.build(current, epoch);
+            quoteEngine = engine;
         }
-        Optional<Vehicle> vehicleOpt = findVehicleById(vehicleId);
-        if (!vehicleOpt.isPresent()) {
-            System.err.println("Booking failed: Vehicle with ID " + vehicleId + " not found.");
-            return;
+        return engine;
+    }
+
+    private FeeIndex currentFeeIndex(QuoteEngine engine) {
+        FeeIndex index = feeIndex;
+        if (index == null || index.engine != engine) {
+            index = new FeeIndex(engine);
+            feeIndex = index;
         }
-        Vehicle vehicle = vehicleOpt.get();
-        Customer customer = customerOpt.get();
-        try {
-            System.out.println("Customer " + customer.getName() + " (ID: "+customerId+") attempting to book vehicle " + vehicle.getPlateNumber() + " (ID: "+vehicleId+")...");
-            vehicle.bookMe(startDate, endDate);
-        } catch (SorryWeDontHaveThatOneException | InvalidDateException e) {
-            System.err.println("Booking failed for vehicle " + vehicle.getPlateNumber() + " (ID: "+vehicleId+"): " + e.getMessage());
+        return index;
+    }
+
+    // Total fee of each vehicle for the given number of days, in list order; NaN for vehicles not in the park.
+    public double[] quote(List<Vehicle> vehicles, int numberOfDays) {
+        double[] fees = new double[vehicles.size()];
+        QuoteEngine engine = currentQuoteEngine(snapshot);
+        engine.quote(engine.slotsOf(vehicles), numberOfDays, fees);
+        return fees;
+    }
+
+    public List<VehicleQuote> quoteAvailableVehicles(Date startDate, Date endDate, String vehicleTypeClassName) {
+        List<VehicleQuote> quotes = new ArrayList<>();
+        List<Vehicle> available = findAvailableVehicles(startDate, endDate, vehicleTypeClassName);
+        if (available.isEmpty()) return quotes;
+        int days = Vehicle.billableDays(startDate, endDate);
+        double[] fees = quote(available, days);
+        for (int i = 0; i < fees.length; i++) {
+            quotes.add(new VehicleQuote(available.get(i), days, Double.isNaN(fees[i]) ? available.get(i).getTotalFee(days) : fees[i]));
         }
+        return quotes;
     }
 
-    public void cancelBooking(String vehicleId, String customerId, Date startDate, Date endDate) {
-        Optional<Customer> customerOpt = findCustomerById(customerId);
-        if (!customerOpt.isPresent()) {
-            System.err.println("Booking cancellation failed: Customer with ID " + customerId + " not found.");
-            return;
+    // --- Cheapest Available Search ---
+    // Per-type position in the fee index, sharing its arrays; the next vehicle's per-day rate times the
+    // number of days is a lower bound for its total fee, since the fixed surcharge only adds to it.
+    private static final class FeeCursor {
+        private final int[] slots;
+        private final double[] rates;
+        private int next;
+
+        FeeCursor(int[] slots, double[] rates) {
+            this.slots = slots;
+            this.rates = rates;
         }
-        Optional<Vehicle> vehicleOpt = findVehicleById(vehicleId);
-        if (!vehicleOpt.isPresent()) {
-            System.err.println("Booking cancellation failed: Vehicle with ID " + vehicleId + " not found.");
-            return;
+    }
+
+    // The k cheapest vehicles available for the whole period, cheapest first. A null or empty type
+    // means any vehicle. Types are merged in daily-fee order and the search stops once no remaining
+    // vehicle can beat the k-th best quote, so total fees are only computed for a few candidates.
+    public List<VehicleQuote> findCheapestAvailable(Date startDate, Date endDate, String vehicleTypeClassName, int k) {
+        List<VehicleQuote> result = new ArrayList<>();
+        if (startDate == null || endDate == null || !startDate.before(endDate) || k <= 0) return result;
+        String searchType = vehicleTypeClassName == null ? "" : vehicleTypeClassName.trim();
+        int days = Vehicle.billableDays(startDate, endDate);
+        FleetSnapshot current = snapshot;
+        QuoteEngine engine = currentQuoteEngine(current);
+        FeeIndex index = currentFeeIndex(engine);
+
+        PriorityQueue<FeeCursor> cursors = new PriorityQueue<>(Comparator.comparingDouble((FeeCursor c) -> c.rates[c.next]));
+        for (Map.Entry<String, int[]> group : index.slotsByType.entrySet()) {
+            int[] slots = group.getValue();
+            if (!searchType.isEmpty() && !matchesType(engine.vehicleAt(slots[0]), searchType)) continue;
+            cursors.add(new FeeCursor(slots, index.ratesByType.get(group.getKey())));
         }
-        Vehicle vehicle = vehicleOpt.get();
-        Customer customer = customerOpt.get();
-        try {
-            System.out.println("Customer " + customer.getName() + " (ID: "+customerId+") attempting to cancel booking for vehicle " +
-                               vehicle.getPlateNumber() + " (ID: "+vehicleId+") for period " + startDate.toGMTString() + " to " + endDate.toGMTString() + "...");
-            vehicle.cancelMe(startDate, endDate);
-        } catch (NoCancellationYouMustPayException | InvalidDateException e) {
-            System.err.println("Booking cancellation failed for vehicle " + vehicle.getPlateNumber() + " (ID: "+vehicleId+"): " + e.getMessage());
+
+        Comparator<VehicleQuote> cheapestFirst = Comparator.comparingDouble(VehicleQuote::getTotalFee)
+                .thenComparing(VehicleQuote::getVehicle, ShardRouter.ID_ORDER);
+        PriorityQueue<VehicleQuote> best = new PriorityQueue<>(k, cheapestFirst.reversed()); // most expensive on top
+        while (!cursors.isEmpty()) {
+            FeeCursor cursor = cursors.poll();
+            if (best.size() == k && cursor.rates[cursor.next] * days > best.peek().getTotalFee()) break;
+            int slot = cursor.slots[cursor.next++];
+            if (cursor.next < cursor.slots.length) cursors.add(cursor);
+            Vehicle vehicle = engine.vehicleAt(slot);
+
+            Optional<VehicleView> view = current.findVehicle(vehicle.getId());
+            try {
+                if (!view.isPresent() || !view.get().isAvailable(startDate, endDate)) continue;
+            } catch (InvalidDateException e) {
+                System.err.println("Error checking availability for vehicle " + vehicle.getPlateNumber() + " (ID: " + vehicle.getId() + "): " + e.getMessage());
+                continue;
+            }
+            VehicleQuote quote = new VehicleQuote(vehicle, days, engine.quote(slot, days));
+            if (best.size() < k) {
+                best.add(quote);
+            } else if (cheapestFirst.compare(quote, best.peek()) < 0) {
+                best.poll();
+                best.add(quote);
+            }
         }
+        result.addAll(best);
+        result.sort(cheapestFirst);
+        return result;
     }
 
-    public void rentVehicle(String vehicleId, String customerId, Date startDate, Date endDate, String deliveryLocation, String dropOffLocation) {
-        Optional<Customer> customerOpt = findCustomerById(customerId);
-        if (!customerOpt.isPresent()) {
-            System.err.println("Rental failed: Customer with ID " + customerId + " not found.");
+    public void displayCheapestAvailable(Date startDate, Date endDate, String vehicleTypeClassName, int k) {
+        if (startDate == null || endDate == null || !startDate.before(endDate)) {
+            System.err.println("Invalid date range provided.");
             return;
         }
-        Optional<Vehicle> vehicleOpt = findVehicleById(vehicleId);
-        if (!vehicleOpt.isPresent()) {
-            System.err.println("Rental failed: Vehicle with ID " + vehicleId + " not found.");
+        List<VehicleQuote> quotes = findCheapestAvailable(startDate, endDate, vehicleTypeClassName, k);
+        if (quotes.isEmpty()) {
+            System.out.println("No vehicles available for the period: " + startDate.toGMTString() + " to " + endDate.toGMTString());
             return;
         }
-        Vehicle vehicle = vehicleOpt.get();
-        Customer customer = customerOpt.get();
-        try {
-            System.out.println("Customer " + customer.getName() + " (ID: "+customerId+") attempting to rent vehicle " + vehicle.getPlateNumber() + " (ID: "+vehicleId+")...");
-            vehicle.rentMe(startDate, endDate, deliveryLocation, dropOffLocation);
-        } catch (SorryWeDontHaveThatOneException | InvalidDateException e) {
-            System.err.println("Rental failed for vehicle " + vehicle.getPlateNumber() + " (ID: "+vehicleId+"): " + e.getMessage());
+        System.out.println("\n--- " + quotes.size() + " Cheapest Available Vehicle(s) ---");
+        for (int i = 0; i < quotes.size(); i++) {
+            System.out.println((i + 1) + ". " + quotes.get(i));
         }
+        System.out.println("------------------------------");
     }
 
-    public void dropVehicle(String vehicleId, String customerId) {
-        Optional<Customer> customerOpt = findCustomerById(customerId);
-        if (!customerOpt.isPresent()) {
-            System.err.println("Vehicle drop-off failed: Customer with ID " + customerId + " not found.");
-            return;
+    // --- Locations ---
+    public synchronized boolean addDepot(String name, GeoPoint location) {
+        if (name == null || name.trim().isEmpty() || location == null) {
+            System.err.println("Error: A depot needs a name and a location.");
+            return false;
         }
-        Optional<Vehicle> vehicleOpt = findVehicleById(vehicleId);
-        if (!vehicleOpt.isPresent()) {
-            System.err.println("Vehicle drop-off failed: Vehicle with ID " + vehicleId + " not found.");
-            return;
+        String key = depotKey(name);
+        if (depots.containsKey(key)) {
+            System.err.println("Error: Depot " + name.trim() + " already exists.");
+            return false;
         }
-        Vehicle vehicle = vehicleOpt.get();
-        Customer customer = customerOpt.get();
-        try {
-            System.out.println("Customer " + customer.getName() + " (ID: "+customerId+") attempting to drop off vehicle " + vehicle.getPlateNumber() + " (ID: "+vehicleId+")...");
-            vehicle.dropMe();
-        } catch (InvalidDateException e) {
-            System.err.println("Vehicle drop-off failed for " + vehicle.getPlateNumber() + " (ID: "+vehicleId+"): " + e.getMessage());
+        if (GeoPoint.parse(name).isPresent()) {
+            System.err.println("Error: A depot name cannot look like coordinates.");
+            return false;
         }
+        depots.put(key, new Depot(name.trim(), location));
+        System.out.println("Depot added successfully: " + depots.get(key));
+        return true;
     }
 
-    public void loadVehicle(String vehicleId, String customerId, double amount) {
-        Optional<Customer> customerOpt = findCustomerById(customerId);
-        if (!customerOpt.isPresent()) {
-            System.err.println("Loading vehicle failed: Customer with ID " + customerId + " not found.");
-            return;
-        }
+    public synchronized List<Depot> getDepots() { return new ArrayList<>(depots.values()); }
+
+    public synchronized Optional<Depot> findDepot(String name) {
+        if (name == null) return Optional.empty();
+        return Optional.ofNullable(depots.get(depotKey(name)));
+    }
+
+    // Locale-independent, so a depot stays findable whatever the default locale (e.g. Turkish dotless i).
+    private static String depotKey(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // A depot name or "lat,lon".
+    public synchronized Optional<GeoPoint> resolveLocation(String depotOrCoordinates) {
+        Optional<Depot> depot = findDepot(depotOrCoordinates);
+        return depot.isPresent() ? Optional.of(depot.get().getLocation()) : GeoPoint.parse(depotOrCoordinates);
+    }
+
+    public synchronized boolean setVehicleLocation(String vehicleId, String depotOrCoordinates) {
         Optional<Vehicle> vehicleOpt = findVehicleById(vehicleId);
         if (!vehicleOpt.isPresent()) {
-            System.err.println("Loading vehicle failed: Vehicle with ID " + vehicleId + " not found.");
-            return;
+            System.err.println("Error: Vehicle with ID " + vehicleId + " not found.");
+            return false;
         }
-        Vehicle vehicle = vehicleOpt.get();
-        Customer customer = customerOpt.get();
-        try {
-            System.out.println("Customer " + customer.getName() + " (ID: "+customerId+") attempting to load " + amount +
-                               " onto vehicle " + vehicle.getPlateNumber() + " (ID: "+vehicleId+")...");
-            vehicle.loadMe(amount);
-        } catch (OverWeightException | UnsupportedOperationException e) {
-            System.err.println("Loading vehicle " + vehicle.getPlateNumber() + " (ID: "+vehicleId+") failed: " + e.getMessage());
+        Optional<GeoPoint> location = resolveLocation(depotOrCoordinates);
+        if (!location.isPresent()) {
+            System.err.println("Error: '" + depotOrCoordinates + "' is neither a known depot nor coordinates (lat,lon).");
+            return false;
         }
+        vehicleOpt.get().setLocation(location.get());
+        publishVehicle(vehicleOpt.get());
+        System.out.println("Vehicle " + vehicleOpt.get().getId() + " is now at " + location.get() + ".");
+        return true;
     }
 
-    public void dailyReport(String fileName) {
-        File reportFile = new File(fileName);
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        String reportTimestamp = dateFormat.format(new Date());
+    // A remote drop-off moves the vehicle when it is returned. Free text that names no depot and no
+    // coordinates is still accepted, but the vehicle's position is unknown afterwards.
+    private void planReturn(Vehicle vehicle, String dropOffLocation) {
+        if (dropOffLocation == null || dropOffLocation.trim().isEmpty()) return;
+        Optional<GeoPoint> target = resolveLocation(dropOffLocation);
+        if (!target.isPresent()) {
+            System.err.println("Warning: Drop-off location '" + dropOffLocation.trim() + "' is not a depot or coordinates; " +
+                               "vehicle " + vehicle.getId() + " will have no known location once it is returned.");
+        }
+        vehicle.setReturnLocation(target.orElse(null));
+    }
 
-        try (PrintWriter writer = new PrintWriter(new FileWriter(reportFile))) {
-            writer.println("VPark - Daily System Report");
-            writer.println("Generated on: " + reportTimestamp);
-            writer.println("============================================\n");
+    private SpatialIndex currentSpatialIndex(FleetSnapshot current) {
+        SpatialIndex index = spatialIndex;
+        if (index == null || index.locationVersion != current.getLocationVersion()) {
+            index = SpatialIndex.build(current);
+            spatialIndex = index;
+        }
+        return index;
+    }
 
-            writer.println("--- ALL VEHICLES (" + allVehicles.size() + ") ---");
-            if (allVehicles.isEmpty()) {
-                writer.println("No vehicles in the system.");
-            } else {
-                for (Vehicle v : allVehicles) {
-                    writer.println("\n-- Vehicle ID: " + v.getId() + " | Plate: " + v.getPlateNumber() + " | Type: " + v.getClass().getSimpleName());
-                    // Replace newlines in vehicle's toString() with indented newlines for better report formatting
-                    String vehicleDetails = v.toString().replaceAll("\n", "\n    ");
-                    writer.println("  " + vehicleDetails); // First line of vehicle details also indented
-                    writer.println("    Currently Rented: " + (v.isRented() ? "Yes" : "No"));
+    // Up to k vehicles of the given type (any type if null) free for the period, closest to the point first.
+    // Candidates come out of the spatial index in distance order, so only the nearest calendars are checked.
+    // maxDistanceKm <= 0 means no distance limit. Vehicles with no known location are never returned.
+    public List<NearbyVehicle> findNearestAvailable(GeoPoint from, String vehicleTypeClassName, Date startDate, Date endDate,
+                                                    int k, double maxDistanceKm) {
+        List<NearbyVehicle> result = new ArrayList<>();
+        if (from == null || k <= 0 || startDate == null || endDate == null || !startDate.before(endDate)) return result;
+        FleetSnapshot current = snapshot;
+        String type = vehicleTypeClassName == null || vehicleTypeClassName.trim().isEmpty() ? null : vehicleTypeClassName.trim();
+        currentSpatialIndex(current).nearest(from, maxDistanceKm, (vehicle, distanceKm) -> {
+            if (type != null && !matchesType(vehicle, type)) return true;
+            VehicleView view = current.vehicleOrNull(vehicle.getId());
+            try {
+                if (view != null && view.isAvailable(startDate, endDate)) result.add(new NearbyVehicle(view, distanceKm));
+            } catch (InvalidDateException e) {
+                return false;
+            }
+            return result.size() < k;
+        });
+        return result;
+    }
+
+    public void displayNearestAvailable(String depotOrCoordinates, String vehicleTypeClassName, Date startDate, Date endDate,
+                                        int k, double maxDistanceKm) {
+        if (startDate == null || endDate == null || !startDate.before(endDate)) {
+            System.err.println("Invalid date range provided.");
+            return;
+        }
+        Optional<GeoPoint> from = resolveLocation(depotOrCoordinates);
+        if (!from.isPresent()) {
+            System.err.println("Error: '" + depotOrCoordinates + "' is neither a known depot nor coordinates (lat,lon).");
+            return;
+        }
+        List<NearbyVehicle> nearby = findNearestAvailable(from.get(), vehicleTypeClassName, startDate, endDate, k, maxDistanceKm);
+        if (nearby.isEmpty()) {
+            System.out.println("No vehicles available near " + from.get() + " for the period: " + startDate.toGMTString() + " to " + endDate.toGMTString());
+            return;
+        }
+        System.out.println("\n--- " + nearby.size() + " Nearest Available Vehicle(s) to " + from.get() + " ---");
+        for (int i = 0; i < nearby.size(); i++) {
+            System.out.println((i + 1) + ". " + nearby.get(i));
+        }
+        System.out.println("------------------------------");
+    }
+
+    public synchronized void displayDepots() {
+        if (depots.isEmpty()) {
+            System.out.println("No depots defined.");
+            return;
+        }
+        System.out.println("\n--- Depots ---");
+        for (Depot depot : depots.values()) System.out.println(depot);
+        System.out.println("--------------");
+    }
+
+    // --- Fleet Rebalancing ---
+    // Relocation moves that leave every depot with at least one idle vehicle per booking starting there
+    // in the period, where the fleet has enough to spare; see RebalancingPlanner. Works on the published
+    // snapshot, so planning never blocks bookings.
+    public Optional<RebalancePlan> planRebalancing(Date startDate, Date endDate) {
+        if (startDate == null || endDate == null || !startDate.before(endDate)) {
+            System.err.println("Rebalancing failed: the period must end after it starts.");
+            return Optional.empty();
+        }
+        List<Depot> depotList = getDepots();
+        if (depotList.isEmpty()) {
+            System.err.println("Rebalancing failed: no depots defined.");
+            return Optional.empty();
+        }
+        return Optional.of(new RebalancingPlanner(depotList).plan(snapshot, startDate, endDate));
+    }
+
+    // Moves the planned vehicles to their new depots. Vehicles rented or moved since planning are skipped.
+    public synchronized int applyRebalancing(RebalancePlan plan) {
+        int applied = 0;
+        for (RebalancePlan.Move move : plan.getMoves()) {
+            Optional<Vehicle> vehicleOpt = findVehicleById(move.getVehicleId());
+            if (!vehicleOpt.isPresent() || vehicleOpt.get().isRented() || !Objects.equals(vehicleOpt.get().getLocation(), move.getOrigin())) {
+                System.err.println("Skipping move of " + move.getVehicleId() + ": the vehicle was removed, rented or moved after the plan was made.");
+                continue;
+            }
+            vehicleOpt.get().setLocation(move.getTo().getLocation());
+            publishVehicle(vehicleOpt.get());
+            applied++;
+        }
+        System.out.println(applied + " of " + plan.getMoves().size() + " relocation move(s) applied.");
+        return applied;
+    }
+
+    public void displayRebalancingPlan(RebalancePlan plan) {
+        System.out.println("\n--- Rebalancing Plan for bookings starting " + plan.getStartDate().toGMTString() + " to " + plan.getEndDate().toGMTString() + " ---");
+        if (plan.isEmpty() && plan.getUnmetByType().isEmpty()) {
+            System.out.println("Every depot already has enough idle vehicles. No moves needed.");
+        } else {
+            System.out.println(plan);
+        }
+        System.out.println("------------------------------");
+    }
+
+    // --- Attribute Search ---
+    private AttributeIndex currentAttributeIndex(QuoteEngine engine) {
+        long epoch = Vehicle.getAttributeEpoch();
+        AttributeIndex index = attributeIndex;
+        if (index == null || !index.isCurrent(engine, epoch)) {
+            index = new AttributeIndex(engine, epoch);
+            attributeIndex = index;
+        }
+        return index;
+    }
+
+    // Vehicles matching every attribute filter in the criteria and, when both dates are given,
+    // available for that whole period. The attribute bitmaps are intersected first so only the
+    // surviving vehicles' calendars are checked.
+    public List<Vehicle> searchVehicles(VehicleCriteria criteria, Date startDate, Date endDate) {
+        List<Vehicle> result = new ArrayList<>();
+        if (criteria == null) return result;
+        boolean checkDates = startDate != null && endDate != null;
+        if (checkDates && !startDate.before(endDate)) return result;
+        FleetSnapshot current = snapshot;
+        QuoteEngine engine = currentQuoteEngine(current);
+        BitSet matches = currentAttributeIndex(engine).match(criteria);
+        for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+            Vehicle vehicle = engine.vehicleAt(slot);
+            if (!checkDates) {
+                result.add(vehicle);
+                continue;
+            }
+            Optional<VehicleView> view = current.findVehicle(vehicle.getId());
+            try {
+                if (view.isPresent() && view.get().isAvailable(startDate, endDate)) result.add(vehicle);
+            } catch (InvalidDateException e) {
+                System.err.println("Error checking availability for vehicle " + vehicle.getPlateNumber() + " (ID: " + vehicle.getId() + "): " + e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    public void displaySearchResults(VehicleCriteria criteria, Date startDate, Date endDate) {
+        List<Vehicle> found = searchVehicles(criteria, startDate, endDate);
+        if (found.isEmpty()) {
+            System.out.println("No vehicles match the search criteria.");
+            return;
+        }
+        System.out.println("\n--- Matching Vehicles (" + found.size() + ") ---");
+        for (Vehicle v : found) {
+            System.out.println("------------------------------");
+            System.out.println(snapshot.findVehicle(v.getId()).map(VehicleView::getDescription).orElse(v.toString()));
+        }
+        System.out.println("------------------------------");
+    }
+
+    // --- Substitute Suggestions ---
+    private SubstituteIndex currentSubstituteIndex(FeeIndex fees) {
+        long epoch = Vehicle.getAttributeEpoch();
+        SubstituteIndex index = substituteIndex;
+        if (index == null || !index.isCurrent(fees, epoch)) {
+            index = new SubstituteIndex(fees, epoch);
+            substituteIndex = index;
+        }
+        return index;
+    }
+
+    // Up to k vehicles of the same class as vehicleId that are free for the period, closest first by
+    // daily fee, seating, horsepower, loading capacity and drive type. Quoted for the period.
+    public List<VehicleQuote> findSubstitutes(String vehicleId, Date startDate, Date endDate, int k) {
+        List<VehicleQuote> result = new ArrayList<>();
+        if (vehicleId == null || k <= 0 || startDate == null || endDate == null || !startDate.before(endDate)) return result;
+        FleetSnapshot current = snapshot;
+        QuoteEngine engine = currentQuoteEngine(current);
+        int target = engine.slotOf(vehicleId.trim());
+        if (target < 0) return result;
+        int[] nearest = currentSubstituteIndex(currentFeeIndex(engine)).nearest(target, k, slot -> {
+            VehicleView view = current.vehicleOrNull(engine.vehicleAt(slot).getId());
+            try {
+                return view != null && view.isAvailable(startDate, endDate);
+            } catch (InvalidDateException e) {
+                return false;
+            }
+        });
+        int days = Vehicle.billableDays(startDate, endDate);
+        for (int slot : nearest) result.add(new VehicleQuote(engine.vehicleAt(slot), days, engine.quote(slot, days)));
+        return result;
+    }
+
+    // --- Free Slot Search ---
+    // Walks one vehicle's calendar from a starting point, yielding the gaps between occupied intervals.
+    private static final class GapCursor {
+        private final String vehicleId;
+        private final List<Booking> intervals;
+        private int next;
+        private long gapStart;
+        private long gapEnd;
+
+        GapCursor(VehicleView view, long from) {
+            this.vehicleId = view.getId();
+            this.intervals = view.getOccupiedIntervals();
+            this.gapStart = from;
+            settle();
+        }
+
+        // Skips intervals that end before the gap start and fixes where the current gap ends.
+        private void settle() {
+            while (next < intervals.size()) {
+                Booking b = intervals.get(next);
+                if (b.getEndDate().getTime() <= gapStart) { next++; continue; }
+                if (b.getStartDate().getTime() <= gapStart) { gapStart = b.getEndDate().getTime(); next++; continue; }
+                break;
+            }
+            gapEnd = next < intervals.size() ? intervals.get(next).getStartDate().getTime() : Long.MAX_VALUE;
+        }
+
+        void advance() {
+            gapStart = gapEnd;
+            settle();
+        }
+
+        boolean fits(long durationMillis) { return gapEnd - gapStart >= durationMillis; }
+        boolean hasMoreGaps(long limit) { return gapStart < limit; }
+    }
+
+    private long earliestStartFor(Vehicle v, Date notBefore) {
+        return Math.max(notBefore.getTime(), System.currentTimeMillis() + v.getMinimumLeadTimeMillis());
+    }
+
+    // Earliest window of at least minDays for a vehicle ID, or across all vehicles of a type
+    // ("SUV", "Truck", ...). For types, vehicles are merged through a priority queue on their
+    // next gap so the search stops at the first window that fits.
+    public Optional<FreeWindow> findEarliestSlot(String vehicleIdOrType, int minDays, Date notBefore) {
+        if (vehicleIdOrType == null || vehicleIdOrType.trim().isEmpty() || minDays <= 0 || notBefore == null) return Optional.empty();
+        long duration = TimeUnit.DAYS.toMillis(minDays);
+        FleetSnapshot current = snapshot;
+        PriorityQueue<GapCursor> queue = new PriorityQueue<>(Comparator.comparingLong((GapCursor c) -> c.gapStart));
+        Optional<VehicleView> single = current.findVehicle(vehicleIdOrType);
+        if (single.isPresent()) {
+            queue.add(new GapCursor(single.get(), earliestStartFor(single.get().getVehicle(), notBefore)));
+        } else {
+            String type = vehicleIdOrType.trim();
+            for (VehicleView v : current.vehicles()) {
+                if (matchesType(v.getVehicle(), type)) queue.add(new GapCursor(v, earliestStartFor(v.getVehicle(), notBefore)));
+            }
+        }
+        while (!queue.isEmpty()) {
+            GapCursor cursor = queue.poll();
+            if (cursor.fits(duration)) {
+                return Optional.of(new FreeWindow(cursor.vehicleId, new Date(cursor.gapStart), new Date(cursor.gapStart + duration)));
+            }
+            cursor.advance();
+            queue.add(cursor); // the last gap is open-ended, so every cursor eventually fits
+        }
+        return Optional.empty();
+    }
+
+    // All gaps in one vehicle's calendar inside [from, to), in one pass over its sorted intervals.
+    public List<FreeWindow> listFreeWindows(String vehicleId, Date from, Date to) {
+        List<FreeWindow> windows = new ArrayList<>();
+        if (from == null || to == null || !from.before(to)) return windows;
+        Optional<VehicleView> view = snapshot.findVehicle(vehicleId);
+        if (!view.isPresent()) return windows;
+        GapCursor cursor = new GapCursor(view.get(), from.getTime());
+        while (cursor.hasMoreGaps(to.getTime())) {
+            long end = Math.min(cursor.gapEnd, to.getTime());
+            if (end > cursor.gapStart) windows.add(new FreeWindow(cursor.vehicleId, new Date(cursor.gapStart), new Date(end)));
+            if (cursor.gapEnd == Long.MAX_VALUE) break;
+            cursor.advance();
+        }
+        return windows;
+    }
+
+    // Match against specific class name or general "Car"/"Truck"
+    static boolean matchesType(Vehicle v, String searchType) {
+        if (v.getClass().getSimpleName().equalsIgnoreCase(searchType)) return true;
+        return ("Car".equalsIgnoreCase(searchType) && v instanceof Car) ||
+               ("Truck".equalsIgnoreCase(searchType) && v instanceof Truck);
+    }
+
+    // --- Customer Management Methods ---
+    public synchronized boolean addCustomer(Customer customer) {
+        if (customer == null) {
+            System.err.println("Error: Cannot add a null customer.");
+            return false;
+        }
+        if (findCustomerById(customer.getCustomerId()).isPresent()){
+           System.err.println("Error: Customer with ID " + customer.getCustomerId() + " already exists (ID collision!). This should not happen with sequential IDs.");
+           return false;
+        }
+        if (!fitsAfter(EntityTable.slotOf(customer.getCustomerId(), Customer.ID_PREFIX), customerViews)) {
+           System.err.println("Error: Customer ID " + customer.getCustomerId() + " is malformed or too far past the highest one in use.");
+           return false;
+        }
+        this.registeredCustomers.add(customer);
+        publishCustomer(customer);
+        System.out.println("Customer added successfully: " + customer.getName() + " (ID: " + customer.getCustomerId() + ")");
+        return true;
+    }
+
+    // Only customers with no bookings, rentals or waitlist requests can be removed.
+    public synchronized boolean removeCustomer(String customerId) {
+        Optional<Customer> customerOpt = findCustomerById(customerId);
+        if (!customerOpt.isPresent()) {
+            System.err.println("Error: Customer with ID " + customerId + " not found for removal.");
+            return false;
+        }
+        Customer customer = customerOpt.get();
+        int slot = EntityTable.slotOf(customer.getCustomerId(), Customer.ID_PREFIX);
+        Set<Booking> reservations = reservationsByCustomer.get(slot);
+        if ((reservations != null && !reservations.isEmpty()) || !waitlist.requestsOf(customer.getCustomerId()).isEmpty()) {
+            System.err.println("Error: Cannot remove customer " + customer.getCustomerId() + ". They still have bookings, rentals or waitlist requests.");
+            return false;
+        }
+        registeredCustomers.remove(customer);
+        customerViews = customerViews.set(slot, null);
+        publishedCustomerCount--;
+        publish();
+        System.out.println("Customer removed successfully: " + customer.getName() + " (ID: " + customer.getCustomerId() + ")");
+        return true;
+    }
+
+    public Optional<Customer> findCustomerById(String customerId) {
+        return snapshot.findCustomer(customerId);
+    }
+
+    public void displayAllCustomers() {
+        FleetSnapshot current = snapshot;
+        if (current.getCustomerCount() == 0) {
+            System.out.println("No customers currently registered in the system.");
+            return;
+        }
+        System.out.println("\n--- All Registered Customers ---");
+        for (Customer c : current.customers()) {
+            System.out.println("------------------------------");
+            System.out.println(c.toString());
+        }
+        System.out.println("------------------------------");
+    }
+
+    // --- Bulk Import ---
+    // Files are parsed and validated in parallel before the park lock is taken; the rows that pass are
+    // then inserted in one pass and published as a single snapshot. Rejected rows are listed in the
+    // report rather than stopping the import. Empty if the file itself could not be read.
+    public Optional<ImportReport> importVehicles(File file) {
+        Optional<List<FleetImporter.Row<FleetImporter.VehicleSpec>>> rows = FleetImporter.readVehicles(file);
+        return rows.isPresent() ? Optional.of(insertVehicles(file.getName(), rows.get())) : Optional.empty();
+    }
+
+    public Optional<ImportReport> importCustomers(File file) {
+        Optional<List<FleetImporter.Row<FleetImporter.CustomerSpec>>> rows = FleetImporter.readCustomers(file);
+        return rows.isPresent() ? Optional.of(insertCustomers(file.getName(), rows.get())) : Optional.empty();
+    }
+
+    private synchronized ImportReport insertVehicles(String source, List<FleetImporter.Row<FleetImporter.VehicleSpec>> rows) {
+        ImportReport report = new ImportReport(source, rows.size());
+        Map<String, Integer> plates = new HashMap<>(); // plate -> line that claimed it, 0 for the fleet
+        for (VehicleView view : snapshot.vehicles()) plates.put(view.getPlateNumber().toLowerCase(Locale.ROOT), 0);
+        List<FleetImporter.VehicleSpec> accepted = new ArrayList<>();
+        List<GeoPoint> locations = new ArrayList<>();
+        for (FleetImporter.Row<FleetImporter.VehicleSpec> row : rows) {
+            if (row.error != null) {
+                report.addError(row.line, row.error);
+                continue;
+            }
+            FleetImporter.VehicleSpec spec = row.value;
+            GeoPoint location = null;
+            if (spec.location != null) {
+                Optional<GeoPoint> resolved = resolveLocation(spec.location);
+                if (!resolved.isPresent()) {
+                    report.addError(row.line, "location '" + spec.location + "' is neither a known depot nor coordinates (lat,lon)");
+                    continue;
+                }
+                location = resolved.get();
+            }
+            Integer claimedBy = plates.putIfAbsent(spec.plate.toLowerCase(Locale.ROOT), row.line);
+            if (claimedBy != null) {
+                report.addError(row.line, "plate " + spec.plate + (claimedBy == 0 ? " is already in the fleet" : " repeats line " + claimedBy));
+                continue;
+            }
+            accepted.add(spec);
+            locations.add(location);
+        }
+        if (accepted.isEmpty()) return report;
+        List<Vehicle> added = Vehicle.buildBlock(accepted, FleetImporter.VehicleSpec::build);
+        for (int i = 0; i < added.size(); i++) {
+            added.get(i).setLocation(locations.get(i));
+            added.get(i).setOwner(this);
+        }
+        allVehicles.addAll(added);
+        VehicleView[] views = new VehicleView[added.size()];
+        IntStream.range(0, views.length).parallel().forEach(i -> views[i] = viewOf(added.get(i))); // renders each description
+        for (VehicleView view : views) {
+            vehicleViews = vehicleViews.put(EntityTable.slotOf(view.getId(), Vehicle.ID_PREFIX), view);
+            changeLog.record(version + 1, view.getId());
+        }
+        publishedVehicleCount += added.size();
+        compositionVersion++;
+        locationVersion++;
+        publish();
+        for (Vehicle vehicle : added) {
+            eventFeed.append(FleetEvent.Type.VEHICLE_ADDED, vehicle, null, 0);
+            report.addImported(vehicle.getId());
+        }
+        for (Vehicle vehicle : added) offerToWaitlist(vehicle, waitlist.typeCandidatesFor(vehicle));
+        return report;
+    }
+
+    private synchronized ImportReport insertCustomers(String source, List<FleetImporter.Row<FleetImporter.CustomerSpec>> rows) {
+        ImportReport report = new ImportReport(source, rows.size());
+        List<FleetImporter.CustomerSpec> accepted = new ArrayList<>();
+        for (FleetImporter.Row<FleetImporter.CustomerSpec> row : rows) {
+            if (row.error != null) report.addError(row.line, row.error);
+            else accepted.add(row.value);
+        }
+        if (accepted.isEmpty()) return report;
+        List<Customer> added = Customer.buildBlock(accepted, FleetImporter.CustomerSpec::build);
+        registeredCustomers.addAll(added);
+        for (Customer customer : added) {
+            customerViews = customerViews.put(EntityTable.slotOf(customer.getCustomerId(), Customer.ID_PREFIX), customer);
+            report.addImported(customer.getCustomerId());
+        }
+        publishedCustomerCount += added.size();
+        publish();
+        return report;
+    }
+
+    // --- Booking, Rental, and Other Operations ---
+    public synchronized boolean bookVehicle(String vehicleId, String customerId, Date startDate, Date endDate) {
+        return bookVehicleOrSuggest(vehicleId, customerId, startDate, endDate, 0).isBooked();
+    }
+
+    // Books like bookVehicle; if the vehicle is taken for the period, the result carries up to
+    // maxAlternatives available look-alikes (see findSubstitutes) instead.
+    public synchronized BookingResult bookVehicleOrSuggest(String vehicleId, String customerId, Date startDate, Date endDate, int maxAlternatives) {
+        Optional<Customer> customerOpt = findCustomerById(customerId);
+        if (!customerOpt.isPresent()) {
+            System.err.println("Booking failed: Customer with ID " + customerId + " not found.");
+            return BookingResult.failed(Collections.emptyList());
+        }
+        Optional<Vehicle> vehicleOpt = findVehicleById(vehicleId);
+        if (!vehicleOpt.isPresent()) {
+            System.err.println("Booking failed: Vehicle with ID " + vehicleId + " not found.");
+            return BookingResult.failed(Collections.emptyList());
+        }
+        Vehicle vehicle = vehicleOpt.get();
+        Customer customer = customerOpt.get();
+        try {
+            System.out.println("Customer " + customer.getName() + " (ID: "+customerId+") attempting to book vehicle " + vehicle.getPlateNumber() + " (ID: "+vehicleId+")...");
+            Booking booking = vehicle.bookMe(startDate, endDate, customerId);
+            indexReservation(booking);
+            publishVehicle(vehicle);
+            eventFeed.append(FleetEvent.Type.BOOKING_CREATED, vehicle, booking, 0);
+            return BookingResult.booked(booking);
+        } catch (SorryWeDontHaveThatOneException e) {
+            System.err.println("Booking failed for vehicle " + vehicle.getPlateNumber() + " (ID: "+vehicleId+"): " + e.getMessage());
+            return BookingResult.failed(findSubstitutes(vehicle.getId(), startDate, endDate, maxAlternatives));
+        } catch (InvalidDateException e) {
+            System.err.println("Booking failed for vehicle " + vehicle.getPlateNumber() + " (ID: "+vehicleId+"): " + e.getMessage());
+            return BookingResult.failed(Collections.emptyList());
+        }
+    }
+
+    public synchronized boolean cancelBooking(String vehicleId, String customerId, Date startDate, Date endDate) {
+        Optional<Customer> customerOpt = findCustomerById(customerId);
+        if (!customerOpt.isPresent()) {
+            System.err.println("Booking cancellation failed: Customer with ID " + customerId + " not found.");
+            return false;
+        }
+        Optional<Vehicle> vehicleOpt = findVehicleById(vehicleId);
+        if (!vehicleOpt.isPresent()) {
+            System.err.println("Booking cancellation failed: Vehicle with ID " + vehicleId + " not found.");
+            return false;
+        }
+        Vehicle vehicle = vehicleOpt.get();
+        Customer customer = customerOpt.get();
+        Booking booking = findBooking(vehicle, startDate, endDate);
+        if (booking != null && !booking.isOwnedBy(customerId)) {
+            System.err.println("Booking cancellation failed: the booking for vehicle " + vehicle.getPlateNumber() + " (ID: "+vehicleId+") belongs to another customer.");
+            return false;
+        }
+        try {
+            System.out.println("Customer " + customer.getName() + " (ID: "+customerId+") attempting to cancel booking for vehicle " +
+                               vehicle.getPlateNumber() + " (ID: "+vehicleId+") for period " + startDate.toGMTString() + " to " + endDate.toGMTString() + "...");
+            vehicle.cancelMe(startDate, endDate);
+            unindexReservation(booking);
+            publishVehicle(vehicle);
+            eventFeed.append(FleetEvent.Type.BOOKING_CANCELLED, vehicle, booking, 0);
+            offerFreedInterval(vehicle, startDate, endDate);
+            return true;
+        } catch (NoCancellationYouMustPayException | InvalidDateException e) {
+            System.err.println("Booking cancellation failed for vehicle " + vehicle.getPlateNumber() + " (ID: "+vehicleId+"): " + e.getMessage());
+            return false;
+        }
+    }
+
+    public synchronized boolean rentVehicle(String vehicleId, String customerId, Date startDate, Date endDate, String deliveryLocation, String dropOffLocation) {
+        Optional<Customer> customerOpt = findCustomerById(customerId);
+        if (!customerOpt.isPresent()) {
+            System.err.println("Rental failed: Customer with ID " + customerId + " not found.");
+            return false;
+        }
+        Optional<Vehicle> vehicleOpt = findVehicleById(vehicleId);
+        if (!vehicleOpt.isPresent()) {
+            System.err.println("Rental failed: Vehicle with ID " + vehicleId + " not found.");
+            return false;
+        }
+        Vehicle vehicle = vehicleOpt.get();
+        Customer customer = customerOpt.get();
+        try {
+            System.out.println("Customer " + customer.getName() + " (ID: "+customerId+") attempting to rent vehicle " + vehicle.getPlateNumber() + " (ID: "+vehicleId+")...");
+            Booking booking = findBooking(vehicle, startDate, endDate);
+            vehicle.rentMe(startDate, endDate, deliveryLocation, dropOffLocation, customerId);
+            planReturn(vehicle, dropOffLocation);
+            loadBookedCargo(vehicle);
+            unindexReservation(booking);
+            indexReservation(vehicle.getCurrentRentalPeriod());
+            publishVehicle(vehicle);
+            eventFeed.append(FleetEvent.Type.RENTAL_STARTED, vehicle, vehicle.getCurrentRentalPeriod(), 0);
+            return true;
+        } catch (SorryWeDontHaveThatOneException | InvalidDateException e) {
+            System.err.println("Rental failed for vehicle " + vehicle.getPlateNumber() + " (ID: "+vehicleId+"): " + e.getMessage());
+            return false;
+        }
+    }
+
+    public synchronized boolean dropVehicle(String vehicleId, String customerId) {
+        Optional<Customer> customerOpt = findCustomerById(customerId);
+        if (!customerOpt.isPresent()) {
+            System.err.println("Vehicle drop-off failed: Customer with ID " + customerId + " not found.");
+            return false;
+        }
+        Optional<Vehicle> vehicleOpt = findVehicleById(vehicleId);
+        if (!vehicleOpt.isPresent()) {
+            System.err.println("Vehicle drop-off failed: Vehicle with ID " + vehicleId + " not found.");
+            return false;
+        }
+        Vehicle vehicle = vehicleOpt.get();
+        Customer customer = customerOpt.get();
+        Booking rentalPeriod = vehicle.getCurrentRentalPeriod();
+        if (rentalPeriod != null && !rentalPeriod.isOwnedBy(customerId)) {
+            System.err.println("Vehicle drop-off failed: vehicle " + vehicle.getPlateNumber() + " (ID: "+vehicleId+") is rented by another customer.");
+            return false;
+        }
+        try {
+            System.out.println("Customer " + customer.getName() + " (ID: "+customerId+") attempting to drop off vehicle " + vehicle.getPlateNumber() + " (ID: "+vehicleId+")...");
+            double fee = vehicle.dropMe();
+            unindexReservation(rentalPeriod);
+            completedRentals.add(new HistoryRecord(HistoryRecord.Kind.RENTAL, vehicle.getId(), vehicle.getClass().getSimpleName(),
+                                                   rentalPeriod.getStartDate(), rentalPeriod.getEndDate(), fee, rentalPeriod.getCustomerId()));
+            int days = Vehicle.billableDays(rentalPeriod.getStartDate(), rentalPeriod.getEndDate());
+            revenueLedger.record(System.currentTimeMillis(), vehicle.getId(), vehicle.getClass().getSimpleName(), rentalPeriod.getCustomerId(),
+                                 rentalPeriod.getStartDate(), rentalPeriod.getEndDate(), days, fee, fee - vehicle.getDailyFee() * days);
+            addCompletedRentalPeriod(vehicle, rentalPeriod);
+            publishVehicle(vehicle);
+            eventFeed.append(FleetEvent.Type.VEHICLE_DROPPED, vehicle, rentalPeriod, fee);
+            // An overdue vehicle was blocking requests past its rental end as well.
+            Date now = new Date();
+            offerFreedInterval(vehicle, rentalPeriod.getStartDate(), now.after(rentalPeriod.getEndDate()) ? now : rentalPeriod.getEndDate());
+            return true;
+        } catch (InvalidDateException e) {
+            System.err.println("Vehicle drop-off failed for " + vehicle.getPlateNumber() + " (ID: "+vehicleId+"): " + e.getMessage());
+            return false;
+        }
+    }
+
+    // --- Operations by Booking ID ---
+    public synchronized Optional<Booking> findBookingById(String bookingId) {
+        if (bookingId == null || bookingId.trim().isEmpty()) return Optional.empty();
+        return Optional.ofNullable(bookingsById.get(EntityTable.slotOf(bookingId.trim(), Booking.ID_PREFIX)));
+    }
+
+    // True while the booking is still waiting on the vehicle's calendar: the index holds this very
+    // booking and it has not become the vehicle's rental.
+    private boolean isPendingBooking(Vehicle vehicle, Booking booking) {
+        return bookingsById.get(EntityTable.slotOf(booking.getBookingId(), Booking.ID_PREFIX)) == booking
+               && vehicle.getCurrentRentalPeriod() != booking;
+    }
+
+    public synchronized boolean cancelBooking(String bookingId, String customerId) {
+        Optional<Customer> customerOpt = findCustomerById(customerId);
+        if (!customerOpt.isPresent()) {
+            System.err.println("Booking cancellation failed: Customer with ID " + customerId + " not found.");
+            return false;
+        }
+        Optional<Booking> bookingOpt = findBookingById(bookingId);
+        if (!bookingOpt.isPresent()) {
+            System.err.println("Booking cancellation failed: Booking with ID " + bookingId + " not found.");
+            return false;
+        }
+        Booking booking = bookingOpt.get();
+        if (!booking.isOwnedBy(customerId)) {
+            System.err.println("Booking cancellation failed: Booking " + booking.getBookingId() + " belongs to another customer.");
+            return false;
+        }
+        Optional<Vehicle> vehicleOpt = findVehicleById(booking.getVehicleId());
+        if (!vehicleOpt.isPresent()) {
+            System.err.println("Booking cancellation failed: Vehicle with ID " + booking.getVehicleId() + " not found.");
+            return false;
+        }
+        Vehicle vehicle = vehicleOpt.get();
+        if (!isPendingBooking(vehicle, booking)) {
+            System.err.println("Booking cancellation failed: Booking " + booking.getBookingId() + " has already become a rental.");
+            return false;
+        }
+        try {
+            System.out.println("Customer (ID: "+customerId+") attempting to cancel booking " + booking.getBookingId() + " for vehicle " + vehicle.getPlateNumber() + " (ID: "+vehicle.getId()+")...");
+            vehicle.cancelBooked(booking);
+            unindexReservation(booking);
+            publishVehicle(vehicle);
+            eventFeed.append(FleetEvent.Type.BOOKING_CANCELLED, vehicle, booking, 0);
+            offerFreedInterval(vehicle, booking.getStartDate(), booking.getEndDate());
+            return true;
+        } catch (NoCancellationYouMustPayException e) {
+            System.err.println("Booking cancellation failed for " + booking.getBookingId() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    public synchronized boolean rentFromBooking(String bookingId, String customerId, String deliveryLocation, String dropOffLocation) {
+        Optional<Customer> customerOpt = findCustomerById(customerId);
+        if (!customerOpt.isPresent()) {
+            System.err.println("Rental failed: Customer with ID " + customerId + " not found.");
+            return false;
+        }
+        Optional<Booking> bookingOpt = findBookingById(bookingId);
+        if (!bookingOpt.isPresent()) {
+            System.err.println("Rental failed: Booking with ID " + bookingId + " not found.");
+            return false;
+        }
+        Booking booking = bookingOpt.get();
+        if (!booking.isOwnedBy(customerId)) {
+            System.err.println("Rental failed: Booking " + booking.getBookingId() + " belongs to another customer.");
+            return false;
+        }
+        Optional<Vehicle> vehicleOpt = findVehicleById(booking.getVehicleId());
+        if (!vehicleOpt.isPresent()) {
+            System.err.println("Rental failed: Vehicle with ID " + booking.getVehicleId() + " not found.");
+            return false;
+        }
+        Vehicle vehicle = vehicleOpt.get();
+        if (!isPendingBooking(vehicle, booking)) {
+            System.err.println("Rental failed: Booking " + booking.getBookingId() + " has already become a rental.");
+            return false;
+        }
+        try {
+            System.out.println("Customer (ID: "+customerId+") attempting to rent vehicle " + vehicle.getPlateNumber() + " (ID: "+vehicle.getId()+") from booking " + booking.getBookingId() + "...");
+            vehicle.rentBooked(booking, deliveryLocation, dropOffLocation, customerId);
+            planReturn(vehicle, dropOffLocation);
+            loadBookedCargo(vehicle);
+            unindexReservation(booking);
+            indexReservation(vehicle.getCurrentRentalPeriod());
+            publishVehicle(vehicle);
+            eventFeed.append(FleetEvent.Type.RENTAL_STARTED, vehicle, vehicle.getCurrentRentalPeriod(), 0);
+            return true;
+        } catch (SorryWeDontHaveThatOneException e) {
+            System.err.println("Rental failed for booking " + booking.getBookingId() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    public synchronized boolean loadVehicle(String vehicleId, String customerId, double amount) {
+        Optional<Customer> customerOpt = findCustomerById(customerId);
+        if (!customerOpt.isPresent()) {
+            System.err.println("Loading vehicle failed: Customer with ID " + customerId + " not found.");
+            return false;
+        }
+        if (!(amount > 0)) {
+            System.err.println("Loading vehicle failed: load must be a positive amount.");
+            return false;
+        }
+        Optional<Vehicle> vehicleOpt = findVehicleById(vehicleId);
+        if (!vehicleOpt.isPresent()) {
+            System.err.println("Loading vehicle failed: Vehicle with ID " + vehicleId + " not found.");
+            return false;
+        }
+        Vehicle vehicle = vehicleOpt.get();
+        Customer customer = customerOpt.get();
+        try {
+            System.out.println("Customer " + customer.getName() + " (ID: "+customerId+") attempting to load " + amount +
+                               " onto vehicle " + vehicle.getPlateNumber() + " (ID: "+vehicleId+")...");
+            vehicle.loadMe(amount);
+            publishVehicle(vehicle);
+            return true;
+        } catch (OverWeightException | UnsupportedOperationException e) {
+            System.err.println("Loading vehicle " + vehicle.getPlateNumber() + " (ID: "+vehicleId+") failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // --- Cargo Allocation ---
+    // Plans shipments onto Trucks and StationWagons free for the whole period, without loading anything.
+    public Optional<CargoPlan> planCargo(List<Shipment> shipments, Date startDate, Date endDate) {
+        if (shipments == null || shipments.isEmpty()) {
+            System.err.println("Cargo planning failed: no shipments given.");
+            return Optional.empty();
+        }
+        if (startDate == null || endDate == null || !startDate.before(endDate)) {
+            System.err.println("Cargo planning failed: invalid date range.");
+            return Optional.empty();
+        }
+        CargoAllocator allocator = new CargoAllocator();
+        forEachAvailable(snapshot, startDate, endDate, null, v -> allocator.addVehicle(v.getVehicle()));
+        return Optional.of(allocator.allocate(shipments));
+    }
+
+    // Plans the shipments, then books each planned vehicle for the period with its cargo attached to the
+    // booking; the cargo goes on board when that booking is rented. Shipments on a vehicle that cannot be
+    // booked (e.g. the booking policy refuses the period) end up unplaced.
+    public synchronized Optional<CargoPlan> allocateCargo(String customerId, List<Shipment> shipments, Date startDate, Date endDate) {
+        Optional<Customer> customerOpt = findCustomerById(customerId);
+        if (!customerOpt.isPresent()) {
+            System.err.println("Cargo allocation failed: Customer with ID " + customerId + " not found.");
+            return Optional.empty();
+        }
+        Optional<CargoPlan> planOpt = planCargo(shipments, startDate, endDate);
+        if (!planOpt.isPresent()) return planOpt;
+        CargoPlan plan = planOpt.get();
+        for (Map.Entry<Vehicle, Double> load : plan.getLoadByVehicle().entrySet()) {
+            Vehicle vehicle = load.getKey();
+            try {
+                Booking booking = vehicle.bookMe(startDate, endDate, customerId);
+                booking.setCargoLoad(load.getValue());
+                indexReservation(booking);
+                publishVehicle(vehicle);
+                eventFeed.append(FleetEvent.Type.BOOKING_CREATED, vehicle, booking, 0);
+            } catch (SorryWeDontHaveThatOneException | InvalidDateException e) {
+                System.err.println("Cargo allocation could not book vehicle " + vehicle.getPlateNumber() + " (ID: " + vehicle.getId() + "): " + e.getMessage());
+                plan.release(vehicle);
+            }
+        }
+        return Optional.of(plan);
+    }
+
+    // Puts the cargo reserved on the rental's booking on board.
+    private void loadBookedCargo(Vehicle vehicle) {
+        Booking rental = vehicle.getCurrentRentalPeriod();
+        if (rental == null || !(rental.getCargoLoad() > 0)) return;
+        try {
+            vehicle.loadMe(rental.getCargoLoad());
+        } catch (OverWeightException | UnsupportedOperationException e) {
+            System.err.println("Booked cargo for " + rental.getBookingId() + " was not loaded: " + e.getMessage());
+        }
+    }
+
+    public void displayCargoPlan(CargoPlan plan) {
+        System.out.println("\n--- Cargo Plan ---");
+        System.out.println(plan);
+        for (Map.Entry<Vehicle, Double> load : plan.getLoadByVehicle().entrySet()) {
+            Vehicle v = load.getKey();
+            System.out.println("  " + v.getId() + " (" + v.getPlateNumber() + "): " + String.format("%.2f", load.getValue()) +
+                               " of " + String.format("%.2f", v.getLoadingCapacity()) + " booked");
+        }
+    }
+
+    // --- Waitlist ---
+    // Books straight away if a matching vehicle is free; otherwise queues the request until one frees up.
+    public synchronized Optional<WaitlistRequest> joinWaitlist(String customerId, String vehicleIdOrType, Date startDate, Date endDate) {
+        if (!findCustomerById(customerId).isPresent()) {
+            System.err.println("Waitlist failed: Customer with ID " + customerId + " not found.");
+            return Optional.empty();
+        }
+        if (startDate == null || endDate == null || !startDate.before(endDate) || !startDate.after(new Date())) {
+            System.err.println("Waitlist failed: the period must start in the future and end after it starts.");
+            return Optional.empty();
+        }
+        if (vehicleIdOrType == null || vehicleIdOrType.trim().isEmpty()) {
+            System.err.println("Waitlist failed: Vehicle ID or type cannot be empty.");
+            return Optional.empty();
+        }
+        String target = vehicleIdOrType.trim();
+        List<Vehicle> candidates = new ArrayList<>();
+        WaitlistRequest request;
+        Optional<Vehicle> vehicleOpt = findVehicleById(target);
+        if (vehicleOpt.isPresent()) {
+            Vehicle vehicle = vehicleOpt.get();
+            if (startDate.getTime() - System.currentTimeMillis() < vehicle.getMinimumLeadTimeMillis()) {
+                System.err.println("Waitlist failed: vehicle " + vehicle.getId() + " must be booked at least " +
+                                   TimeUnit.MILLISECONDS.toDays(vehicle.getMinimumLeadTimeMillis()) + " days in advance.");
+                return Optional.empty();
+            }
+            request = new WaitlistRequest(customerId, vehicle.getId(), vehicle.getClass().getSimpleName(), startDate, endDate);
+            candidates.add(vehicle);
+        } else {
+            boolean knownType = false;
+            for (VehicleView v : snapshot.vehicles()) {
+                if (matchesType(v.getVehicle(), target)) { knownType = true; break; }
+            }
+            if (!knownType) {
+                System.err.println("Waitlist failed: no vehicle or vehicle type '" + target + "' in the fleet.");
+                return Optional.empty();
+            }
+            request = new WaitlistRequest(customerId, null, target, startDate, endDate);
+            forEachAvailable(snapshot, startDate, endDate, target, v -> candidates.add(v.getVehicle()));
+        }
+        for (Vehicle candidate : candidates) {
+            if (tryFulfil(request, candidate)) return Optional.of(request);
+        }
+        waitlist.add(request);
+        System.out.println("Added to waitlist: " + request);
+        return Optional.of(request);
+    }
+
+    public synchronized boolean cancelWaitlistRequest(String requestId, String customerId) {
+        WaitlistRequest request = waitlist.find(requestId);
+        if (request == null) {
+            System.err.println("Waitlist cancellation failed: no waiting request with ID " + requestId + ".");
+            return false;
+        }
+        if (!request.getCustomerId().equals(customerId)) {
+            System.err.println("Waitlist cancellation failed: request " + request.getRequestId() + " belongs to another customer.");
+            return false;
+        }
+        closeWaitlistRequest(request, WaitlistRequest.Status.CANCELLED, "cancelled by customer");
+        return true;
+    }
+
+    public synchronized List<WaitlistRequest> getWaitlistRequests(String customerId) {
+        return customerId == null ? new ArrayList<>() : waitlist.requestsOf(customerId.trim());
+    }
+
+    public synchronized int getWaitlistSize() { return waitlist.size(); }
+
+    // Called (under the park lock) whenever a waitlist request is fulfilled, cancelled or expires.
+    public void addWaitlistListener(Consumer<WaitlistRequest> listener) {
+        if (listener != null) waitlistListeners.add(listener);
+    }
+
+    // Re-evaluates only the requests that overlap the interval the vehicle just got back.
+    private void offerFreedInterval(Vehicle vehicle, Date from, Date to) {
+        if (from == null || to == null || waitlist.size() == 0) return;
+        offerToWaitlist(vehicle, waitlist.candidatesFor(vehicle, from.getTime(), to.getTime()));
+    }
+
+    private void offerToWaitlist(Vehicle vehicle, List<WaitlistRequest> candidates) {
+        long now = System.currentTimeMillis();
+        for (WaitlistRequest r : candidates) {
+            if (!r.isWaiting()) continue;
+            if (r.getStartDate().getTime() <= now) {
+                closeWaitlistRequest(r, WaitlistRequest.Status.EXPIRED, "no vehicle freed up before the period started");
+                continue;
+            }
+            tryFulfil(r, vehicle);
+        }
+    }
+
+    private boolean tryFulfil(WaitlistRequest request, Vehicle vehicle) {
+        try {
+            if (!vehicle.isAvailable(request.getStartDate(), request.getEndDate())) return false;
+            Booking booking = vehicle.bookMe(request.getStartDate(), request.getEndDate(), request.getCustomerId());
+            indexReservation(booking);
+            publishVehicle(vehicle);
+            eventFeed.append(FleetEvent.Type.BOOKING_CREATED, vehicle, booking, 0);
+            waitlist.remove(request);
+            request.fulfil(booking);
+            notifyWaitlist(request);
+            return true;
+        } catch (SorryWeDontHaveThatOneException | InvalidDateException e) {
+            return false; // e.g. a truck inside its advance-booking window; keep waiting
+        }
+    }
+
+    private void closeWaitlistRequest(WaitlistRequest request, WaitlistRequest.Status status, String reason) {
+        waitlist.remove(request);
+        request.close(status, reason);
+        notifyWaitlist(request);
+    }
+
+    private void notifyWaitlist(WaitlistRequest request) {
+        System.out.println("Waitlist notification for customer " + request.getCustomerId() + ": " + request);
+        for (Consumer<WaitlistRequest> listener : waitlistListeners) {
+            try {
+                listener.accept(request);
+            } catch (RuntimeException e) {
+                System.err.println("Waitlist listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // --- Customer Reservations ---
+    // Bookings and active rentals of one customer, ordered by start date. Cost is proportional to that customer's reservations.
+    public synchronized List<Booking> getCustomerReservations(String customerId) {
+        List<Booking> result = new ArrayList<>();
+        if (customerId == null) return result;
+        Set<Booking> reservations = reservationsByCustomer.get(EntityTable.slotOf(customerId.trim(), Customer.ID_PREFIX));
+        if (reservations != null) result.addAll(reservations);
+        result.sort((a, b) -> a.getStartDate().compareTo(b.getStartDate()));
+        return result;
+    }
+
+    public void displayCustomerReservations(String customerId) {
+        List<Booking> reservations = getCustomerReservations(customerId);
+        List<WaitlistRequest> waiting = getWaitlistRequests(customerId);
+        if (!waiting.isEmpty()) {
+            System.out.println("\n--- Waitlist Requests of " + customerId + " ---");
+            for (WaitlistRequest r : waiting) System.out.println("  " + r);
+        }
+        if (reservations.isEmpty()) {
+            System.out.println("Customer " + customerId + " has no bookings or active rentals.");
+            return;
+        }
+        System.out.println("\n--- Bookings and Rentals of " + customerId + " ---");
+        for (Booking b : reservations) {
+            Optional<Vehicle> vehicle = findVehicleById(b.getVehicleId());
+            boolean active = vehicle.isPresent() && vehicle.get().getCurrentRentalPeriod() == b;
+            System.out.println("  " + b.getBookingId() + " | " + (active ? "Rental " : "Booking") + " | Vehicle: " + b.getVehicleId() +
+                               vehicle.map(v -> " (" + v.getPlateNumber() + ")").orElse(" (removed)") +
+                               " | " + b.getStartDate().toGMTString() + " to " + b.getEndDate().toGMTString());
+        }
+        System.out.println("------------------------------");
+    }
+
+    // --- Revenue ---
+    // Revenue from rentals completed on the days from..to, both inclusive, answered from the rollups.
+    public synchronized Optional<RevenueSummary> getRevenue(Date from, Date to) {
+        if (from == null || to == null || from.after(to)) {
+            System.err.println("Invalid date range for revenue query.");
+            return Optional.empty();
+        }
+        return Optional.of(revenueLedger.summarize(localDay(from), localDay(to)));
+    }
+
+    // Individual rentals completed in [from, to), read from the ledger's raw entries.
+    public synchronized List<HistoryRecord> getCompletedRentals(Date from, Date to) {
+        List<HistoryRecord> result = new ArrayList<>();
+        if (from == null || to == null || !from.before(to)) return result;
+        revenueLedger.forEachEntry(from.getTime(), to.getTime(), result::add);
+        return result;
+    }
+
+    public void displayRevenue(Date from, Date to) {
+        Optional<RevenueSummary> summary = getRevenue(from, to);
+        if (!summary.isPresent()) return;
+        SimpleDateFormat dayFormat = new SimpleDateFormat("dd/MM/yyyy");
+        System.out.println("\n--- Revenue " + dayFormat.format(from) + " to " + dayFormat.format(to) + " ---");
+        if (summary.get().getTotal().getRentals() == 0) {
+            System.out.println("No rentals were completed in this period.");
+            return;
+        }
+        System.out.println(summary.get());
+        System.out.println("------------------------------");
+    }
+
+    private static LocalDate localDay(Date date) {
+        return LocalDate.ofEpochDay(localEpochDay(date.getTime()));
+    }
+
+    // --- Utilization Analytics ---
+    private UtilizationIndex currentUtilizationIndex(FleetSnapshot current) {
+        UtilizationIndex index = utilizationIndex;
+        if (index == null || index.version != current.getVersion()) {
+            index = UtilizationIndex.build(current, index);
+            utilizationIndex = index;
+        }
+        return index;
+    }
+
+    // Share of the days from..to (both inclusive) on which the vehicle was booked or rented.
+    public Optional<Double> getUtilization(String vehicleId, Date from, Date to) {
+        if (from == null || to == null || from.after(to)) return Optional.empty();
+        UtilizationIndex index = currentUtilizationIndex(snapshot);
+        int slot = index.slotOf(vehicleId);
+        if (slot < 0) return Optional.empty();
+        long fromDay = localEpochDay(from.getTime());
+        long toDay = localEpochDay(to.getTime()) + 1;
+        return Optional.of((double) index.bitmapAt(slot).occupiedDays(fromDay, toDay) / (toDay - fromDay));
+    }
+
+    public Optional<UtilizationReport> getUtilizationReport(Date from, Date to) {
+        if (from == null || to == null || from.after(to)) {
+            System.err.println("Invalid date range for utilization report.");
+            return Optional.empty();
+        }
+        UtilizationIndex index = currentUtilizationIndex(snapshot);
+        long fromDay = localEpochDay(from.getTime());
+        long toDay = localEpochDay(to.getTime()) + 1;
+        int[] occupied = index.occupiedDays(fromDay, toDay);
+        UtilizationReport report = new UtilizationReport((int) Math.min(Integer.MAX_VALUE, toDay - fromDay));
+        for (int slot = 0; slot < occupied.length; slot++) {
+            if (occupied[slot] < 0) continue;
+            VehicleView v = index.viewAt(slot);
+            report.add(v.getId(), v.getType(), occupied[slot]);
+        }
+        return Optional.of(report);
+    }
+
+    public void displayUtilization(Date from, Date to) {
+        Optional<UtilizationReport> report = getUtilizationReport(from, to);
+        if (!report.isPresent()) return;
+        SimpleDateFormat dayFormat = new SimpleDateFormat("dd/MM/yyyy");
+        System.out.println("\n--- Utilization " + dayFormat.format(from) + " to " + dayFormat.format(to) + " ---");
+        System.out.println(report.get());
+        System.out.println("------------------------------");
+    }
+
+    // CSV with one row per vehicle and one column per day (1 = booked or rented), plus a row counting
+    // occupied vehicles per day. Rows are rendered in parallel and written in ID order.
+    public boolean exportUtilizationHeatMap(String fileName, Date from, Date to) {
+        if (fileName == null || fileName.trim().isEmpty() || from == null || to == null || from.after(to)) {
+            System.err.println("Heat map export failed: a file name and a valid date range are required.");
+            return false;
+        }
+        long fromDay = localEpochDay(from.getTime());
+        long toDay = localEpochDay(to.getTime()) + 1;
+        if (toDay - fromDay > MAX_HEATMAP_DAYS) {
+            System.err.println("Heat map export failed: the range may span at most " + MAX_HEATMAP_DAYS + " days.");
+            return false;
+        }
+        UtilizationIndex index = currentUtilizationIndex(snapshot);
+        int dayCount = (int) (toDay - fromDay);
+        String[] rows = new String[index.slotCount()];
+        IntStream.range(0, rows.length).parallel().forEach(slot -> {
+            VehicleView v = index.viewAt(slot);
+            if (v == null) return;
+            UtilizationIndex.DayBitmap bitmap = index.bitmapAt(slot);
+            StringBuilder row = new StringBuilder(v.getId().length() + v.getType().length() + 2 * dayCount + 2);
+            row.append(v.getId()).append(',').append(v.getType());
+            for (long day = fromDay; day < toDay; day++) row.append(bitmap.isOccupied(day) ? ",1" : ",0");
+            rows[slot] = row.toString();
+        });
+        int[] perDay = new int[dayCount];
+        for (int slot = 0; slot < rows.length; slot++) {
+            if (rows[slot] == null) continue;
+            UtilizationIndex.DayBitmap bitmap = index.bitmapAt(slot);
+            for (int d = 0; d < dayCount; d++) if (bitmap.isOccupied(fromDay + d)) perDay[d]++;
+        }
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(fileName.trim())))) {
+            StringBuilder header = new StringBuilder("vehicle,type");
+            for (long day = fromDay; day < toDay; day++) header.append(',').append(LocalDate.ofEpochDay(day));
+            writer.println(header);
+            for (String row : rows) if (row != null) writer.println(row);
+            StringBuilder total = new StringBuilder("ALL,occupied vehicles");
+            for (int count : perDay) total.append(',').append(count);
+            writer.println(total);
+            System.out.println("Utilization heat map written to: " + new File(fileName.trim()).getAbsolutePath());
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing heat map file: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // --- Change Feed ---
+    // Typed events for every vehicle added or removed, booking created or cancelled, rental started and
+    // vehicle dropped, in the order the changes were made. Subscribers get what they request() and are
+    // served on their own delivery threads, so a slow one never holds up bookings; see FleetEventFeed.
+    public Flow.Publisher<FleetEvent> events() { return eventFeed; }
+
+    // Replays the buffered events from fromSequence on, then continues live. A subscriber that asks for
+    // events no longer buffered (including those from before the park was loaded) gets
+    // onError(FleetEventFeed.EventsLostException); one that asks for a sequence past the next event gets
+    // onError(IllegalArgumentException).
+    public synchronized void subscribeToEvents(Flow.Subscriber<? super FleetEvent> subscriber, long fromSequence) {
+        eventFeed.subscribe(subscriber, fromSequence);
+    }
+
+    public long getLastEventSequence() { return eventFeed.getLastSequence(); }
+    public long getOldestBufferedEventSequence() { return eventFeed.firstAvailableSequence(); }
+
+    // --- Calendar Event Scheduler ---
+    public synchronized void startScheduler(long tickMillis, long gracePeriodMillis) {
+        stopScheduler();
+        this.timingWheel = new TimingWheel(tickMillis, System.currentTimeMillis());
+        this.gracePeriodMillis = gracePeriodMillis;
+        this.vehicleTimers = new HashMap<>();
+        for (Vehicle v : allVehicles) syncTimers(v);
+        schedulerTicker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "vpark-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        schedulerTicker.scheduleAtFixedRate(this::advanceScheduler, 0, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopScheduler() {
+        if (schedulerTicker != null) {
+            schedulerTicker.shutdown();
+            schedulerTicker = null;
+        }
+        if (vehicleTimers != null) {
+            for (VehicleTimers vt : vehicleTimers.values()) vt.cancelAll();
+        }
+        timingWheel = null;
+        vehicleTimers = null;
+    }
+
+    public synchronized void advanceScheduler() {
+        if (timingWheel != null) timingWheel.advanceTo(System.currentTimeMillis());
+        for (WaitlistRequest r : waitlist.removeStarted(System.currentTimeMillis())) {
+            closeWaitlistRequest(r, WaitlistRequest.Status.EXPIRED, "no vehicle freed up before the period started");
+        }
+    }
+
+    // Brings the vehicle's timers in line with its calendar; only added or removed entries touch the wheel.
+    private void syncTimers(Vehicle vehicle) {
+        if (timingWheel == null) return;
+        VehicleTimers vt = vehicleTimers.computeIfAbsent(vehicle, k -> new VehicleTimers());
+        Map<Booking, Boolean> current = new IdentityHashMap<>();
+        vehicle.forEachBooking(b -> current.put(b, Boolean.TRUE));
+        for (Iterator<Map.Entry<Booking, TimingWheel.Timeout>> it = vt.bookingStarts.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Booking, TimingWheel.Timeout> entry = it.next();
+            if (!current.containsKey(entry.getKey())) {
+                entry.getValue().cancel();
+                it.remove();
+            }
+        }
+        for (Booking b : current.keySet()) {
+            if (!vt.bookingStarts.containsKey(b)) {
+                vt.bookingStarts.put(b, timingWheel.schedule(b.getStartDate().getTime(), () -> onBookingStart(vehicle, b)));
+            }
+        }
+        Booking rental = vehicle.isRented() ? vehicle.getCurrentRentalPeriod() : null;
+        if (vt.rental != rental) {
+            vt.cancelRental();
+            if (rental != null) {
+                vt.rental = rental;
+                long end = rental.getEndDate().getTime();
+                vt.rentalTimeouts.add(timingWheel.schedule(end, () -> onRentalDue(vehicle, rental)));
+                vt.rentalTimeouts.add(timingWheel.schedule(end + gracePeriodMillis, () -> onGracePeriodExpired(vehicle, rental)));
+            }
+        }
+    }
+
+    private void onBookingStart(Vehicle vehicle, Booking booking) {
+        if (!booking.getEndDate().after(new Date())) return; // no-show, left for the history compactor
+        if (vehicle.isRented()) {
+            System.err.println("Scheduler: booking for " + vehicle.getId() + " (" + vehicle.getPlateNumber() + ") from " +
+                               booking.getStartDate().toGMTString() + " could not start, the vehicle has not been returned yet.");
+            return;
+        }
+        if (!isPendingBooking(vehicle, booking)) return; // cancelled or already rented since it was scheduled
+        try {
+            System.out.println("Scheduler: starting booked rental for " + vehicle.getId() + " (" + vehicle.getPlateNumber() + ").");
+            vehicle.rentBooked(booking, "", "", booking.getCustomerId());
+            unindexReservation(booking);
+            indexReservation(vehicle.getCurrentRentalPeriod());
+            publishVehicle(vehicle);
+            eventFeed.append(FleetEvent.Type.RENTAL_STARTED, vehicle, vehicle.getCurrentRentalPeriod(), 0);
+        } catch (SorryWeDontHaveThatOneException e) {
+            System.err.println("Scheduler: automatic rental for " + vehicle.getId() + " failed: " + e.getMessage());
+        }
+    }
+
+    private void onRentalDue(Vehicle vehicle, Booking rental) {
+        if (vehicle.getCurrentRentalPeriod() != rental) return;
+        System.out.println("Scheduler: rental of " + vehicle.getId() + " (" + vehicle.getPlateNumber() + ") is due back now.");
+    }
+
+    private void onGracePeriodExpired(Vehicle vehicle, Booking rental) {
+        if (vehicle.getCurrentRentalPeriod() != rental || vehicle.isOverdue()) return;
+        vehicle.setOverdue(true);
+        publishVehicle(vehicle);
+        System.err.println("Scheduler: rental of " + vehicle.getId() + " (" + vehicle.getPlateNumber() + ") is OVERDUE since " +
+                           rental.getEndDate().toGMTString() + ".");
+    }
+
+    // --- History Compaction and Audit ---
+    public synchronized void setHistoryStore(BookingHistoryStore historyStore) { this.historyStore = historyStore; }
+    public BookingHistoryStore getHistoryStore() { return historyStore; }
+
+    // Moves bookings and completed rentals that ended before the horizon out of memory into the history store.
+    public synchronized int compactHistory(Date horizon) {
+        if (historyStore == null) {
+            System.err.println("History compaction skipped: no history store configured.");
+            return 0;
+        }
+        List<HistoryRecord> archived = new ArrayList<>();
+        Map<Vehicle, List<Booking>> removed = new LinkedHashMap<>();
+        for (Vehicle v : allVehicles) {
+            List<Booking> expired = v.removeBookingsEndingBefore(horizon);
+            if (expired.isEmpty()) continue;
+            removed.put(v, expired);
+            for (Booking b : expired) {
+                archived.add(new HistoryRecord(HistoryRecord.Kind.BOOKING, v.getId(), v.getClass().getSimpleName(),
+                                               b.getStartDate(), b.getEndDate(), Double.NaN, b.getCustomerId()));
+            }
+        }
+        List<HistoryRecord> oldRentals = new ArrayList<>();
+        for (HistoryRecord r : completedRentals) {
+            if (r.getEndDate().before(horizon)) oldRentals.add(r);
+        }
+        archived.addAll(oldRentals);
+        if (archived.isEmpty()) return 0;
+        try {
+            historyStore.append(archived);
+        } catch (IOException e) {
+            // Put expired bookings back so nothing is lost; the next run will retry.
+            for (Map.Entry<Vehicle, List<Booking>> entry : removed.entrySet()) {
+                for (Booking b : entry.getValue()) entry.getKey().restoreBooking(b);
+            }
+            System.err.println("Error writing booking history: " + e.getMessage());
+            return 0;
+        }
+        completedRentals.removeAll(oldRentals);
+        for (List<Booking> expired : removed.values()) {
+            for (Booking b : expired) unindexReservation(b);
+        }
+        for (Vehicle v : removed.keySet()) publishVehicle(v);
+        return archived.size();
+    }
+
+    public synchronized void startHistoryCompactor(BookingHistoryStore store, int retentionDays, long intervalMinutes) {
+        stopHistoryCompactor();
+        setHistoryStore(store);
+        historyCompactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "vpark-history-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+        historyCompactor.scheduleWithFixedDelay(() -> {
+            Date horizon = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(retentionDays));
+            compactHistory(horizon);
+        }, 0, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    public synchronized void stopHistoryCompactor() {
+        if (historyCompactor != null) {
+            historyCompactor.shutdown();
+            historyCompactor = null;
+        }
+    }
+
+    // Range scan over archived and not-yet-archived history for one vehicle (or all when vehicleId is null).
+    public List<HistoryRecord> findHistory(String vehicleId, Date from, Date to) throws IOException {
+        List<HistoryRecord> result = new ArrayList<>();
+        if (from == null || to == null || !from.before(to)) return result;
+        String id = vehicleId == null ? null : vehicleId.trim();
+        // The in-memory list first, then the store: compaction only ever moves records from the list into
+        // the store, so a record moved in between shows up in both (and is deduplicated) rather than neither.
+        BookingHistoryStore store;
+        Set<HistoryRecord> found = new LinkedHashSet<>();
+        synchronized (this) {
+            store = historyStore;
+            for (HistoryRecord r : completedRentals) {
+                if ((id == null || r.getVehicleId().equals(id)) && r.overlaps(from, to)) found.add(r);
+            }
+        }
+        if (store != null) found.addAll(store.scan(id, from, to));
+        result.addAll(found);
+        result.sort((a, b) -> a.getStartDate().compareTo(b.getStartDate()));
+        return result;
+    }
+
+    public void displayHistory(String vehicleId, Date from, Date to) {
+        try {
+            List<HistoryRecord> records = findHistory(vehicleId, from, to);
+            if (records.isEmpty()) {
+                System.out.println("No history found for vehicle " + vehicleId + " between " + from.toGMTString() + " and " + to.toGMTString() + ".");
+                return;
+            }
+            System.out.println("\n--- History for " + vehicleId + " (" + from.toGMTString() + " - " + to.toGMTString() + ") ---");
+            for (HistoryRecord r : records) {
+                System.out.println("  " + r);
+            }
+            System.out.println("------------------------------");
+        } catch (IOException e) {
+            System.err.println("Error reading booking history: " + e.getMessage());
+        }
+    }
+
+    public void dailyReport(String fileName) {
+        File reportFile = new File(fileName);
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        String reportTimestamp = dateFormat.format(new Date());
+        FleetSnapshot current = snapshot; // one consistent version for the whole report
+
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(reportFile)))) {
+            writer.println("VPark - Daily System Report");
+            writer.println("Generated on: " + reportTimestamp);
+            writer.println("============================================\n");
+
+            writer.println("--- ALL VEHICLES (" + current.getVehicleCount() + ") ---");
+            if (!current.hasVehicles()) {
+                writer.println("No vehicles in the system.");
+            } else {
+                current.forEachVehicle(v -> {
+                    writer.println("\n-- Vehicle ID: " + v.getId() + " | Plate: " + v.getPlateNumber() + " | Type: " + v.getType());
+                    // Replace newlines in vehicle's toString() with indented newlines for better report formatting
+                    String vehicleDetails = v.getDescription().replace("\n", "\n    ");
+                    writer.println("  " + vehicleDetails); // First line of vehicle details also indented
+                    writer.println("    Currently Rented: " + (v.isRented() ? (v.isOverdue() ? "Yes (OVERDUE)" : "Yes") : "No"));
                     if (v.isRented() && v.getCurrentRentalPeriod() != null) {
                         writer.println("      Rental Period: " + v.getCurrentRentalPeriod().getStartDate().toGMTString() +
                                        " to " + v.getCurrentRentalPeriod().getEndDate().toGMTString());
                     }
-                    writer.println("    Number of Bookings: " + v.getBookings().size());
-                    for (Booking b : v.getBookings()) {
-                        writer.println("      Booking: " + b.getStartDate().toGMTString() + " to " + b.getEndDate().toGMTString());
-                    }
-                }
+                    writer.println("    Number of Bookings: " + v.bookingCount());
+                    v.forEachBooking(b -> writer.println("      Booking " + b.getBookingId() + ": " + b.getStartDate().toGMTString() + " to " + b.getEndDate().toGMTString()));
+                });
             }
             writer.println("\n--------------------------------------------\n");
 
             writer.println("--- RENTED VEHICLES ---");
-            List<Vehicle> rentedVehiclesList = new ArrayList<>();
-            for (Vehicle v : allVehicles) { if (v.isRented()) rentedVehiclesList.add(v); }
-            if (rentedVehiclesList.isEmpty()) {
-                writer.println("No vehicles currently rented.");
-            } else {
-                for (Vehicle v : rentedVehiclesList) {
+            boolean anyRented = false;
+            for (VehicleView v : current.vehicles()) {
+                if (v.isRented()) {
+                    anyRented = true;
                     writer.println("\n-- Plate: " + v.getPlateNumber() + " (ID: " + v.getId() + ")");
                     writer.println("   Rented From: " + (v.getCurrentRentalPeriod() != null ? v.getCurrentRentalPeriod().getStartDate().toGMTString() : "N/A"));
                     writer.println("   Rented Until: " + (v.getCurrentRentalPeriod() != null ? v.getCurrentRentalPeriod().getEndDate().toGMTString() : "N/A"));
                 }
             }
+            if (!anyRented) writer.println("No vehicles currently rented.");
             writer.println("\n--------------------------------------------\n");
 
             writer.println("--- BOOKED VEHICLES (Future Bookings) ---");
-            List<Vehicle> vehiclesWithBookings = new ArrayList<>();
-            for(Vehicle v : allVehicles) { if(!v.getBookings().isEmpty()) vehiclesWithBookings.add(v); }
-            if (vehiclesWithBookings.isEmpty()) {
-                writer.println("No vehicles have future bookings.");
-            } else {
-                for (Vehicle v : vehiclesWithBookings) {
+            boolean anyBooked = false;
+            for (VehicleView v : current.vehicles()) {
+                if (v.hasBookings()) {
+                    anyBooked = true;
                     writer.println("\n-- Plate: " + v.getPlateNumber() + " (ID: " + v.getId() + ")");
-                    for (Booking b : v.getBookings()) {
-                        writer.println("   Booking: From " + b.getStartDate().toGMTString() + " To " + b.getEndDate().toGMTString());
-                    }
+                    v.forEachBooking(b -> writer.println("   Booking " + b.getBookingId() + ": From " + b.getStartDate().toGMTString() + " To " + b.getEndDate().toGMTString()));
                 }
             }
+            if (!anyBooked) writer.println("No vehicles have future bookings.");
             writer.println("\n--------------------------------------------\n");
 
-            writer.println("--- REGISTERED CUSTOMERS (" + registeredCustomers.size() + ") ---");
-            if (registeredCustomers.isEmpty()) {
+            writer.println("--- REGISTERED CUSTOMERS (" + current.getCustomerCount() + ") ---");
+            if (current.getCustomerCount() == 0) {
                 writer.println("No customers registered.");
             } else {
-                for (Customer c : registeredCustomers) {
+                for (Customer c : current.customers()) {
                     writer.println("\n-- Customer ID: " + c.getCustomerId() + " | Name: " + c.getName());
                     writer.println("   Contact: " + c.getContactInfo());
                 }
@@ -414,51 +2129,21 @@ public class VehiclePark implements Serializable {
     public List<Vehicle> getAllVehicles() { return new ArrayList<>(allVehicles); }
     public List<Customer> getRegisteredCustomers() { return new ArrayList<>(registeredCustomers); }
 
-    public void setAllVehicles(List<Vehicle> vehicles) {
-        if (vehicles != null) {
-            this.allVehicles = new ArrayList<>(vehicles); // Use a copy
-            if (!this.allVehicles.isEmpty()) {
-                long maxIdSuffix = 0;
-                for(Vehicle v : this.allVehicles) {
-                    try {
-                        String idStr = v.getId();
-                        if (idStr != null && idStr.startsWith(Vehicle.ID_PREFIX)) {
-                            String idNumStr = idStr.substring(Vehicle.ID_PREFIX.length());
-                            maxIdSuffix = Math.max(maxIdSuffix, Long.parseLong(idNumStr));
-                        }
-                    } catch (Exception e) { System.err.println("Warning: Could not parse vehicle ID suffix for " + v.getId() + " during load: " + e.getMessage()); }
-                }
-                Vehicle.updateNextIdSuffix(maxIdSuffix);
-            } else {
-                Vehicle.updateNextIdSuffix(0); // Reset if list is empty
-            }
-        } else {
-            this.allVehicles = new ArrayList<>();
-            Vehicle.updateNextIdSuffix(0); // Reset if list is null
-        }
-    }
-
-    public void setRegisteredCustomers(List<Customer> customers) {
-        if (customers != null) {
-            this.registeredCustomers = new ArrayList<>(customers);
-            if(!this.registeredCustomers.isEmpty()){
-                long maxIdSuffix = 0;
-                for(Customer c : this.registeredCustomers){
-                     try {
-                        String idStr = c.getCustomerId();
-                        if (idStr != null && idStr.startsWith(Customer.ID_PREFIX)) {
-                            String idNumStr = idStr.substring(Customer.ID_PREFIX.length());
-                            maxIdSuffix = Math.max(maxIdSuffix, Long.parseLong(idNumStr));
-                        }
-                    } catch (Exception e) { System.err.println("Warning: Could not parse customer ID suffix for " + c.getCustomerId() + " during load: " + e.getMessage());}
-                }
-                Customer.updateNextIdSuffix(maxIdSuffix);
-            } else {
-                Customer.updateNextIdSuffix(0);
-            }
-        } else {
-            this.registeredCustomers = new ArrayList<>();
-            Customer.updateNextIdSuffix(0);
-        }
+    // Copy-free alternatives for callers that only count or read.
+    public int getVehicleCount() { return snapshot.getVehicleCount(); }
+    public int getCustomerCount() { return snapshot.getCustomerCount(); }
+    public void forEachVehicle(Consumer<? super VehicleView> action) { snapshot.forEachVehicle(action); }
+
+    // ID counters restart from the loaded entities; rebuildSnapshot raises them past the highest ID.
+    public synchronized void setAllVehicles(List<Vehicle> vehicles) {
+        this.allVehicles = vehicles != null ? new ArrayList<>(vehicles) : new ArrayList<>(); // Use a copy
+        Vehicle.updateNextIdSuffix(0);
+        rebuildSnapshot();
+    }
+
+    public synchronized void setRegisteredCustomers(List<Customer> customers) {
+        this.registeredCustomers = customers != null ? new ArrayList<>(customers) : new ArrayList<>();
+        Customer.updateNextIdSuffix(0);
+        rebuildSnapshot();
     }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+// Price of one vehicle for a given period, as computed by Vehicle.getTotalFee.
+public class VehicleQuote {
+    private final Vehicle vehicle;
+    private final int numberOfDays;
+    private final double totalFee;
+
+    public VehicleQuote(Vehicle vehicle, int numberOfDays, double totalFee) {
+        this.vehicle = vehicle;
+        this.numberOfDays = numberOfDays;
+        this.totalFee = totalFee;
+    }
+
+    public Vehicle getVehicle() { return vehicle; }
+    public int getNumberOfDays() { return numberOfDays; }
+    public double getTotalFee() { return totalFee; }
+
+    @Override
+    public String toString() {
+        return vehicle.getId() + " (" + vehicle.getPlateNumber() + ", " + vehicle.getClass().getSimpleName() + " " +
+               vehicle.getBrand() + " " + vehicle.getModel() + "): $" + String.format("%.2f", totalFee) +
+               " for " + numberOfDays + " day(s)";
+    }
+}
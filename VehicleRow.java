@@ -0,0 +1,43 @@
+import java.util.Date;
+
+// One line of a vehicle listing. Availability is only worked out when a caller asks for it.
+public final class VehicleRow {
+    private final VehicleView view;
+    private final Date now;
+    private final Date soon;
+    private String status;
+
+    VehicleRow(VehicleView view, Date now, Date soon) {
+        this.view = view;
+        this.now = now;
+        this.soon = soon;
+    }
+
+    public VehicleView getView() { return view; }
+    public String getId() { return view.getId(); }
+    public String getPlateNumber() { return view.getPlateNumber(); }
+    public String getType() { return view.getType(); }
+    public String getBrand() { return view.getVehicle().getBrand(); }
+    public String getModel() { return view.getVehicle().getModel(); }
+    public String getDescription() { return view.getDescription(); }
+
+    public String getStatus() {
+        if (status == null) {
+            if (view.isRented()) {
+                status = "Rented";
+            } else {
+                try {
+                    status = view.isAvailable(now, soon) ? "Available Now" : "Not Available Now";
+                } catch (InvalidDateException e) {
+                    status = "Availability Unknown (Error: " + e.getMessage() + ")";
+                }
+            }
+        }
+        return status;
+    }
+
+    @Override
+    public String toString() {
+        return getId() + " | " + getPlateNumber() + " | " + getType() + " " + getBrand() + " " + getModel() + " | " + getStatus();
+    }
+}
@@ -0,0 +1,86 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Immutable picture of one vehicle's calendar and status, captured when the park publishes a new snapshot.
+public final class VehicleView {
+    private final Vehicle vehicle;
+    private final boolean rented;
+    private final boolean overdue;
+    private final Booking currentRentalPeriod;
+    private final List<Booking> bookings;
+    private final String description;
+    private final GeoPoint location;
+    private final long[] completedRentals; // {start, end} millis of each finished rental; shared, never modified
+
+    private static final long[] NO_RENTALS = new long[0];
+
+    VehicleView(Vehicle vehicle, long[] completedRentals) {
+        this.vehicle = vehicle;
+        this.completedRentals = completedRentals != null ? completedRentals : NO_RENTALS;
+        this.rented = vehicle.isRented();
+        this.overdue = vehicle.isOverdue();
+        this.currentRentalPeriod = vehicle.getCurrentRentalPeriod();
+        this.bookings = Collections.unmodifiableList(new ArrayList<>(vehicle.getBookingsView()));
+        this.description = vehicle.toString();
+        this.location = vehicle.getNextLocation();
+    }
+
+    public Vehicle getVehicle() { return vehicle; }
+
+    // Finished rentals as {start, end} millis pairs. Dropping a vehicle clears its rental, so these are
+    // what keeps past periods visible to utilization. The caller must not modify the array.
+    long[] getCompletedRentalPeriods() { return completedRentals; }
+
+    public String getId() { return vehicle.getId(); }
+    public String getPlateNumber() { return vehicle.getPlateNumber(); }
+    public String getType() { return vehicle.getClass().getSimpleName(); }
+    public boolean isRented() { return rented; }
+    public boolean isOverdue() { return overdue; }
+    public Booking getCurrentRentalPeriod() { return currentRentalPeriod; }
+    public List<Booking> getBookings() { return bookings; }
+    public int bookingCount() { return bookings.size(); }
+    public boolean hasBookings() { return !bookings.isEmpty(); }
+
+    public void forEachBooking(Consumer<? super Booking> action) {
+        for (int i = 0; i < bookings.size(); i++) action.accept(bookings.get(i));
+    }
+    public String getDescription() { return description; }
+    // Where the vehicle is parked, or where it will be returned if it is out on a remote drop-off rental.
+    public GeoPoint getLocation() { return location; }
+
+    // Rental and bookings merged in start-date order.
+    public List<Booking> getOccupiedIntervals() {
+        if (!rented || currentRentalPeriod == null) return bookings;
+        List<Booking> intervals = new ArrayList<>(bookings.size() + 1);
+        boolean rentalAdded = false;
+        for (Booking b : bookings) {
+            if (!rentalAdded && !b.getStartDate().before(currentRentalPeriod.getStartDate())) {
+                intervals.add(currentRentalPeriod);
+                rentalAdded = true;
+            }
+            intervals.add(b);
+        }
+        if (!rentalAdded) intervals.add(currentRentalPeriod);
+        return intervals;
+    }
+
+    // Same rules as Vehicle.isAvailable, evaluated against the captured calendar.
+    public boolean isAvailable(Date startDate, Date endDate) throws InvalidDateException {
+        if (startDate == null || endDate == null || startDate.after(endDate) || startDate.equals(endDate)) {
+            throw new InvalidDateException("Invalid date range for availability check.");
+        }
+        if (rented && currentRentalPeriod != null && currentRentalPeriod.overlaps(startDate, endDate)) return false;
+        for (Booking booking : bookings) {
+            if (booking.overlaps(startDate, endDate)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
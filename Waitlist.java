@@ -0,0 +1,164 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Waiting booking requests, queued per vehicle and per type. Each queue is indexed by start date, so when
+// an interval frees up only the requests overlapping it are looked at. Not thread-safe: VehiclePark
+// drives it under its own lock.
+final class Waitlist implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final Comparator<WaitlistRequest> PRIORITY = Comparator.comparingLong(WaitlistRequest::getSequence);
+
+    // Requests keyed by start time. maxLength bounds how far before an interval a
+    // still-overlapping request can start, so a lookup is one subMap over that range.
+    private static final class IntervalQueue implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final TreeMap<Long, List<WaitlistRequest>> byStart = new TreeMap<>();
+        private long maxLength;
+        private int size;
+
+        void add(WaitlistRequest r) {
+            byStart.computeIfAbsent(r.getStartDate().getTime(), k -> new ArrayList<>()).add(r);
+            maxLength = Math.max(maxLength, r.getEndDate().getTime() - r.getStartDate().getTime());
+            size++;
+        }
+
+        void remove(WaitlistRequest r) {
+            Long key = r.getStartDate().getTime();
+            List<WaitlistRequest> bucket = byStart.get(key);
+            if (bucket == null || !bucket.remove(r)) return;
+            if (bucket.isEmpty()) byStart.remove(key);
+            size--;
+        }
+
+        boolean isEmpty() { return size == 0; }
+
+        void collectOverlapping(long from, long to, List<WaitlistRequest> out) {
+            long lowest = from < Long.MIN_VALUE + maxLength ? Long.MIN_VALUE : from - maxLength;
+            for (List<WaitlistRequest> bucket : byStart.subMap(lowest, true, to, false).values()) {
+                for (WaitlistRequest r : bucket) {
+                    if (r.getEndDate().getTime() > from) out.add(r);
+                }
+            }
+        }
+
+        void collectAll(List<WaitlistRequest> out) {
+            for (List<WaitlistRequest> bucket : byStart.values()) out.addAll(bucket);
+        }
+
+        void collectStartingBy(long time, List<WaitlistRequest> out) {
+            for (List<WaitlistRequest> bucket : byStart.headMap(time, true).values()) out.addAll(bucket);
+        }
+    }
+
+    private final Map<String, IntervalQueue> byVehicle = new HashMap<>();
+    private final Map<String, IntervalQueue> byType = new HashMap<>(); // lower-cased type name
+    private final Map<String, WaitlistRequest> byId = new LinkedHashMap<>(); // every request still waiting
+    private transient IntervalQueue allByStart = new IntervalQueue(); // the same requests, for expiring started ones
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        allByStart = new IntervalQueue();
+        byType.clear(); // keys may have been lower-cased in another locale
+        for (WaitlistRequest r : byId.values()) {
+            allByStart.add(r);
+            if (r.isForType()) queueFor(r, true).add(r);
+        }
+    }
+
+    void add(WaitlistRequest r) {
+        byId.put(r.getRequestId(), r);
+        queueFor(r, true).add(r);
+        allByStart.add(r);
+    }
+
+    void remove(WaitlistRequest r) {
+        if (byId.remove(r.getRequestId()) == null) return;
+        allByStart.remove(r);
+        IntervalQueue queue = queueFor(r, false);
+        if (queue == null) return;
+        queue.remove(r);
+        if (queue.isEmpty()) {
+            if (r.isForType()) byType.remove(typeKey(r.getVehicleType())); else byVehicle.remove(r.getVehicleId());
+        }
+    }
+
+    private IntervalQueue queueFor(WaitlistRequest r, boolean create) {
+        Map<String, IntervalQueue> queues = r.isForType() ? byType : byVehicle;
+        String key = r.isForType() ? typeKey(r.getVehicleType()) : r.getVehicleId();
+        return create ? queues.computeIfAbsent(key, k -> new IntervalQueue()) : queues.get(key);
+    }
+
+    private static String typeKey(String type) {
+        return type.toLowerCase(Locale.ROOT);
+    }
+
+    WaitlistRequest find(String requestId) {
+        return requestId == null ? null : byId.get(requestId.trim());
+    }
+
+    int size() { return byId.size(); }
+
+    // Waiting requests that could use this vehicle during [from, to), best priority first.
+    List<WaitlistRequest> candidatesFor(Vehicle v, long from, long to) {
+        List<WaitlistRequest> found = new ArrayList<>();
+        IntervalQueue own = byVehicle.get(v.getId());
+        if (own != null) own.collectOverlapping(from, to, found);
+        for (Map.Entry<String, IntervalQueue> e : byType.entrySet()) {
+            if (VehiclePark.matchesType(v, e.getKey())) e.getValue().collectOverlapping(from, to, found);
+        }
+        found.sort(PRIORITY);
+        return found;
+    }
+
+    // Requests of any period that a newly added vehicle could serve.
+    List<WaitlistRequest> typeCandidatesFor(Vehicle v) {
+        List<WaitlistRequest> found = new ArrayList<>();
+        for (Map.Entry<String, IntervalQueue> e : byType.entrySet()) {
+            if (VehiclePark.matchesType(v, e.getKey())) e.getValue().collectAll(found);
+        }
+        found.sort(PRIORITY);
+        return found;
+    }
+
+    // Requests tied to one vehicle, e.g. because it is being removed.
+    List<WaitlistRequest> requestsForVehicle(String vehicleId) {
+        List<WaitlistRequest> found = new ArrayList<>();
+        IntervalQueue queue = byVehicle.get(vehicleId);
+        if (queue != null) queue.collectAll(found);
+        found.sort(PRIORITY);
+        return found;
+    }
+
+    List<WaitlistRequest> requestsOf(String customerId) {
+        List<WaitlistRequest> found = new ArrayList<>();
+        for (WaitlistRequest r : byId.values()) {
+            if (r.getCustomerId().equals(customerId)) found.add(r);
+        }
+        return found;
+    }
+
+    // Drops requests whose period has already started; they can no longer be booked. Only the started
+    // requests are visited, so a tick with nothing to expire costs one tree lookup.
+    List<WaitlistRequest> removeStarted(long now) {
+        List<WaitlistRequest> started = new ArrayList<>();
+        allByStart.collectStartingBy(now, started);
+        started.sort(PRIORITY);
+        for (WaitlistRequest r : started) remove(r);
+        return started;
+    }
+
+    long highestIdSuffix() {
+        long highest = 0;
+        for (WaitlistRequest r : byId.values()) highest = Math.max(highest, r.getSequence());
+        return highest;
+    }
+}
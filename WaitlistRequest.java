@@ -0,0 +1,73 @@
+import java.io.Serializable;
+import java.util.Date;
+
+// A booking request that could not be met when it was made. It waits for a specific vehicle or for any
+// vehicle of a type, and is booked automatically when a matching vehicle frees up for the whole period.
+public class WaitlistRequest implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static long nextIdSuffix = 1;
+    protected static final String ID_PREFIX = "WAIT-";
+
+    public enum Status { WAITING, FULFILLED, CANCELLED, EXPIRED }
+
+    private final String requestId;
+    private final long sequence; // first come, first served
+    private final String customerId;
+    private final String vehicleId; // null when any vehicle of the type will do
+    private final String vehicleType;
+    private final Date startDate;
+    private final Date endDate;
+    private Status status = Status.WAITING;
+    private String bookingId; // set once fulfilled
+    private String reason; // why a request stopped waiting without a booking
+
+    WaitlistRequest(String customerId, String vehicleId, String vehicleType, Date startDate, Date endDate) {
+        this.sequence = nextSuffix();
+        this.requestId = ID_PREFIX + sequence;
+        this.customerId = customerId;
+        this.vehicleId = vehicleId;
+        this.vehicleType = vehicleType;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    private static synchronized long nextSuffix() {
+        return nextIdSuffix++;
+    }
+
+    static synchronized void raiseNextIdSuffix(long highestKnownIdSuffix) {
+        nextIdSuffix = Math.max(nextIdSuffix, highestKnownIdSuffix + 1);
+    }
+
+    public String getRequestId() { return requestId; }
+    long getSequence() { return sequence; }
+    public String getCustomerId() { return customerId; }
+    public String getVehicleId() { return vehicleId; }
+    public String getVehicleType() { return vehicleType; }
+    public boolean isForType() { return vehicleId == null; }
+    public Date getStartDate() { return startDate; }
+    public Date getEndDate() { return endDate; }
+    public Status getStatus() { return status; }
+    public String getBookingId() { return bookingId; }
+    public String getReason() { return reason; }
+    public boolean isWaiting() { return status == Status.WAITING; }
+
+    void fulfil(Booking booking) {
+        this.status = Status.FULFILLED;
+        this.bookingId = booking.getBookingId();
+    }
+
+    void close(Status status, String reason) {
+        this.status = status;
+        this.reason = reason;
+    }
+
+    @Override
+    public String toString() {
+        String target = isForType() ? "any " + vehicleType : "vehicle " + vehicleId;
+        String outcome = status == Status.FULFILLED ? " -> booking " + bookingId
+                       : reason != null ? " (" + reason + ")" : "";
+        return "Waitlist " + requestId + " for " + target + " from " + startDate.toGMTString() +
+               " to " + endDate.toGMTString() + ": " + status + outcome;
+    }
+}